@@ -1,3 +1,6 @@
 rootProject.name = "yarl"
 include(":yarl-core")
 include(":yarl-java")
+if (providers.gradleProperty("benchmarks").forUseAtConfigurationTime().isPresent) {
+  include(":yarl-benchmarks")
+}
@@ -0,0 +1,36 @@
+plugins {
+  kotlin("jvm") version "1.5.0"
+  id("me.champeau.jmh") version "0.6.5"
+}
+
+repositories {
+  mavenCentral()
+}
+
+dependencies {
+  jmhImplementation(project(":yarl-core"))
+  jmhImplementation("org.jetbrains.kotlinx:kotlinx-coroutines-core:1.5.0-RC")
+  jmhImplementation("org.jetbrains.kotlinx:kotlinx-coroutines-jdk8:1.5.0-RC")
+}
+
+description = "yarl-benchmarks"
+
+jmh {
+  jmhVersion.set("1.32")
+  fork.set(1)
+  warmupIterations.set(3)
+  iterations.set(5)
+  profilers.add("gc")
+  resultFormat.set("JSON")
+  if (project.hasProperty("jmhIncludes")) {
+    includes.add(project.property("jmhIncludes") as String)
+  }
+}
+
+tasks.withType<org.jetbrains.kotlin.gradle.tasks.KotlinCompile>()
+  .configureEach {
+    kotlinOptions {
+      jvmTarget = JavaVersion.VERSION_11.toString()
+      freeCompilerArgs = listOf("-Xjvm-default=all")
+    }
+  }
@@ -0,0 +1,95 @@
+package hr.tjakopan.yarl.benchmarks
+
+import hr.tjakopan.yarl.retry.Backoff
+import org.openjdk.jmh.annotations.AuxCounters
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import java.time.Duration
+
+/**
+ * Simulates a herd of clients that all fail at the same instant and retry on the same schedule. Besides the cost of
+ * computing a schedule, reports the share of the last simulated herd that lands in the busiest 10 ms window of each
+ * retry as the `peakLoadPercent` counter. Lower means the retries are better dispersed.
+ */
+@State(Scope.Benchmark)
+open class BackoffBenchmark {
+  private companion object {
+    const val HERD_SIZE = 1000
+    const val RETRY_COUNT = 5
+    const val WINDOW_NANOS = 10_000_000L
+  }
+
+  @JvmField
+  @Param("exponential", "fullJitter", "equalJitter", "decorrelatedJitter")
+  var strategy: String = ""
+
+  private lateinit var schedule: Iterable<Duration>
+
+  @Setup
+  fun setUp() {
+    val baseDelay = Duration.ofMillis(100)
+    val maxDelay = Duration.ofSeconds(10)
+    schedule = when (strategy) {
+      "exponential" -> Backoff.exponential(baseDelay, RETRY_COUNT, maxDelay = maxDelay)
+      "fullJitter" -> Backoff.fullJitter(baseDelay, RETRY_COUNT, maxDelay)
+      "equalJitter" -> Backoff.equalJitter(baseDelay, RETRY_COUNT, maxDelay)
+      "decorrelatedJitter" -> Backoff.decorrelatedJitter(baseDelay, RETRY_COUNT, maxDelay)
+      else -> throw IllegalArgumentException("Unknown strategy $strategy.")
+    }
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  open class Dispersion {
+    @JvmField
+    var peakLoadPercent: Long = 0
+    internal val retryTimes = Array(RETRY_COUNT) { LongArray(HERD_SIZE) }
+
+    @Setup(Level.Iteration)
+    fun reset() {
+      peakLoadPercent = 0
+    }
+  }
+
+  @Benchmark
+  fun schedule(): Long {
+    var total = 0L
+    for (sleepDuration in schedule) {
+      total += sleepDuration.toNanos()
+    }
+    return total
+  }
+
+  @Benchmark
+  fun herd(dispersion: Dispersion): Int {
+    val retryTimes = dispersion.retryTimes
+    for (client in 0 until HERD_SIZE) {
+      var time = 0L
+      schedule.forEachIndexed { retry, sleepDuration ->
+        time += sleepDuration.toNanos()
+        retryTimes[retry][client] = time
+      }
+    }
+    var peak = 0
+    for (times in retryTimes) {
+      peak += peakWindowLoad(times)
+    }
+    dispersion.peakLoadPercent = peak * 100L / (HERD_SIZE * RETRY_COUNT)
+    return peak
+  }
+
+  private fun peakWindowLoad(times: LongArray): Int {
+    times.sort()
+    var peak = 0
+    var start = 0
+    for (end in times.indices) {
+      while (times[end] - times[start] >= WINDOW_NANOS) start++
+      peak = maxOf(peak, end - start + 1)
+    }
+    return peak
+  }
+}
@@ -0,0 +1,20 @@
+package hr.tjakopan.yarl.benchmarks
+
+import java.util.concurrent.CompletableFuture
+import kotlin.coroutines.Continuation
+import kotlin.coroutines.EmptyCoroutineContext
+import kotlin.coroutines.startCoroutine
+
+internal const val RESULT = 42
+
+internal val COMPLETED_RESULT: CompletableFuture<Int> = CompletableFuture.completedFuture(RESULT)
+
+/**
+ * Runs [block] on the calling thread without a dispatcher, so suspend benchmarks measure the policy rather than
+ * `runBlocking`. Fails if [block] actually suspends.
+ */
+internal fun <T> runSuspend(block: suspend () -> T): T {
+  var outcome: Result<T>? = null
+  block.startCoroutine(Continuation(EmptyCoroutineContext) { outcome = it })
+  return checkNotNull(outcome) { "Benchmarked action suspended." }.getOrThrow()
+}
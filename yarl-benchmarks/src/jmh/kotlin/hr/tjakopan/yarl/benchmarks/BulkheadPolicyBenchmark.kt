@@ -0,0 +1,48 @@
+package hr.tjakopan.yarl.benchmarks
+
+import hr.tjakopan.yarl.IAsyncPolicy
+import hr.tjakopan.yarl.ISyncPolicy
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.bulkhead.BulkheadPolicy
+import hr.tjakopan.yarl.bulkhead.asyncBulkhead
+import hr.tjakopan.yarl.bulkhead.bulkhead
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Threads
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.CompletableFuture
+
+open class BulkheadPolicyBenchmark : PolicyBenchmark() {
+  private val contendedPolicy: BulkheadPolicy<Int> = Policy.bulkhead<Int>()
+    .bulkhead(CONTENDED_PARALLELIZATION, Int.MAX_VALUE)
+  private val contendedAsyncPolicy: IAsyncPolicy<Int> = Policy.asyncBulkhead<Int>()
+    .bulkhead(CONTENDED_PARALLELIZATION, Int.MAX_VALUE)
+  private val work: () -> Int = {
+    Blackhole.consumeCPU(WORK_TOKENS)
+    RESULT
+  }
+  private val futureWork: () -> CompletableFuture<Int> = { CompletableFuture.completedFuture(work()) }
+
+  override fun createPolicy(): ISyncPolicy<Int> = Policy.bulkhead<Int>()
+    .bulkhead(Int.MAX_VALUE)
+
+  override fun createAsyncPolicy(): IAsyncPolicy<Int> = Policy.asyncBulkhead<Int>()
+    .bulkhead(Int.MAX_VALUE)
+
+  @Benchmark
+  @Threads(CONTENDING_THREADS)
+  fun contendedBaseline(): Int = work()
+
+  @Benchmark
+  @Threads(CONTENDING_THREADS)
+  fun executeContended(): Int = contendedPolicy.execute(work)
+
+  @Benchmark
+  @Threads(CONTENDING_THREADS)
+  fun executeAsyncContended(): Int = contendedAsyncPolicy.executeAsync(futureWork).join()
+
+  private companion object {
+    const val CONTENDED_PARALLELIZATION = 2
+    const val CONTENDING_THREADS = 8
+    const val WORK_TOKENS = 100L
+  }
+}
@@ -0,0 +1,59 @@
+package hr.tjakopan.yarl.benchmarks
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.IAsyncPolicy
+import hr.tjakopan.yarl.ISyncPolicy
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.noop.asyncNoOp
+import hr.tjakopan.yarl.noop.noOp
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Cost of the execution context around a no-op policy: no context, context data passed in, and an action writing to
+ * its context. Run with the `gc` profiler and compare `gc.alloc.rate.norm` to see the bytes allocated per execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class ContextBenchmark {
+  private val policy: ISyncPolicy<Int> = Policy.noOp()
+  private val asyncPolicy: IAsyncPolicy<Int> = Policy.asyncNoOp()
+
+  private val contextData: Map<String, Any> = mapOf("key" to "value")
+
+  private val action: (Context) -> Int = { RESULT }
+  private val suspendAction: suspend (Context) -> Int = { RESULT }
+  private val writingAction: (Context) -> Int = { context ->
+    context["key"] = RESULT
+    RESULT
+  }
+  private val writingSuspendAction: suspend (Context) -> Int = { context ->
+    context["key"] = RESULT
+    RESULT
+  }
+
+  @Benchmark
+  fun newContext(): Context = Context()
+
+  @Benchmark
+  fun newContextWithData(): Context = Context(contextData)
+
+  @Benchmark
+  fun execute(): Int = policy.execute(Context.of(), action)
+
+  @Benchmark
+  fun executeWithContextData(): Int = policy.execute(contextData, action)
+
+  @Benchmark
+  fun executeWritingContext(): Int = policy.execute(Context.of(), writingAction)
+
+  @Benchmark
+  fun executeSuspend(): Int = runSuspend { asyncPolicy.execute(Context.of(), suspendAction) }
+
+  @Benchmark
+  fun executeSuspendWithContextData(): Int = runSuspend { asyncPolicy.execute(contextData, suspendAction) }
+
+  @Benchmark
+  fun executeSuspendWritingContext(): Int = runSuspend { asyncPolicy.execute(Context.of(), writingSuspendAction) }
+}
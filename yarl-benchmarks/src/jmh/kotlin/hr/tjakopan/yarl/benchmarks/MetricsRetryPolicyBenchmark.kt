@@ -0,0 +1,24 @@
+package hr.tjakopan.yarl.benchmarks
+
+import hr.tjakopan.yarl.IAsyncPolicy
+import hr.tjakopan.yarl.ISyncPolicy
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.retry.asyncRetry
+import hr.tjakopan.yarl.retry.retry
+
+/**
+ * [RetryPolicyBenchmark] with metrics recorded, to compare against the same policies without them.
+ */
+open class MetricsRetryPolicyBenchmark : RetryPolicyBenchmark() {
+  override fun createPolicy(): ISyncPolicy<Int> = Policy.retry<Int>()
+    .policyKey("MetricsRetryPolicyBenchmark")
+    .recordMetrics()
+    .handle(IllegalStateException::class)
+    .retry(3)
+
+  override fun createAsyncPolicy(): IAsyncPolicy<Int> = Policy.asyncRetry<Int>()
+    .policyKey("AsyncMetricsRetryPolicyBenchmark")
+    .recordMetrics()
+    .handle(IllegalStateException::class)
+    .retry(3)
+}
@@ -0,0 +1,13 @@
+package hr.tjakopan.yarl.benchmarks
+
+import hr.tjakopan.yarl.IAsyncPolicy
+import hr.tjakopan.yarl.ISyncPolicy
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.noop.asyncNoOp
+import hr.tjakopan.yarl.noop.noOp
+
+open class NoOpPolicyBenchmark : PolicyBenchmark() {
+  override fun createPolicy(): ISyncPolicy<Int> = Policy.noOp()
+
+  override fun createAsyncPolicy(): IAsyncPolicy<Int> = Policy.asyncNoOp()
+}
@@ -0,0 +1,58 @@
+package hr.tjakopan.yarl.benchmarks
+
+import hr.tjakopan.yarl.IAsyncPolicy
+import hr.tjakopan.yarl.ISyncPolicy
+import hr.tjakopan.yarl.PolicyResult
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * Hot path of a single policy: sync `execute`/`executeAndCapture`, suspend `execute` and
+ * `executeAsync`/`executeAndCaptureAsync`, each next to a raw call baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime, Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+abstract class PolicyBenchmark {
+  protected lateinit var policy: ISyncPolicy<Int>
+  protected lateinit var asyncPolicy: IAsyncPolicy<Int>
+
+  private val action: () -> Int = { RESULT }
+  private val suspendAction: suspend () -> Int = { RESULT }
+  private val futureAction: () -> CompletableFuture<Int> = { COMPLETED_RESULT }
+
+  protected abstract fun createPolicy(): ISyncPolicy<Int>
+
+  protected abstract fun createAsyncPolicy(): IAsyncPolicy<Int>
+
+  @Setup
+  fun setUp() {
+    policy = createPolicy()
+    asyncPolicy = createAsyncPolicy()
+  }
+
+  @Benchmark
+  fun baseline(): Int = action()
+
+  @Benchmark
+  fun execute(): Int = policy.execute(action)
+
+  @Benchmark
+  fun executeAndCapture(): PolicyResult<Int> = policy.executeAndCapture(action)
+
+  @Benchmark
+  fun suspendBaseline(): Int = runSuspend(suspendAction)
+
+  @Benchmark
+  fun executeSuspend(): Int = runSuspend { asyncPolicy.execute(suspendAction) }
+
+  @Benchmark
+  fun executeAndCaptureSuspend(): PolicyResult<Int> = runSuspend { asyncPolicy.executeAndCapture(suspendAction) }
+
+  @Benchmark
+  fun executeAsync(): Int = asyncPolicy.executeAsync(futureAction).join()
+
+  @Benchmark
+  fun executeAndCaptureAsync(): PolicyResult<Int> = asyncPolicy.executeAndCaptureAsync(futureAction).join()
+}
@@ -0,0 +1,29 @@
+package hr.tjakopan.yarl.benchmarks
+
+import hr.tjakopan.yarl.IAsyncPolicy
+import hr.tjakopan.yarl.ISyncPolicy
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.retry.asyncRetry
+import hr.tjakopan.yarl.retry.retry
+import org.openjdk.jmh.annotations.Benchmark
+
+open class RetryPolicyBenchmark : PolicyBenchmark() {
+  private val failure = IllegalStateException("Benchmark failure.")
+  private var fail = false
+  private val failEveryOtherAttempt: () -> Int = {
+    fail = !fail
+    if (fail) throw failure
+    RESULT
+  }
+
+  override fun createPolicy(): ISyncPolicy<Int> = Policy.retry<Int>()
+    .handle(IllegalStateException::class)
+    .retry(3)
+
+  override fun createAsyncPolicy(): IAsyncPolicy<Int> = Policy.asyncRetry<Int>()
+    .handle(IllegalStateException::class)
+    .retry(3)
+
+  @Benchmark
+  fun executeWithOneRetry(): Int = policy.execute(failEveryOtherAttempt)
+}
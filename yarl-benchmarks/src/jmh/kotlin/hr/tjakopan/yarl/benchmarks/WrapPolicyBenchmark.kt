@@ -0,0 +1,32 @@
+package hr.tjakopan.yarl.benchmarks
+
+import hr.tjakopan.yarl.IAsyncPolicy
+import hr.tjakopan.yarl.ISyncPolicy
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.noop.asyncNoOp
+import hr.tjakopan.yarl.noop.noOp
+import hr.tjakopan.yarl.wrap.AsyncWrapPolicy
+import hr.tjakopan.yarl.wrap.WrapPolicy
+import org.openjdk.jmh.annotations.Param
+
+open class WrapPolicyBenchmark : PolicyBenchmark() {
+  @JvmField
+  @Param("2", "5", "10")
+  var depth: Int = 0
+
+  @JvmField
+  @Param("false", "true")
+  var compiled: Boolean = false
+
+  override fun createPolicy(): ISyncPolicy<Int> {
+    val builder = WrapPolicy.builder<Int>()
+    if (compiled) builder.compiled()
+    return builder.wrap(*Array<ISyncPolicy<Int>>(depth) { Policy.noOp() })
+  }
+
+  override fun createAsyncPolicy(): IAsyncPolicy<Int> {
+    val builder = AsyncWrapPolicy.builder<Int>()
+    if (compiled) builder.compiled()
+    return builder.wrap(*Array<IAsyncPolicy<Int>>(depth) { Policy.asyncNoOp() })
+  }
+}
@@ -0,0 +1,184 @@
+package hr.tjakopan.yarl
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.Executor
+import kotlin.coroutines.Continuation
+import kotlin.coroutines.intrinsics.createCoroutineUnintercepted
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+import kotlin.coroutines.startCoroutine
+
+/**
+ * Support for the [CompletableFuture] API of async policies.
+ *
+ * Policies compose the futures returned by their actions directly and only fall back to a coroutine when they have to
+ * suspend. Such coroutines have no scope; each has a job of its own that cancelling its future cancels, and resumes on
+ * the dispatcher of its [Executor]. Every future a policy returns forwards its cancellation to the futures and
+ * coroutines it depends on.
+ */
+internal object AsyncExecution {
+  /**
+   * [executor] together with its dispatcher, so an execution looks the dispatcher up once and hands it down to every
+   * coroutine it starts.
+   */
+  class DispatchingExecutor(val executor: Executor) : Executor by executor {
+    val dispatcher: CoroutineDispatcher = executor.asCoroutineDispatcher()
+  }
+
+  @Volatile
+  private var defaultDispatchingExecutor: DispatchingExecutor? = null
+
+  /**
+   * Pairs [executor] with its dispatcher. Only the dispatcher of [AsyncExecutors.defaultExecutor] is kept between
+   * calls; policies keep their own default executor's, and any other executor gets a new one, so no cache holds on to
+   * executors that are no longer used.
+   */
+  @JvmSynthetic
+  fun dispatching(executor: Executor): DispatchingExecutor {
+    if (executor is DispatchingExecutor) {
+      return executor
+    }
+    if (executor !== AsyncExecutors.defaultExecutor) {
+      return DispatchingExecutor(executor)
+    }
+    val cached = defaultDispatchingExecutor
+    if (cached != null && cached.executor === executor) {
+      return cached
+    }
+    return DispatchingExecutor(executor).also { defaultDispatchingExecutor = it }
+  }
+
+  @JvmSynthetic
+  fun dispatcher(executor: Executor): CoroutineDispatcher = dispatching(executor).dispatcher
+
+  /**
+   * Runs [block] as a coroutine started on [executor].
+   */
+  @JvmSynthetic
+  fun <T> future(executor: Executor, block: suspend () -> T): CompletableFuture<T> {
+    val future = CompletableFuture<T>()
+    block.startCoroutine(completion(executor, future))
+    return future
+  }
+
+  /**
+   * Runs [block] as a coroutine on the calling thread until it first suspends; it resumes on [executor].
+   */
+  @JvmSynthetic
+  fun <T> bridge(executor: Executor, block: suspend () -> T): CompletableFuture<T> {
+    val future = CompletableFuture<T>()
+    block.createCoroutineUnintercepted(completion(executor, future)).resume(Unit)
+    return future
+  }
+
+  /**
+   * Invokes [action], turning an exception thrown before it returns a future into a failed future.
+   */
+  @JvmSynthetic
+  fun <R> invoke(action: (Context) -> CompletableFuture<R>, context: Context): CompletableFuture<R> = try {
+    action(context)
+  } catch (e: Throwable) {
+    CompletableFuture.failedFuture(e)
+  }
+
+  @JvmSynthetic
+  fun <R> executeFuture(
+    policy: IAsyncPolicy<R>,
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> = when (policy) {
+    is AsyncPolicy<R, *> -> policy.executeFuture(context, executor, action)
+    else -> policy.executeAsync(context, executor, action)
+  }
+
+  /**
+   * Runs [block] once [future] completes, before anything that depends on the returned future.
+   */
+  @JvmSynthetic
+  inline fun <T> afterCompletion(future: CompletableFuture<T>, crossinline block: () -> Unit): CompletableFuture<T> =
+    when {
+      future.isDone -> {
+        block()
+        future
+      }
+      else -> future.whenComplete { _, _ -> block() }.also { forwardCancellation(it, future) }
+    }
+
+  /**
+   * Cancels [source] when [dependent] is cancelled, which [CompletableFuture] does not do for dependent stages.
+   */
+  @JvmSynthetic
+  fun forwardCancellation(dependent: CompletableFuture<*>, source: CompletableFuture<*>) {
+    if (!source.isDone) {
+      dependent.whenComplete { _, _ ->
+        if (dependent.isCancelled) {
+          source.cancel(false)
+        }
+      }
+    }
+  }
+
+  /**
+   * Completes [target] like [source], without the [CompletionException] wrapper added by dependent stages, and cancels
+   * [source] when [target] is cancelled.
+   */
+  @JvmSynthetic
+  fun <T> relay(source: CompletableFuture<T>, target: CompletableFuture<T>) {
+    source.whenComplete { value, e ->
+      if (e == null) {
+        target.complete(value)
+      } else {
+        target.completeExceptionally(unwrap(e))
+      }
+    }
+    forwardCancellation(target, source)
+  }
+
+  /**
+   * Suspends until [future] completes. Unlike `CompletionStage.await`, cancelling the caller only stops it waiting and
+   * leaves [future] to complete for anyone else depending on it.
+   */
+  @JvmSynthetic
+  suspend fun <T> awaitShared(future: CompletableFuture<T>): T {
+    if (future.isDone) {
+      try {
+        return future.join()
+      } catch (e: Throwable) {
+        throw unwrap(e)
+      }
+    }
+    return suspendCancellableCoroutine { continuation ->
+      future.whenComplete { value, e ->
+        when (e) {
+          null -> continuation.resume(value)
+          else -> continuation.resumeWithException(unwrap(e))
+        }
+      }
+    }
+  }
+
+  @JvmSynthetic
+  fun unwrap(e: Throwable): Throwable = when {
+    e is CompletionException && e.cause != null -> e.cause!!
+    else -> e
+  }
+
+  private fun <T> completion(executor: Executor, future: CompletableFuture<T>): Continuation<T> {
+    val job = Job()
+    future.whenComplete { _, _ ->
+      if (future.isCancelled) {
+        job.cancel()
+      }
+    }
+    return Continuation(dispatcher(executor) + job) { result ->
+      result.fold({ future.complete(it) }, { future.completeExceptionally(it) })
+      job.complete()
+    }
+  }
+}
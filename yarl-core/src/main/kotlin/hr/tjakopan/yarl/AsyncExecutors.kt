@@ -0,0 +1,112 @@
+package hr.tjakopan.yarl
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.withContext
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * Executors used by the [CompletableFuture] API of async policies.
+ *
+ * [defaultExecutor] applies to every async policy built without its own
+ * [default executor][PolicyBuilder.defaultExecutor]. Blocking work, such as a sync policy run from an async one or a
+ * pessimistic timeout, goes to [blockingExecutor], which runs each task on its own virtual thread where the runtime
+ * supports them.
+ */
+object AsyncExecutors {
+  private val virtualThreadPerTaskExecutor: ExecutorService? by lazy {
+    try {
+      Executors::class.java.getMethod("newVirtualThreadPerTaskExecutor").invoke(null) as ExecutorService
+    } catch (e: ReflectiveOperationException) {
+      null
+    }
+  }
+
+  private val cachedThreadPool: ExecutorService by lazy {
+    Executors.newCachedThreadPool { runnable -> Thread(runnable, "yarl-blocking").apply { isDaemon = true } }
+  }
+
+  /**
+   * `true` when the runtime can run tasks on virtual threads.
+   */
+  @JvmStatic
+  val isVirtualThreadSupported: Boolean
+    get() = virtualThreadPerTaskExecutor != null
+
+  @JvmStatic
+  @Volatile
+  var defaultExecutor: Executor = ForkJoinPool.commonPool()
+
+  /**
+   * Runs each task on a new virtual thread, or on a cached pool of daemon threads where virtual threads are not
+   * supported.
+   */
+  @JvmStatic
+  val blockingExecutor: Executor
+    get() = virtualThreadPerTaskExecutor ?: cachedThreadPool
+
+  @get:JvmSynthetic
+  internal val blockingDispatcher: CoroutineDispatcher by lazy { blockingExecutor.asCoroutineDispatcher() }
+
+  /**
+   * Shared executor running each task on a new virtual thread.
+   *
+   * @throws UnsupportedOperationException if the runtime does not support virtual threads
+   */
+  @JvmStatic
+  fun virtualThreadPerTask(): Executor =
+    virtualThreadPerTaskExecutor ?: throw UnsupportedOperationException("Virtual threads are not supported.")
+
+  /**
+   * Makes virtual threads the [defaultExecutor].
+   *
+   * @throws UnsupportedOperationException if the runtime does not support virtual threads
+   */
+  @JvmStatic
+  fun useVirtualThreads() {
+    defaultExecutor = virtualThreadPerTask()
+  }
+
+  /**
+   * Executes [action] through the sync [policy] on the [blockingExecutor], so that it can be awaited from an async
+   * policy without blocking the async policy's threads. The returned future fails with the exception of the execution
+   * itself, not wrapped in a [java.util.concurrent.CompletionException], and cancelling it before the execution starts
+   * skips the execution.
+   */
+  @JvmStatic
+  fun <R> executeBlocking(
+    policy: ISyncPolicy<R>,
+    context: Context,
+    action: (Context) -> R
+  ): CompletableFuture<R> {
+    val future = CompletableFuture<R>()
+    blockingExecutor.execute {
+      if (!future.isDone) {
+        try {
+          future.complete(policy.execute(context, action))
+        } catch (e: Throwable) {
+          future.completeExceptionally(e)
+        }
+      }
+    }
+    return future
+  }
+
+  @JvmStatic
+  fun <R> executeBlocking(policy: ISyncPolicy<R>, action: () -> R): CompletableFuture<R> =
+    executeBlocking(policy, Context.none()) { action() }
+}
+
+/**
+ * Executes [action] through this sync policy on the [AsyncExecutors.blockingExecutor] and suspends until it completes.
+ */
+@JvmSynthetic
+suspend fun <R> ISyncPolicy<R>.executeBlocking(context: Context, action: (Context) -> R): R =
+  withContext(AsyncExecutors.blockingDispatcher) { execute(context, action) }
+
+@JvmSynthetic
+suspend fun <R> ISyncPolicy<R>.executeBlocking(action: () -> R): R = executeBlocking(Context.none()) { action() }
@@ -1,18 +1,68 @@
 package hr.tjakopan.yarl
 
+import hr.tjakopan.yarl.metrics.ActionInvocation
+import hr.tjakopan.yarl.metrics.PolicyMetrics
+import kotlinx.coroutines.future.await
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.function.BiConsumer
+
 abstract class AsyncPolicy<R, out B : PolicyBuilder<R, B>> protected constructor(policyBuilder: PolicyBuilder<R, B>) :
   PolicyBase<R, B>(policyBuilder), IAsyncPolicy<R> {
+  private val policyExecutor: Executor? = policyBuilder.defaultExecutor
+  private val policyDispatchingExecutor: Executor? = policyExecutor?.let(AsyncExecution::dispatching)
+
+  override val defaultExecutor: Executor
+    get() = policyExecutor ?: AsyncExecutors.defaultExecutor
+
   @JvmSynthetic
   override suspend fun execute(context: Context, action: suspend (Context) -> R): R {
     val priorPolicyKey = context.policyKey
     context.policyKey = policyKey
     try {
-      return implementation(context, action)
+      val metrics = metrics ?: return implementation(context, action)
+      return executeRecordingMetrics(metrics, context, action)
     } finally {
       context.policyKey = priorPolicyKey
     }
   }
 
+  private suspend fun executeRecordingMetrics(
+    metrics: PolicyMetrics,
+    context: Context,
+    action: suspend (Context) -> R
+  ): R {
+    metrics.recordExecution()
+    val invocation = ActionInvocation()
+    val startNanos = System.nanoTime()
+    try {
+      val result = implementation(context) { ctx ->
+        invocation.isInvoked = true
+        action(ctx)
+      }
+      recordResult(metrics, startNanos, result)
+      return result
+    } catch (e: Throwable) {
+      recordException(metrics, startNanos, e, invocation)
+      throw e
+    }
+  }
+
+  override fun executeAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> {
+    val dispatchingExecutor = dispatching(executor)
+    val future = CompletableFuture<R>()
+    dispatchingExecutor.execute {
+      if (!future.isDone) {
+        AsyncExecution.relay(executeFuture(context, dispatchingExecutor, action), future)
+      }
+    }
+    return future
+  }
+
   @JvmSynthetic
   override suspend fun executeAndCapture(context: Context, action: suspend (Context) -> R): PolicyResult<R> {
     try {
@@ -26,6 +76,112 @@ abstract class AsyncPolicy<R, out B : PolicyBuilder<R, B>> protected constructor
     }
   }
 
+  override fun executeAndCaptureAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<PolicyResult<R>> {
+    val dispatchingExecutor = dispatching(executor)
+    val future = CompletableFuture<PolicyResult<R>>()
+    dispatchingExecutor.execute {
+      if (future.isDone) {
+        return@execute
+      }
+      val outcome = executeFuture(context, dispatchingExecutor, action)
+      AsyncExecution.forwardCancellation(future, outcome)
+      outcome.whenComplete { result, e ->
+        future.complete(
+          try {
+            when {
+              e != null -> throw AsyncExecution.unwrap(e)
+              resultPredicates.anyMatch(result) -> PolicyResult.failureWithResult(result, context)
+              else -> PolicyResult.success(result, context)
+            }
+          } catch (exception: Throwable) {
+            PolicyResult.failureWithException(exception, getExceptionType(exceptionPredicates, exception), context)
+          }
+        )
+      }
+    }
+    return future
+  }
+
+  private fun dispatching(executor: Executor): Executor = when {
+    executor === policyExecutor -> policyDispatchingExecutor!!
+    else -> AsyncExecution.dispatching(executor)
+  }
+
+  /**
+   * Executes [action] through this policy on the calling thread, without handing it over to [executor] first.
+   */
+  @JvmSynthetic
+  internal fun executeFuture(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> {
+    val priorPolicyKey = context.policyKey
+    context.policyKey = policyKey
+    val future: CompletableFuture<R> = when (val metrics = metrics) {
+      null -> implementationFuture(context, executor, action)
+      else -> implementationFutureRecordingMetrics(metrics, context, executor, action)
+    }
+    return AsyncExecution.afterCompletion(future) { context.policyKey = priorPolicyKey }
+  }
+
+  private fun implementationFuture(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> = try {
+    implementationAsync(context, executor, action)
+  } catch (e: Throwable) {
+    CompletableFuture.failedFuture(e)
+  }
+
+  /**
+   * Like [AsyncExecution.afterCompletion], records the outcome before anything that depends on the returned future,
+   * and hands a done future back as it is.
+   */
+  private fun implementationFutureRecordingMetrics(
+    metrics: PolicyMetrics,
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> {
+    metrics.recordExecution()
+    val invocation = ActionInvocation()
+    val startNanos = System.nanoTime()
+    val future = implementationFuture(context, executor) { ctx ->
+      invocation.isInvoked = true
+      action(ctx)
+    }
+    val record = BiConsumer<R, Throwable?> { result, e ->
+      when (e) {
+        null -> recordResult(metrics, startNanos, result)
+        else -> recordException(metrics, startNanos, AsyncExecution.unwrap(e), invocation)
+      }
+    }
+    return when {
+      future.isDone -> {
+        future.whenComplete(record)
+        future
+      }
+      else -> future.whenComplete(record).also { AsyncExecution.forwardCancellation(it, future) }
+    }
+  }
+
   @JvmSynthetic
   protected abstract suspend fun implementation(context: Context, action: suspend (Context) -> R): R
+
+  /**
+   * [CompletableFuture] counterpart of [implementation]. Policies that can compose the action's future directly
+   * override it; by default [implementation] runs as a coroutine that resumes on [executor].
+   */
+  @JvmSynthetic
+  internal open fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> = AsyncExecution.bridge(executor) { implementation(context) { ctx -> action(ctx).await() } }
 }
@@ -5,11 +5,20 @@ import hr.tjakopan.yarl.annotations.ThreadSafe
 import java.util.*
 import java.util.concurrent.ConcurrentHashMap
 
+/**
+ * Execution context passed to every action and delegate of a policy.
+ *
+ * Most executions never put anything into their context, so its data is kept as cheaply as the entries require: no
+ * storage until the first write, then an immutable inline array of up to [MAX_INLINE_ENTRIES] entries which is copied
+ * on write, and finally a [ConcurrentHashMap]. Reads never lock; writes lock only until the map is escalated to the
+ * concurrent one. The [keys], [values] and [entries] views are backed by the concurrent map, so asking for one
+ * escalates the storage.
+ */
 @ThreadSafe
 class Context private constructor(
   val operationKey: String?,
-  contextData: MutableMap<String, Any>
-) : MutableMap<String, Any> by contextData {
+  contextData: Map<String, Any>
+) : MutableMap<String, Any> {
   @Volatile
   @GuardedBy("this")
   var policyWrapKey: String? = null
@@ -20,33 +29,235 @@ class Context private constructor(
   var policyKey: String? = null
     internal set
 
-  val correlationId: UUID by lazy { UUID.randomUUID() }
+  @Volatile
+  private var correlationIdValue: UUID? = null
+
+  /**
+   * Id generated by [idGenerator] the first time it is read.
+   */
+  val correlationId: UUID
+    get() {
+      val correlationId = correlationIdValue
+      if (correlationId != null) {
+        return correlationId
+      }
+      synchronized(this) {
+        return correlationIdValue ?: idGenerator.nextId().also { correlationIdValue = it }
+      }
+    }
+
+  /**
+   * `null`, an [Array] of alternating keys and values, or a [ConcurrentHashMap]. Only escalates, never goes back.
+   */
+  @Volatile
+  @GuardedBy("this")
+  private var data: Any? = when {
+    contextData.isEmpty() -> null
+    contextData.size <= MAX_INLINE_ENTRIES -> inlineEntriesOf(contextData)
+    else -> ConcurrentHashMap(contextData)
+  }
+
+  override val size: Int
+    get() = when (val data = data) {
+      null -> 0
+      is Array<*> -> data.size / 2
+      else -> concurrent(data).size
+    }
+
+  override fun isEmpty(): Boolean = size == 0
+
+  override fun containsKey(key: String): Boolean = get(key) != null
+
+  override fun containsValue(value: Any): Boolean = when (val data = data) {
+    null -> false
+    is Array<*> -> {
+      var found = false
+      for (i in 1 until data.size step 2) {
+        found = found || data[i] == value
+      }
+      found
+    }
+    else -> concurrent(data).containsValue(value)
+  }
+
+  override fun get(key: String): Any? = when (val data = data) {
+    null -> null
+    is Array<*> -> {
+      val index = indexOf(data, key)
+      if (index < 0) null else data[index + 1]
+    }
+    else -> concurrent(data)[key]
+  }
+
+  override fun put(key: String, value: Any): Any? {
+    val data = data
+    if (data is ConcurrentHashMap<*, *>) {
+      return concurrent(data).put(key, value)
+    }
+    synchronized(this) {
+      return when (val current = this.data) {
+        null -> {
+          this.data = arrayOf(key, value)
+          null
+        }
+        is Array<*> -> {
+          val index = indexOf(current, key)
+          when {
+            index >= 0 -> {
+              this.data = inlineEntries(current).copyOf().also { it[index + 1] = value }
+              current[index + 1]
+            }
+            current.size / 2 < MAX_INLINE_ENTRIES -> {
+              this.data = inlineEntries(current).copyOf(current.size + 2).also {
+                it[current.size] = key
+                it[current.size + 1] = value
+              }
+              null
+            }
+            else -> {
+              escalate()[key] = value
+              null
+            }
+          }
+        }
+        else -> concurrent(current).put(key, value)
+      }
+    }
+  }
+
+  override fun putAll(from: Map<out String, Any>) {
+    for ((key, value) in from) {
+      put(key, value)
+    }
+  }
+
+  override fun remove(key: String): Any? {
+    val data = data
+    if (data is ConcurrentHashMap<*, *>) {
+      return concurrent(data).remove(key)
+    }
+    synchronized(this) {
+      return when (val current = this.data) {
+        null -> null
+        is Array<*> -> {
+          val index = indexOf(current, key)
+          if (index < 0) {
+            return null
+          }
+          this.data = when (current.size) {
+            2 -> null
+            else -> arrayOfNulls<Any>(current.size - 2).also {
+              System.arraycopy(current, 0, it, 0, index)
+              System.arraycopy(current, index + 2, it, index, current.size - index - 2)
+            }
+          }
+          current[index + 1]
+        }
+        else -> concurrent(current).remove(key)
+      }
+    }
+  }
+
+  override fun clear() {
+    val data = data
+    if (data is ConcurrentHashMap<*, *>) {
+      data.clear()
+      return
+    }
+    synchronized(this) {
+      when (val current = this.data) {
+        is ConcurrentHashMap<*, *> -> current.clear()
+        else -> this.data = null
+      }
+    }
+  }
+
+  override val keys: MutableSet<String>
+    get() = escalate().keys
+
+  override val values: MutableCollection<Any>
+    get() = escalate().values
+
+  override val entries: MutableSet<MutableMap.MutableEntry<String, Any>>
+    get() = escalate().entries
+
+  private fun escalate(): ConcurrentHashMap<String, Any> {
+    val data = data
+    if (data is ConcurrentHashMap<*, *>) {
+      return concurrent(data)
+    }
+    synchronized(this) {
+      return when (val current = this.data) {
+        null -> ConcurrentHashMap<String, Any>().also { this.data = it }
+        is Array<*> -> ConcurrentHashMap<String, Any>(current.size).also { map ->
+          for (i in current.indices step 2) {
+            map[current[i] as String] = current[i + 1]!!
+          }
+          this.data = map
+        }
+        else -> concurrent(current)
+      }
+    }
+  }
 
   companion object {
+    private const val MAX_INLINE_ENTRIES = 8
+
+    /**
+     * Generates correlation ids and default policy keys; [IdGenerator.FAST] unless replaced.
+     */
+    @JvmStatic
+    @Volatile
+    var idGenerator: IdGenerator = IdGenerator.FAST
+
+    private fun inlineEntriesOf(contextData: Map<String, Any>): Array<Any?> {
+      val entries = arrayOfNulls<Any>(contextData.size * 2)
+      var i = 0
+      for ((key, value) in contextData) {
+        entries[i++] = key
+        entries[i++] = value
+      }
+      return entries
+    }
+
+    private fun indexOf(entries: Array<*>, key: String): Int {
+      for (i in entries.indices step 2) {
+        if (entries[i] == key) {
+          return i
+        }
+      }
+      return -1
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun inlineEntries(data: Array<*>): Array<Any?> = data as Array<Any?>
+
+    @Suppress("UNCHECKED_CAST")
+    private fun concurrent(data: Any): ConcurrentHashMap<String, Any> = data as ConcurrentHashMap<String, Any>
+
     @JvmSynthetic
     internal fun none() = invoke()
 
     @JvmSynthetic
-    operator fun invoke(operationKey: String, contextData: Map<String, Any>) =
-      Context(operationKey, ConcurrentHashMap(contextData))
+    operator fun invoke(operationKey: String, contextData: Map<String, Any>) = Context(operationKey, contextData)
 
     @JvmStatic
     fun of(operationKey: String, contextData: Map<String, Any>) = invoke(operationKey, contextData)
 
     @JvmSynthetic
-    operator fun invoke(operationKey: String) = Context(operationKey, ConcurrentHashMap())
+    operator fun invoke(operationKey: String) = Context(operationKey, emptyMap())
 
     @JvmStatic
     fun of(operationKey: String) = invoke(operationKey)
 
     @JvmSynthetic
-    operator fun invoke(contextData: Map<String, Any>) = Context(null, ConcurrentHashMap(contextData))
+    operator fun invoke(contextData: Map<String, Any>) = Context(null, contextData)
 
     @JvmStatic
     fun of(contextData: Map<String, Any>) = invoke(contextData)
 
     @JvmSynthetic
-    operator fun invoke() = Context(null, ConcurrentHashMap())
+    operator fun invoke() = Context(null, emptyMap())
 
     @JvmStatic
     fun of() = invoke()
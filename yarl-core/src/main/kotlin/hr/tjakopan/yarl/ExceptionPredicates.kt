@@ -8,6 +8,8 @@ typealias ExceptionPredicate = (e: Throwable) -> Throwable?
 class ExceptionPredicates private constructor(private val predicates: List<ExceptionPredicate>) {
   constructor() : this(listOf())
 
+  private val matchers: Array<ExceptionPredicate> = compile(predicates)
+
   @JvmSynthetic
   internal operator fun plus(predicate: ExceptionPredicate): ExceptionPredicates {
     val predicates = this.predicates + predicate
@@ -15,12 +17,54 @@ class ExceptionPredicates private constructor(private val predicates: List<Excep
   }
 
   fun firstMatchOrNull(e: Throwable): Throwable? {
-    return predicates.mapNotNull { it(e) }
-      .firstOrNull()
+    for (matcher in matchers) {
+      val match = matcher(e)
+      if (match != null) {
+        return match
+      }
+    }
+    return null
   }
 
   companion object {
     @JvmField
     val NONE = ExceptionPredicates()
+
+    // Runs of plain exception type predicates all return the exception itself, so each run is merged into one
+    // matcher without changing which predicate matches first.
+    private fun compile(predicates: List<ExceptionPredicate>): Array<ExceptionPredicate> {
+      val matchers = ArrayList<ExceptionPredicate>(predicates.size)
+      var i = 0
+      while (i < predicates.size) {
+        val predicate = predicates[i]
+        if (predicate !is ExceptionTypePredicate) {
+          matchers.add(predicate)
+          i++
+          continue
+        }
+        val exceptionClasses = mutableListOf<Class<out Throwable>>()
+        while (i < predicates.size) {
+          val typePredicate = predicates[i] as? ExceptionTypePredicate ?: break
+          exceptionClasses.add(typePredicate.exceptionClass)
+          i++
+        }
+        matchers.add(ExceptionTypesMatcher(exceptionClasses.toTypedArray()))
+      }
+      return matchers.toTypedArray()
+    }
+  }
+}
+
+@Immutable
+internal class ExceptionTypePredicate(val exceptionClass: Class<out Throwable>) : ExceptionPredicate {
+  override fun invoke(e: Throwable): Throwable? = if (exceptionClass.isInstance(e)) e else null
+}
+
+@Immutable
+private class ExceptionTypesMatcher(private val exceptionClasses: Array<Class<out Throwable>>) : ExceptionPredicate {
+  private val handledTypes = object : ClassValue<Boolean>() {
+    override fun computeValue(type: Class<*>): Boolean = exceptionClasses.any { it.isAssignableFrom(type) }
   }
+
+  override fun invoke(e: Throwable): Throwable? = if (handledTypes.get(e.javaClass)) e else null
 }
@@ -1,18 +1,15 @@
 package hr.tjakopan.yarl
 
-import kotlinx.coroutines.CoroutineScope
-import kotlinx.coroutines.asCoroutineDispatcher
 import kotlinx.coroutines.future.await
-import kotlinx.coroutines.future.future
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.Executor
-import java.util.concurrent.ForkJoinPool
 
 interface IAsyncPolicy<R> : IPolicy {
-  companion object {
-    @JvmSynthetic
-    internal val DEFAULT_EXECUTOR: Executor = ForkJoinPool.commonPool()
-  }
+  /**
+   * Executor of the [CompletableFuture] API when none is passed.
+   */
+  val defaultExecutor: Executor
+    get() = AsyncExecutors.defaultExecutor
 
   @JvmSynthetic
   suspend fun execute(action: suspend () -> R): R = execute(Context.none()) { action() }
@@ -30,7 +27,7 @@ interface IAsyncPolicy<R> : IPolicy {
     executeAsync(Context(contextData), action)
 
   fun executeAsync(context: Context, action: (Context) -> CompletableFuture<R>): CompletableFuture<R> =
-    executeAsync(context, DEFAULT_EXECUTOR, action)
+    executeAsync(context, defaultExecutor, action)
 
   fun executeAsync(executor: Executor, action: () -> CompletableFuture<R>): CompletableFuture<R> =
     executeAsync(Context.none(), executor) { action() }
@@ -43,7 +40,7 @@ interface IAsyncPolicy<R> : IPolicy {
 
   fun executeAsync(context: Context, executor: Executor, action: (Context) -> CompletableFuture<R>):
     CompletableFuture<R> =
-    CoroutineScope(executor.asCoroutineDispatcher()).future {
+    AsyncExecution.future(executor) {
       execute(context) { ctx ->
         action(ctx).await()
       }
@@ -71,7 +68,7 @@ interface IAsyncPolicy<R> : IPolicy {
   fun executeAndCaptureAsync(
     context: Context,
     action: (Context) -> CompletableFuture<R>
-  ): CompletableFuture<PolicyResult<R>> = executeAndCaptureAsync(context, DEFAULT_EXECUTOR, action)
+  ): CompletableFuture<PolicyResult<R>> = executeAndCaptureAsync(context, defaultExecutor, action)
 
   fun executeAndCaptureAsync(
     executor: Executor,
@@ -86,7 +83,7 @@ interface IAsyncPolicy<R> : IPolicy {
 
   fun executeAndCaptureAsync(context: Context, executor: Executor, action: (Context) -> CompletableFuture<R>):
     CompletableFuture<PolicyResult<R>> =
-    CoroutineScope(executor.asCoroutineDispatcher()).future {
+    AsyncExecution.future(executor) {
       executeAndCapture(context) { ctx ->
         action(ctx).await()
       }
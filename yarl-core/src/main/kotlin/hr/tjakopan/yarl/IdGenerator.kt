@@ -0,0 +1,46 @@
+package hr.tjakopan.yarl
+
+import java.util.*
+import java.util.concurrent.ThreadLocalRandom
+
+/**
+ * Generates the [correlation ids][Context.correlationId] of contexts and the suffixes of default policy keys.
+ *
+ * The [FAST] generator is used unless [Context.idGenerator] is replaced, e.g. with [SECURE] where ids must not be
+ * predictable.
+ */
+interface IdGenerator {
+  companion object {
+    /**
+     * Random version 4 UUIDs drawn from [ThreadLocalRandom], which neither blocks nor contends between threads. The ids
+     * are unique for all practical purposes but predictable.
+     */
+    @JvmField
+    val FAST: IdGenerator = FastIdGenerator
+
+    /**
+     * Random version 4 UUIDs drawn from a [java.security.SecureRandom] through [UUID.randomUUID].
+     */
+    @JvmField
+    val SECURE: IdGenerator = SecureIdGenerator
+  }
+
+  fun nextId(): UUID
+}
+
+private object FastIdGenerator : IdGenerator {
+  private const val VERSION_MASK = 0xf000L
+  private const val VERSION_4 = 0x4000L
+  private const val VARIANT_MASK = 0x3fffffffffffffffL
+
+  override fun nextId(): UUID {
+    val random = ThreadLocalRandom.current()
+    val mostSigBits = (random.nextLong() and VERSION_MASK.inv()) or VERSION_4
+    val leastSigBits = (random.nextLong() and VARIANT_MASK) or Long.MIN_VALUE
+    return UUID(mostSigBits, leastSigBits)
+  }
+}
+
+private object SecureIdGenerator : IdGenerator {
+  override fun nextId(): UUID = UUID.randomUUID()
+}
@@ -1,5 +1,8 @@
 package hr.tjakopan.yarl
 
+import hr.tjakopan.yarl.metrics.ActionInvocation
+import hr.tjakopan.yarl.metrics.PolicyMetrics
+
 abstract class Policy<R, out B : PolicyBuilder<R, B>> protected constructor(policyBuilder: PolicyBuilder<R, B>) :
   PolicyBase<R, B>(policyBuilder), ISyncPolicy<R> {
   companion object Policy
@@ -8,12 +11,30 @@ abstract class Policy<R, out B : PolicyBuilder<R, B>> protected constructor(poli
     val priorPolicyKey = context.policyKey
     context.policyKey = policyKey
     try {
-      return implementation(context, action)
+      val metrics = metrics ?: return implementation(context, action)
+      return executeRecordingMetrics(metrics, context, action)
     } finally {
       context.policyKey = priorPolicyKey
     }
   }
 
+  private fun executeRecordingMetrics(metrics: PolicyMetrics, context: Context, action: (Context) -> R): R {
+    metrics.recordExecution()
+    val invocation = ActionInvocation()
+    val startNanos = System.nanoTime()
+    try {
+      val result = implementation(context) { ctx ->
+        invocation.isInvoked = true
+        action(ctx)
+      }
+      recordResult(metrics, startNanos, result)
+      return result
+    } catch (e: Throwable) {
+      recordException(metrics, startNanos, e, invocation)
+      throw e
+    }
+  }
+
   override fun executeAndCapture(context: Context, action: (Context) -> R): PolicyResult<R> {
     return try {
       val result: R = execute(context, action)
@@ -1,5 +1,9 @@
 package hr.tjakopan.yarl
 
+import hr.tjakopan.yarl.metrics.ActionInvocation
+import hr.tjakopan.yarl.metrics.MetricsRegistry
+import hr.tjakopan.yarl.metrics.PolicyMetrics
+
 abstract class PolicyBase<R, out B : PolicyBuilder<R, B>> protected constructor(policyBuilder: PolicyBuilder<R, B>) {
   internal companion object {
     @JvmSynthetic
@@ -18,4 +22,44 @@ abstract class PolicyBase<R, out B : PolicyBuilder<R, B>> protected constructor(
   protected val resultPredicates = policyBuilder.resultPredicates
 
   protected val exceptionPredicates = policyBuilder.exceptionPredicates
+
+  /**
+   * Metrics this policy records into, or `null` unless it was built with [PolicyBuilder.recordMetrics].
+   */
+  val metrics: PolicyMetrics? = when {
+    policyBuilder.recordsMetrics -> {
+      require(policyBuilder.policyKey != null) { "Policy key must be set to record metrics." }
+      MetricsRegistry.forPolicyKey(policyKey)
+    }
+    else -> null
+  }
+
+  @JvmSynthetic
+  internal fun recordResult(metrics: PolicyMetrics, startNanos: Long, result: R) {
+    val latencyNanos = System.nanoTime() - startNanos
+    when {
+      resultPredicates.anyMatch(result) -> metrics.recordHandledFailure(latencyNanos)
+      else -> metrics.recordSuccess(latencyNanos)
+    }
+  }
+
+  /**
+   * An [ExecutionRejectedException] thrown before the action was invoked is a rejection by this policy; one thrown
+   * by the action, e.g. by an inner policy, is a failure like any other exception.
+   */
+  @JvmSynthetic
+  internal fun recordException(
+    metrics: PolicyMetrics,
+    startNanos: Long,
+    exception: Throwable,
+    invocation: ActionInvocation
+  ) {
+    val latencyNanos = System.nanoTime() - startNanos
+    when {
+      exception is ExecutionRejectedException && !invocation.isInvoked -> metrics.recordRejection()
+      getExceptionType(exceptionPredicates, exception) == ExceptionType.HANDLED_BY_THIS_POLICY ->
+        metrics.recordHandledFailure(latencyNanos)
+      else -> metrics.recordUnhandledFailure(latencyNanos)
+    }
+  }
 }
@@ -1,10 +1,21 @@
 package hr.tjakopan.yarl
 
+import java.util.concurrent.Executor
 import kotlin.reflect.KClass
 
 abstract class PolicyBuilder<R, out B : PolicyBuilder<R, B>> protected constructor() {
   var policyKey: String? = null
 
+  @JvmSynthetic
+  internal var defaultExecutor: Executor? = null
+    @JvmSynthetic get
+    @JvmSynthetic set
+
+  @JvmSynthetic
+  internal var recordsMetrics: Boolean = false
+    @JvmSynthetic get
+    @JvmSynthetic set
+
   @JvmSynthetic
   internal var resultPredicates: ResultPredicates<R> = ResultPredicates()
     @JvmSynthetic get
@@ -20,14 +31,31 @@ abstract class PolicyBuilder<R, out B : PolicyBuilder<R, B>> protected construct
     return self()
   }
 
+  /**
+   * Sets the executor of the [CompletableFuture][java.util.concurrent.CompletableFuture] API of an async policy when
+   * none is passed, instead of [AsyncExecutors.defaultExecutor]. Only the builders of async policies make it public.
+   */
+  protected open fun defaultExecutor(executor: Executor): B {
+    this.defaultExecutor = executor
+    return self()
+  }
+
+  /**
+   * Records executions of the policy into the [PolicyMetrics][hr.tjakopan.yarl.metrics.PolicyMetrics] of its policy
+   * key, looked up through [MetricsRegistry][hr.tjakopan.yarl.metrics.MetricsRegistry]. Policies sharing a policy key
+   * share their metrics.
+   *
+   * The registry keeps metrics for as long as the JVM runs, so the policy key must be set explicitly rather than left
+   * to the random default of each policy instance; building the policy otherwise throws [IllegalArgumentException].
+   */
+  fun recordMetrics(): B {
+    this.recordsMetrics = true
+    return self()
+  }
+
   @JvmSynthetic
   fun <E : Throwable> handle(exceptionClass: KClass<E>): B {
-    exceptionPredicates += {
-      when {
-        exceptionClass.isInstance(it) -> it
-        else -> null
-      }
-    }
+    exceptionPredicates += ExceptionTypePredicate(exceptionClass.java)
     return self()
   }
 
@@ -73,8 +101,14 @@ abstract class PolicyBuilder<R, out B : PolicyBuilder<R, B>> protected construct
   @JvmSynthetic
   internal fun causePredicate(predicate: (Throwable) -> Boolean): ExceptionPredicate {
     return fun(exception: Throwable): Throwable? {
-      return generateSequence(exception, Throwable::cause)
-        .firstOrNull(predicate)
+      var current: Throwable? = exception
+      while (current != null) {
+        if (predicate(current)) {
+          return current
+        }
+        current = current.cause
+      }
+      return null
     }
   }
 
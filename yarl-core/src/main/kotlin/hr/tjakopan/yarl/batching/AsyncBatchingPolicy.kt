@@ -0,0 +1,46 @@
+package hr.tjakopan.yarl.batching
+
+import hr.tjakopan.yarl.AsyncExecution
+import hr.tjakopan.yarl.AsyncPolicy
+import hr.tjakopan.yarl.Context
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+/**
+ * Executions submitting an item wait, suspended, for the batch their item joins; the batch function runs on the thread
+ * that fills the batch, or on the [default executor][defaultExecutor] when the linger time runs out.
+ */
+class AsyncBatchingPolicy<T, R> internal constructor(policyBuilder: AsyncBatchingPolicyBuilder<T, R>) :
+  AsyncPolicy<R, AsyncBatchingPolicyBuilder<T, R>>(policyBuilder), IBatchingPolicy {
+  companion object AsyncBatchingPolicy {
+    @JvmStatic
+    fun <T, R> builder(): AsyncBatchingPolicyBuilder<T, R> = AsyncBatchingPolicyBuilder()
+  }
+
+  override val maxBatchSize: Int = policyBuilder.maxBatchSize
+  private val itemProvider: (Context) -> T? = policyBuilder.itemProvider
+  private val batcher: MicroBatcher<T, R>
+
+  init {
+    val batchFunction = policyBuilder.batchFunction
+    val batchFunctionAsync: (List<T>) -> CompletableFuture<List<R>> = policyBuilder.batchFunctionAsync
+      ?: { items -> AsyncExecution.bridge(defaultExecutor) { batchFunction!!(items) } }
+    batcher = MicroBatcher(maxBatchSize, policyBuilder.maxLingerNanos, batchFunctionAsync) { defaultExecutor }
+  }
+
+  @JvmSynthetic
+  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R {
+    val item = itemProvider(context) ?: return action(context)
+    return AsyncExecution.awaitShared(batcher.submit(item))
+  }
+
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> {
+    val item = itemProvider(context) ?: return AsyncExecution.invoke(action, context)
+    return batcher.submit(item)
+  }
+}
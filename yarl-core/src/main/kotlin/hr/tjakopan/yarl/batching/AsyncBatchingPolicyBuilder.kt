@@ -0,0 +1,85 @@
+package hr.tjakopan.yarl.batching
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.PolicyBuilder
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+@JvmSuppressWildcards
+class AsyncBatchingPolicyBuilder<T, R> : PolicyBuilder<R, AsyncBatchingPolicyBuilder<T, R>>() {
+  @JvmSynthetic
+  internal var maxBatchSize: Int = 1
+
+  @JvmSynthetic
+  internal var maxLingerNanos: Long = 0L
+
+  @JvmSynthetic
+  internal var itemProvider: (Context) -> T? = { context ->
+    @Suppress("UNCHECKED_CAST")
+    context[IBatchingPolicy.ITEM_KEY] as T?
+  }
+
+  @JvmSynthetic
+  internal var batchFunction: (suspend (List<T>) -> List<R>)? = null
+
+  @JvmSynthetic
+  internal var batchFunctionAsync: ((List<T>) -> CompletableFuture<List<R>>)? = null
+
+  /**
+   * Takes the item of an execution from [itemProvider] instead of [IBatchingPolicy.ITEM_KEY]. Executions without an
+   * item execute their action as usual.
+   */
+  fun batchItem(itemProvider: (Context) -> T?): AsyncBatchingPolicyBuilder<T, R> {
+    this.itemProvider = itemProvider
+    return self()
+  }
+
+  /**
+   * Builds a policy collecting the items of concurrent executions into batches, which [batchFunction] executes in
+   * place of their actions. A batch is executed once it holds [maxBatchSize] items, or [maxLinger] after its first item
+   * arrived. [batchFunction] returns one result per item, in the order of the items.
+   */
+  @JvmSynthetic
+  fun batch(
+    maxBatchSize: Int,
+    maxLinger: Duration,
+    batchFunction: suspend (List<T>) -> List<R>
+  ): AsyncBatchingPolicy<T, R> {
+    configureBatch(maxBatchSize, maxLinger)
+    this.batchFunction = batchFunction
+    this.batchFunctionAsync = null
+    return AsyncBatchingPolicy(this)
+  }
+
+  @JvmName("batch")
+  fun batchAsync(
+    maxBatchSize: Int,
+    maxLinger: Duration,
+    batchFunction: (List<T>) -> CompletableFuture<List<R>>
+  ): AsyncBatchingPolicy<T, R> {
+    configureBatch(maxBatchSize, maxLinger)
+    this.batchFunction = null
+    this.batchFunctionAsync = batchFunction
+    return AsyncBatchingPolicy(this)
+  }
+
+  private fun configureBatch(maxBatchSize: Int, maxLinger: Duration) {
+    require(maxBatchSize > 0) { "Max batch size must be greater than zero." }
+    require(!maxLinger.isNegative) { "Max linger must be greater than or equal to zero." }
+    this.maxBatchSize = maxBatchSize
+    this.maxLingerNanos = when {
+      maxLinger > MAX_LINGER -> MAX_LINGER.toNanos()
+      else -> maxLinger.toNanos()
+    }
+  }
+
+  private companion object {
+    val MAX_LINGER: Duration = Duration.ofNanos(Long.MAX_VALUE / 4)
+  }
+
+  public override fun defaultExecutor(executor: Executor): AsyncBatchingPolicyBuilder<T, R> =
+    super.defaultExecutor(executor)
+
+  override fun self(): AsyncBatchingPolicyBuilder<T, R> = this
+}
@@ -0,0 +1,15 @@
+package hr.tjakopan.yarl.batching
+
+import hr.tjakopan.yarl.IPolicy
+
+interface IBatchingPolicy : IPolicy {
+  companion object {
+    /**
+     * [Context][hr.tjakopan.yarl.Context] key of the item an execution submits to a batch, unless the policy was built
+     * with its own [item provider][AsyncBatchingPolicyBuilder.batchItem].
+     */
+    const val ITEM_KEY = "BatchItem"
+  }
+
+  val maxBatchSize: Int
+}
@@ -0,0 +1,118 @@
+package hr.tjakopan.yarl.batching
+
+import hr.tjakopan.yarl.AsyncExecution
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Collects submitted items into batches.
+ *
+ * Items go to a lock-free queue and are counted afterwards, so every counted item is already in the queue. A flush
+ * claims items by decreasing the count with a CAS before polling them, so concurrent flushes never share an item. The
+ * submitter that fills a batch flushes it; the submitter that finds the queue empty arms the linger timer, which
+ * flushes whatever has arrived by then.
+ *
+ * The count shares its state with a generation that every flush emptying the queue advances, in the same CAS. A linger
+ * timer only flushes the generation it was armed for, so the timer of a batch already flushed when full does not cut
+ * short the linger of the items queued after it.
+ */
+@ThreadSafe
+internal class MicroBatcher<T, R>(
+  private val maxBatchSize: Int,
+  private val maxLingerNanos: Long,
+  private val batchFunction: (List<T>) -> CompletableFuture<List<R>>,
+  private val executor: () -> Executor
+) {
+  private companion object {
+    const val COUNT_MASK = 0xFFFF_FFFFL
+    const val GENERATION_SHIFT = 32
+    const val GENERATION = 1L shl GENERATION_SHIFT
+  }
+
+  private class Pending<T, R>(val item: T) {
+    val result = CompletableFuture<R>()
+  }
+
+  private val queue = ConcurrentLinkedQueue<Pending<T, R>>()
+
+  /**
+   * Generation in the high 32 bits, number of queued items in the low 32 bits.
+   */
+  private val state = AtomicLong()
+
+  fun submit(item: T): CompletableFuture<R> {
+    val pending = Pending<T, R>(item)
+    queue.offer(pending)
+    val state = state.incrementAndGet()
+    val queued = (state and COUNT_MASK).toInt()
+    when {
+      queued >= maxBatchSize -> flushFullBatches()
+      queued == 1 -> {
+        val generation = state ushr GENERATION_SHIFT
+        CompletableFuture.delayedExecutor(maxLingerNanos, TimeUnit.NANOSECONDS, executor())
+          .execute { flushAll(generation) }
+      }
+    }
+    return pending.result
+  }
+
+  private fun flushFullBatches() {
+    while (true) {
+      val current = state.get()
+      if ((current and COUNT_MASK) < maxBatchSize) {
+        return
+      }
+      if (state.compareAndSet(current, claim(current, maxBatchSize))) {
+        execute(maxBatchSize)
+      }
+    }
+  }
+
+  private fun flushAll(generation: Long) {
+    while (true) {
+      val current = state.get()
+      val queued = (current and COUNT_MASK).toInt()
+      if (current ushr GENERATION_SHIFT != generation || queued == 0) {
+        return
+      }
+      val batchSize = minOf(queued, maxBatchSize)
+      if (state.compareAndSet(current, claim(current, batchSize))) {
+        execute(batchSize)
+      }
+    }
+  }
+
+  /**
+   * State after claiming [batchSize] items from [current], advancing the generation if no items are left.
+   */
+  private fun claim(current: Long, batchSize: Int): Long {
+    val next = current - batchSize
+    return if ((next and COUNT_MASK) == 0L) next + GENERATION else next
+  }
+
+  private fun execute(batchSize: Int) {
+    val batch = List(batchSize) { queue.poll()!! }
+    val results = try {
+      batchFunction(batch.map { it.item })
+    } catch (e: Throwable) {
+      CompletableFuture.failedFuture(e)
+    }
+    results.whenComplete { values, e ->
+      when {
+        e != null -> {
+          val exception = AsyncExecution.unwrap(e)
+          batch.forEach { it.result.completeExceptionally(exception) }
+        }
+        values.size != batchSize -> {
+          val exception = IllegalStateException("Batch function returned ${values.size} results for $batchSize items.")
+          batch.forEach { it.result.completeExceptionally(exception) }
+        }
+        else -> batch.forEachIndexed { i, pending -> pending.result.complete(values[i]) }
+      }
+    }
+  }
+}
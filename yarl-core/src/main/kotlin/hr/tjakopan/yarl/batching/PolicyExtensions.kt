@@ -0,0 +1,5 @@
+package hr.tjakopan.yarl.batching
+
+import hr.tjakopan.yarl.Policy
+
+fun <T, R> Policy.Policy.asyncBatching(): AsyncBatchingPolicyBuilder<T, R> = AsyncBatchingPolicyBuilder()
@@ -0,0 +1,102 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.AsyncExecution
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.ExceptionPredicates
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+/**
+ * Adaptive bulkheads reject as soon as the limit is reached rather than queueing: rejections are the back pressure the
+ * limit relies on. Exceptions handled by the policy are reported to the limit as drops; any other outcome as a latency
+ * sample.
+ */
+internal object AdaptiveBulkheadEngine {
+  @JvmSynthetic
+  fun <R> implementation(
+    action: (Context) -> R,
+    context: Context,
+    exceptionPredicates: ExceptionPredicates,
+    onBulkheadRejected: (Context) -> Unit,
+    limiter: AdaptiveLimiter
+  ): R {
+    if (!limiter.tryAcquire()) {
+      onBulkheadRejected(context)
+      throw BulkheadRejectedException()
+    }
+    val startNanos = System.nanoTime()
+    var dropped = false
+    try {
+      return action(context)
+    } catch (e: Throwable) {
+      dropped = exceptionPredicates.firstMatchOrNull(e) != null
+      throw e
+    } finally {
+      limiter.release(startNanos, dropped)
+    }
+  }
+
+  @JvmSynthetic
+  suspend fun <R> implementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    exceptionPredicates: ExceptionPredicates,
+    onBulkheadRejected: suspend (Context) -> Unit,
+    limiter: AdaptiveLimiter
+  ): R {
+    if (!limiter.tryAcquire()) {
+      onBulkheadRejected(context)
+      throw BulkheadRejectedException()
+    }
+    val startNanos = System.nanoTime()
+    var dropped = false
+    try {
+      return action(context)
+    } catch (e: Throwable) {
+      dropped = exceptionPredicates.firstMatchOrNull(e) != null
+      throw e
+    } finally {
+      limiter.release(startNanos, dropped)
+    }
+  }
+
+  @JvmSynthetic
+  fun <R> implementationAsync(
+    action: (Context) -> CompletableFuture<R>,
+    context: Context,
+    executor: Executor,
+    exceptionPredicates: ExceptionPredicates,
+    onBulkheadRejected: suspend (Context) -> Unit,
+    limiter: AdaptiveLimiter
+  ): CompletableFuture<R> {
+    if (!limiter.tryAcquire()) {
+      return AsyncExecution.bridge(executor) {
+        onBulkheadRejected(context)
+        throw BulkheadRejectedException()
+      }
+    }
+    val startNanos = System.nanoTime()
+    val future = AsyncExecution.invoke(action, context)
+    if (future.isDone) {
+      limiter.release(startNanos, isDropped(future, exceptionPredicates))
+      return future
+    }
+    val releasingFuture = future.whenComplete { _, e ->
+      limiter.release(startNanos, e != null && exceptionPredicates.firstMatchOrNull(AsyncExecution.unwrap(e)) != null)
+    }
+    AsyncExecution.forwardCancellation(releasingFuture, future)
+    return releasingFuture
+  }
+
+  private fun isDropped(future: CompletableFuture<*>, exceptionPredicates: ExceptionPredicates): Boolean {
+    if (!future.isCompletedExceptionally) {
+      return false
+    }
+    return try {
+      future.join()
+      false
+    } catch (e: Throwable) {
+      exceptionPredicates.firstMatchOrNull(AsyncExecution.unwrap(e)) != null
+    }
+  }
+}
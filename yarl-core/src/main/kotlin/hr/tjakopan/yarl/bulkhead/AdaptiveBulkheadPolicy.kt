@@ -0,0 +1,28 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.Policy
+
+/**
+ * Bulkhead whose limit of concurrent executions is adjusted by a [ConcurrencyLimit] from the executions it observes.
+ * Executions beyond the limit are rejected rather than queued.
+ */
+class AdaptiveBulkheadPolicy<R> internal constructor(policyBuilder: BulkheadPolicyBuilder<R>) :
+  Policy<R, BulkheadPolicyBuilder<R>>(policyBuilder), IBulkheadPolicy {
+  private val limiter: AdaptiveLimiter = AdaptiveLimiter(policyBuilder.concurrencyLimit!!)
+  private val onBulkheadRejected: (Context) -> Unit = policyBuilder.onBulkheadRejected
+
+  override val maxParallelization: Int
+    get() = limiter.limit
+  override val bulkheadAvailableCount: Int
+    get() = limiter.availableCount
+  override val queueAvailableCount: Int = 0
+
+  override fun implementation(context: Context, action: (Context) -> R): R = AdaptiveBulkheadEngine.implementation(
+    action,
+    context,
+    exceptionPredicates,
+    onBulkheadRejected,
+    limiter
+  )
+}
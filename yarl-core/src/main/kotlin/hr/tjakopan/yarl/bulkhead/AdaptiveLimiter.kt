@@ -0,0 +1,46 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Resizable permits of an adaptive bulkhead.
+ *
+ * Acquiring compares the number of executions in flight with the current limit and claims a permit with a CAS, so the
+ * limit can change between any two acquires without locking. When the limit shrinks below the executions in flight,
+ * new executions are rejected until enough of them complete.
+ */
+@ThreadSafe
+internal class AdaptiveLimiter(private val concurrencyLimit: ConcurrencyLimit) {
+  private val inFlight = AtomicInteger()
+
+  val limit: Int
+    get() = concurrencyLimit.limit
+
+  val availableCount: Int
+    get() = maxOf(0, concurrencyLimit.limit - inFlight.get())
+
+  fun tryAcquire(): Boolean {
+    while (true) {
+      val current = inFlight.get()
+      if (current >= concurrencyLimit.limit) {
+        return false
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true
+      }
+    }
+  }
+
+  /**
+   * Releases a permit acquired at [startNanos] and feeds the execution to the [ConcurrencyLimit].
+   */
+  fun release(startNanos: Long, dropped: Boolean) {
+    val rttNanos = System.nanoTime() - startNanos
+    val inFlight = this.inFlight.getAndDecrement()
+    when {
+      dropped -> concurrencyLimit.onDrop(inFlight)
+      else -> concurrencyLimit.onSample(rttNanos, inFlight)
+    }
+  }
+}
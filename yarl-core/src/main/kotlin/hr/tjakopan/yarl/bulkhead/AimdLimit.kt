@@ -0,0 +1,55 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Additive increase, multiplicative decrease: the limit grows by one for each execution completing within [timeout]
+ * while at least half of the limit is in use, and is multiplied by `backoffRatio` on each drop or slower execution.
+ *
+ * @param initialLimit limit before any execution completes
+ * @param minLimit lower bound of the limit
+ * @param maxLimit upper bound of the limit
+ * @param backoffRatio factor applied to the limit on a drop, between zero and one
+ * @param timeout latency above which an execution counts as a drop
+ */
+@ThreadSafe
+class AimdLimit @JvmOverloads constructor(
+  initialLimit: Int = 20,
+  private val minLimit: Int = 1,
+  private val maxLimit: Int = 200,
+  private val backoffRatio: Double = 0.9,
+  timeout: Duration = Duration.ofSeconds(5)
+) : ConcurrencyLimit {
+  init {
+    require(minLimit > 0) { "Min limit must be greater than zero." }
+    require(maxLimit >= minLimit) { "Max limit must be greater than or equal to min limit." }
+    require(initialLimit in minLimit..maxLimit) { "Initial limit must be between min limit and max limit." }
+    require(backoffRatio > 0.0 && backoffRatio < 1.0) { "Backoff ratio must be between zero and one." }
+    require(timeout > Duration.ZERO) { "Timeout must be greater than zero." }
+  }
+
+  private val timeoutNanos: Long = timeout.toNanos()
+  private val currentLimit = AtomicInteger(initialLimit)
+
+  override val limit: Int
+    get() = currentLimit.get()
+
+  override fun onSample(rttNanos: Long, inFlight: Int) {
+    if (rttNanos > timeoutNanos) {
+      onDrop(inFlight)
+      return
+    }
+    currentLimit.updateAndGet { limit ->
+      when {
+        inFlight * 2 >= limit -> minOf(maxLimit, limit + 1)
+        else -> limit
+      }
+    }
+  }
+
+  override fun onDrop(inFlight: Int) {
+    currentLimit.updateAndGet { limit -> maxOf(minLimit, (limit * backoffRatio).toInt()) }
+  }
+}
@@ -0,0 +1,46 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.AsyncPolicy
+import hr.tjakopan.yarl.Context
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+/**
+ * Bulkhead whose limit of concurrent executions is adjusted by a [ConcurrencyLimit] from the executions it observes.
+ * Executions beyond the limit are rejected rather than queued.
+ */
+class AsyncAdaptiveBulkheadPolicy<R> internal constructor(policyBuilder: AsyncBulkheadPolicyBuilder<R>) :
+  AsyncPolicy<R, AsyncBulkheadPolicyBuilder<R>>(policyBuilder), IBulkheadPolicy {
+  private val limiter: AdaptiveLimiter = AdaptiveLimiter(policyBuilder.concurrencyLimit!!)
+  private val onBulkheadRejected: suspend (Context) -> Unit = policyBuilder.onBulkheadRejected
+
+  override val maxParallelization: Int
+    get() = limiter.limit
+  override val bulkheadAvailableCount: Int
+    get() = limiter.availableCount
+  override val queueAvailableCount: Int = 0
+
+  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
+    AdaptiveBulkheadEngine.implementation(
+      action,
+      context,
+      exceptionPredicates,
+      onBulkheadRejected,
+      limiter
+    )
+
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> =
+    AdaptiveBulkheadEngine.implementationAsync(
+      action,
+      context,
+      executor,
+      exceptionPredicates,
+      onBulkheadRejected,
+      limiter
+    )
+}
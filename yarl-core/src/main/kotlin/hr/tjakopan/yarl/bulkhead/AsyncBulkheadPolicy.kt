@@ -3,6 +3,8 @@ package hr.tjakopan.yarl.bulkhead
 import hr.tjakopan.yarl.AsyncPolicy
 import hr.tjakopan.yarl.Context
 import kotlinx.coroutines.sync.Semaphore
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
 import kotlin.math.min
 
 class AsyncBulkheadPolicy<R> internal constructor(policyBuilder: AsyncBulkheadPolicyBuilder<R>) :
@@ -13,20 +15,42 @@ class AsyncBulkheadPolicy<R> internal constructor(policyBuilder: AsyncBulkheadPo
     policyBuilder.maxParallelization,
     policyBuilder.maxQueueingActions
   )
+  override val maxParallelization: Int = policyBuilder.maxParallelization
   private val maxQueueingActions: Int = policyBuilder.maxQueueingActions
+  private val queue: BulkheadQueue? = BulkheadSemaphoreFactory.createQueue(policyBuilder)
+  private val priorityProvider: (Context) -> Int = policyBuilder.priorityProvider
   private val onBulkheadRejected: suspend (Context) -> Unit = policyBuilder.onBulkheadRejected
 
   override val bulkheadAvailableCount: Int
-    get() = maxParallelizationSemaphore.availablePermits
+    get() = queue?.availableCount ?: maxParallelizationSemaphore.availablePermits
   override val queueAvailableCount: Int
-    get() = min(maxQueuedActionsSemaphore.availablePermits, maxQueueingActions)
+    get() = queue?.queueAvailableCount ?: min(maxQueuedActionsSemaphore.availablePermits, maxQueueingActions)
 
-  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
-    BulkheadEngine.implementation(
+  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R = when (queue) {
+    null -> BulkheadEngine.implementation(
       action,
       context,
       onBulkheadRejected,
       maxParallelizationSemaphore,
       maxQueuedActionsSemaphore
     )
+    else -> BulkheadEngine.implementation(action, context, onBulkheadRejected, queue, priorityProvider)
+  }
+
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> = when (queue) {
+    null -> BulkheadEngine.implementationAsync(
+      action,
+      context,
+      executor,
+      onBulkheadRejected,
+      maxParallelizationSemaphore,
+      maxQueuedActionsSemaphore
+    )
+    else -> BulkheadEngine.implementationAsync(action, context, executor, onBulkheadRejected, queue, priorityProvider)
+  }
 }
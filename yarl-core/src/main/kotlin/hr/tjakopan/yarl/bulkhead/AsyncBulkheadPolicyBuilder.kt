@@ -3,6 +3,7 @@ package hr.tjakopan.yarl.bulkhead
 import hr.tjakopan.yarl.Context
 import kotlinx.coroutines.future.await
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
 
 class AsyncBulkheadPolicyBuilder<R> : BulkheadPolicyBuilderBase<R, AsyncBulkheadPolicyBuilder<R>>() {
   @JvmSynthetic
@@ -42,5 +43,32 @@ class AsyncBulkheadPolicyBuilder<R> : BulkheadPolicyBuilderBase<R, AsyncBulkhead
   ): AsyncBulkheadPolicy<R> =
     bulkheadAsync(maxParallelization, 0, onBulkheadRejected)
 
+  /**
+   * Builds a bulkhead whose limit of concurrent executions is adjusted at runtime by [concurrencyLimit]. Exceptions
+   * handled by the policy count as drops, signalling overload to the limit. It has no queue, so it cannot be combined
+   * with [priorityLanes], [maxQueueWait] or [adaptiveLifo].
+   */
+  @JvmSynthetic
+  fun adaptiveBulkhead(
+    concurrencyLimit: ConcurrencyLimit = AimdLimit(),
+    onBulkheadRejected: suspend (Context) -> Unit = { _ -> }
+  ): AsyncAdaptiveBulkheadPolicy<R> {
+    requireNoQueueingOptions()
+    this.concurrencyLimit = concurrencyLimit
+    this.onBulkheadRejected = onBulkheadRejected
+    return AsyncAdaptiveBulkheadPolicy(this)
+  }
+
+  @JvmName("adaptiveBulkhead")
+  @JvmOverloads
+  fun adaptiveBulkheadAsync(
+    concurrencyLimit: ConcurrencyLimit = AimdLimit(),
+    onBulkheadRejected: (Context) -> CompletableFuture<Unit> = { _ -> CompletableFuture.completedFuture(Unit) }
+  ): AsyncAdaptiveBulkheadPolicy<R> =
+    adaptiveBulkhead(concurrencyLimit) { context -> onBulkheadRejected(context).await() }
+
+  public override fun defaultExecutor(executor: Executor): AsyncBulkheadPolicyBuilder<R> =
+    super.defaultExecutor(executor)
+
   override fun self(): AsyncBulkheadPolicyBuilder<R> = this
 }
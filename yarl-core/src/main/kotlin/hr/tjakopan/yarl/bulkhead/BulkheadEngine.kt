@@ -1,9 +1,16 @@
 package hr.tjakopan.yarl.bulkhead
 
+import hr.tjakopan.yarl.AsyncExecution
 import hr.tjakopan.yarl.Context
-import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.future.await
 import kotlinx.coroutines.sync.Semaphore
 import kotlinx.coroutines.sync.withPermit
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.Semaphore as SyncSemaphore
+import java.util.concurrent.atomic.AtomicBoolean
 
 internal object BulkheadEngine {
   @JvmSynthetic
@@ -11,15 +18,20 @@ internal object BulkheadEngine {
     action: (Context) -> R,
     context: Context,
     onBulkheadRejected: (Context) -> Unit,
-    maxParallelizationSemaphore: Semaphore,
-    maxQueuedActionsSemaphore: Semaphore
-  ): R = runBlocking {
+    maxParallelizationSemaphore: SyncSemaphore,
+    maxQueuedActionsSemaphore: SyncSemaphore
+  ): R {
     if (!maxQueuedActionsSemaphore.tryAcquire()) {
       onBulkheadRejected(context)
       throw BulkheadRejectedException()
     }
     try {
-      maxParallelizationSemaphore.withPermit { action(context) }
+      maxParallelizationSemaphore.acquire()
+      try {
+        return action(context)
+      } finally {
+        maxParallelizationSemaphore.release()
+      }
     } finally {
       maxQueuedActionsSemaphore.release()
     }
@@ -43,4 +55,145 @@ internal object BulkheadEngine {
       maxQueuedActionsSemaphore.release()
     }
   }
+
+  /**
+   * Runs [action] inline while a slot is free; only waiting in the queue or reporting a rejection needs a coroutine.
+   */
+  @JvmSynthetic
+  fun <R> implementationAsync(
+    action: (Context) -> CompletableFuture<R>,
+    context: Context,
+    executor: Executor,
+    onBulkheadRejected: suspend (Context) -> Unit,
+    maxParallelizationSemaphore: Semaphore,
+    maxQueuedActionsSemaphore: Semaphore
+  ): CompletableFuture<R> {
+    if (!maxQueuedActionsSemaphore.tryAcquire()) {
+      return AsyncExecution.bridge(executor) {
+        onBulkheadRejected(context)
+        throw BulkheadRejectedException()
+      }
+    }
+    if (maxParallelizationSemaphore.tryAcquire()) {
+      return AsyncExecution.afterCompletion(AsyncExecution.invoke(action, context)) {
+        maxParallelizationSemaphore.release()
+        maxQueuedActionsSemaphore.release()
+      }
+    }
+    return AsyncExecution.bridge(executor) {
+      try {
+        maxParallelizationSemaphore.withPermit { action(context).await() }
+      } finally {
+        maxQueuedActionsSemaphore.release()
+      }
+    }
+  }
+
+  @JvmSynthetic
+  fun <R> implementation(
+    action: (Context) -> R,
+    context: Context,
+    onBulkheadRejected: (Context) -> Unit,
+    queue: BulkheadQueue,
+    priorityProvider: (Context) -> Int
+  ): R {
+    val waiter = queue.acquire(priorityProvider(context))
+    if (waiter == null) {
+      onBulkheadRejected(context)
+      throw BulkheadRejectedException()
+    }
+    if (waiter !== BulkheadQueue.GRANTED) {
+      try {
+        waiter.permit.get()
+      } catch (e: InterruptedException) {
+        queue.cancel(waiter)
+        throw e
+      } catch (e: ExecutionException) {
+        onBulkheadRejected(context)
+        throw e.cause ?: BulkheadRejectedException()
+      }
+    }
+    try {
+      return action(context)
+    } finally {
+      queue.release()
+    }
+  }
+
+  @JvmSynthetic
+  suspend fun <R> implementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    onBulkheadRejected: suspend (Context) -> Unit,
+    queue: BulkheadQueue,
+    priorityProvider: (Context) -> Int
+  ): R {
+    val waiter = queue.acquire(priorityProvider(context))
+    if (waiter == null) {
+      onBulkheadRejected(context)
+      throw BulkheadRejectedException()
+    }
+    if (waiter !== BulkheadQueue.GRANTED) {
+      try {
+        waiter.permit.await()
+      } catch (e: BulkheadRejectedException) {
+        onBulkheadRejected(context)
+        throw e
+      } catch (e: CancellationException) {
+        queue.cancel(waiter)
+        throw e
+      }
+    }
+    try {
+      return action(context)
+    } finally {
+      queue.release()
+    }
+  }
+
+  /**
+   * Runs [action] inline while a permit is free; a queued action runs on [executor] once it is granted a permit, and a
+   * rejected one reports its rejection there. Cancelling a queued execution gives up its place or passes on its
+   * permit.
+   */
+  @JvmSynthetic
+  fun <R> implementationAsync(
+    action: (Context) -> CompletableFuture<R>,
+    context: Context,
+    executor: Executor,
+    onBulkheadRejected: suspend (Context) -> Unit,
+    queue: BulkheadQueue,
+    priorityProvider: (Context) -> Int
+  ): CompletableFuture<R> {
+    val waiter = queue.acquire(priorityProvider(context))
+      ?: return AsyncExecution.bridge(executor) {
+        onBulkheadRejected(context)
+        throw BulkheadRejectedException()
+      }
+    if (waiter === BulkheadQueue.GRANTED) {
+      return AsyncExecution.afterCompletion(AsyncExecution.invoke(action, context)) { queue.release() }
+    }
+    val future = CompletableFuture<R>()
+    // Claimed either by the cancellation, which then gives the waiter up, or by the waiter once it is done waiting.
+    val claimed = AtomicBoolean()
+    future.whenComplete { _, _ ->
+      if (future.isCancelled && claimed.compareAndSet(false, true)) {
+        queue.cancel(waiter)
+      }
+    }
+    waiter.permit.whenCompleteAsync({ _, e ->
+      if (!claimed.compareAndSet(false, true)) {
+        return@whenCompleteAsync
+      }
+      val outcome: CompletableFuture<R> = when (e) {
+        null -> AsyncExecution.afterCompletion(AsyncExecution.invoke(action, context)) { queue.release() }
+        else -> AsyncExecution.bridge(executor) {
+          onBulkheadRejected(context)
+          throw AsyncExecution.unwrap(e)
+        }
+      }
+      AsyncExecution.relay(outcome, future)
+    }, executor)
+    return future
+  }
 }
@@ -2,7 +2,7 @@ package hr.tjakopan.yarl.bulkhead
 
 import hr.tjakopan.yarl.Context
 import hr.tjakopan.yarl.Policy
-import kotlinx.coroutines.sync.Semaphore
+import java.util.concurrent.Semaphore
 import kotlin.math.min
 
 class BulkheadPolicy<R> internal constructor(policyBuilder: BulkheadPolicyBuilder<R>) :
@@ -13,24 +13,30 @@ class BulkheadPolicy<R> internal constructor(policyBuilder: BulkheadPolicyBuilde
   }
 
   private val maxParallelizationSemaphore: Semaphore =
-    BulkheadSemaphoreFactory.createMaxParallelizationSemaphore(policyBuilder.maxParallelization)
-  private val maxQueuedActionsSemaphore: Semaphore = BulkheadSemaphoreFactory.createMaxQueuedActionsSemaphore(
+    BulkheadSemaphoreFactory.createSyncMaxParallelizationSemaphore(policyBuilder.maxParallelization)
+  private val maxQueuedActionsSemaphore: Semaphore = BulkheadSemaphoreFactory.createSyncMaxQueuedActionsSemaphore(
     policyBuilder.maxParallelization,
     policyBuilder.maxQueueingActions
   )
+  override val maxParallelization: Int = policyBuilder.maxParallelization
   private val maxQueueingActions: Int = policyBuilder.maxQueueingActions
+  private val queue: BulkheadQueue? = BulkheadSemaphoreFactory.createQueue(policyBuilder)
+  private val priorityProvider: (Context) -> Int = policyBuilder.priorityProvider
   private val onBulkheadRejected: (Context) -> Unit = policyBuilder.onBulkheadRejected
 
   override val bulkheadAvailableCount: Int
-    get() = maxParallelizationSemaphore.availablePermits
+    get() = queue?.availableCount ?: maxParallelizationSemaphore.availablePermits()
   override val queueAvailableCount: Int
-    get() = min(maxQueuedActionsSemaphore.availablePermits, maxQueueingActions)
+    get() = queue?.queueAvailableCount ?: min(maxQueuedActionsSemaphore.availablePermits(), maxQueueingActions)
 
-  override fun implementation(context: Context, action: (Context) -> R): R = BulkheadEngine.implementation(
-    action,
-    context,
-    onBulkheadRejected,
-    maxParallelizationSemaphore,
-    maxQueuedActionsSemaphore
-  )
+  override fun implementation(context: Context, action: (Context) -> R): R = when (queue) {
+    null -> BulkheadEngine.implementation(
+      action,
+      context,
+      onBulkheadRejected,
+      maxParallelizationSemaphore,
+      maxQueuedActionsSemaphore
+    )
+    else -> BulkheadEngine.implementation(action, context, onBulkheadRejected, queue, priorityProvider)
+  }
 }
@@ -24,6 +24,22 @@ class BulkheadPolicyBuilder<R> : BulkheadPolicyBuilderBase<R, BulkheadPolicyBuil
   fun bulkhead(maxParallelization: Int, onBulkheadRejected: (Context) -> Unit): BulkheadPolicy<R> =
     bulkhead(maxParallelization, 0, onBulkheadRejected)
 
+  /**
+   * Builds a bulkhead whose limit of concurrent executions is adjusted at runtime by [concurrencyLimit]. Exceptions
+   * handled by the policy count as drops, signalling overload to the limit. It has no queue, so it cannot be combined
+   * with [priorityLanes], [maxQueueWait] or [adaptiveLifo].
+   */
+  @JvmOverloads
+  fun adaptiveBulkhead(
+    concurrencyLimit: ConcurrencyLimit = AimdLimit(),
+    onBulkheadRejected: (Context) -> Unit = { _ -> }
+  ): AdaptiveBulkheadPolicy<R> {
+    requireNoQueueingOptions()
+    this.concurrencyLimit = concurrencyLimit
+    this.onBulkheadRejected = onBulkheadRejected
+    return AdaptiveBulkheadPolicy(this)
+  }
+
 //  fun bulkhead(maxParallelization: Int, maxQueueingActions: Int): BulkheadPolicy<R> =
 //    bulkhead(maxParallelization, maxQueueingActions) { _ -> }
 //
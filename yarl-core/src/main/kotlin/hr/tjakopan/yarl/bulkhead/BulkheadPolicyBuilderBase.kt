@@ -1,6 +1,8 @@
 package hr.tjakopan.yarl.bulkhead
 
+import hr.tjakopan.yarl.Context
 import hr.tjakopan.yarl.PolicyBuilder
+import java.time.Duration
 import kotlin.properties.Delegates
 
 abstract class BulkheadPolicyBuilderBase<R, out B : BulkheadPolicyBuilderBase<R, B>> protected constructor() :
@@ -9,4 +11,69 @@ abstract class BulkheadPolicyBuilderBase<R, out B : BulkheadPolicyBuilderBase<R,
 
   @JvmSynthetic
   internal var maxQueueingActions: Int = 0
+
+  @JvmSynthetic
+  internal var concurrencyLimit: ConcurrencyLimit? = null
+
+  @JvmSynthetic
+  internal var maxQueueingActionsPerLane: List<Int>? = null
+
+  @JvmSynthetic
+  internal var priorityProvider: (Context) -> Int = { _ -> 0 }
+
+  /**
+   * Queues waiting executions in priority lanes, one per element of [maxQueueingActionsPerLane] which limits the
+   * waiters of that lane. [priorityProvider] selects the lane of an execution, by default from
+   * [IBulkheadPolicy.PRIORITY_KEY]; priorities outside the lanes fall into the nearest one. Lane `0` is served first,
+   * and when the queue is full the newest waiter of the lowest priority is rejected first.
+   */
+  @JvmOverloads
+  fun priorityLanes(
+    maxQueueingActionsPerLane: List<Int>,
+    priorityProvider: (Context) -> Int = { context -> context[IBulkheadPolicy.PRIORITY_KEY] as? Int ?: 0 }
+  ): B {
+    require(maxQueueingActionsPerLane.isNotEmpty()) { "Priority lanes must not be empty." }
+    require(maxQueueingActionsPerLane.all { it >= 0 }) {
+      "Max queueing actions per lane must be greater than or equal to zero."
+    }
+    this.maxQueueingActionsPerLane = maxQueueingActionsPerLane.toList()
+    this.priorityProvider = priorityProvider
+    return self()
+  }
+
+  @JvmSynthetic
+  internal var maxQueueWait: Duration? = null
+
+  /**
+   * Rejects an execution with a [BulkheadRejectedException] once it has waited in the queue for [maxQueueWait], rather
+   * than letting it wait indefinitely for an execution slot.
+   */
+  fun maxQueueWait(maxQueueWait: Duration): B {
+    require(maxQueueWait > Duration.ZERO) { "Max queue wait must be greater than zero." }
+    this.maxQueueWait = maxQueueWait
+    return self()
+  }
+
+  @JvmSynthetic
+  internal var congestionThreshold: Duration? = null
+
+  /**
+   * Serves the newest waiting execution first while the oldest one has waited longer than [congestionThreshold], so
+   * that under sustained overload the slots go to the executions whose callers are likeliest to still be waiting.
+   */
+  fun adaptiveLifo(congestionThreshold: Duration): B {
+    require(!congestionThreshold.isNegative) { "Congestion threshold must be greater than or equal to zero." }
+    this.congestionThreshold = congestionThreshold
+    return self()
+  }
+
+  /**
+   * The adaptive bulkhead has no queue, so the queueing options must not be silently dropped.
+   */
+  @JvmSynthetic
+  internal fun requireNoQueueingOptions() {
+    require(maxQueueingActionsPerLane == null && maxQueueWait == null && congestionThreshold == null) {
+      "Priority lanes, max queue wait and adaptive LIFO are not supported by the adaptive bulkhead."
+    }
+  }
 }
@@ -0,0 +1,233 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.annotations.GuardedBy
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import hr.tjakopan.yarl.utilities.HashedTimerWheel
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+
+/**
+ * Permits of a bulkhead with priority lanes, a maximum queue wait or adaptive LIFO.
+ *
+ * Callers that find no free permit wait in the lane of their priority, lane `0` first; within a lane they are served in
+ * arrival order. Each lane holds at most its own limit of waiters and all lanes together at most `maxQueueingActions`.
+ * When the queue is full, a caller evicts the newest waiter of the lowest priority lane below its own, which is
+ * rejected, or is rejected itself if there is none.
+ *
+ * With a [maxQueueWait], a waiter still queued after that long is rejected. With a [congestionThreshold], a lane whose
+ * oldest waiter has waited longer than the threshold is congested and serves its newest waiter first, since the oldest
+ * are the likeliest to have been given up on by their callers.
+ *
+ * A released permit is handed straight to the next waiter, so waiters are never overtaken by new callers.
+ *
+ * Each lane is an intrusive list of its waiters, so a waiter giving up or timing out is unlinked in constant time. The
+ * queue is guarded by a [ReentrantLock] rather than a monitor, so virtual threads waiting for it do not pin their
+ * carrier thread.
+ */
+@ThreadSafe
+internal class BulkheadQueue(
+  private val maxParallelization: Int,
+  private val maxQueueingActions: Int,
+  maxQueueingActionsPerLane: List<Int>,
+  private val maxQueueWait: Duration? = null,
+  private val congestionThreshold: Duration? = null
+) {
+  internal class Waiter(val lane: Int) {
+    /**
+     * Completes when the waiter is granted a permit, or exceptionally with a [BulkheadRejectedException] when it is
+     * evicted or times out.
+     */
+    val permit = CompletableFuture<Unit>()
+
+    val enqueuedAt: Long = System.nanoTime()
+
+    @Volatile
+    var isGranted = false
+
+    @GuardedBy("lock")
+    var timer: HashedTimerWheel.Timeout? = null
+
+    @GuardedBy("lock")
+    var isQueued = false
+
+    @GuardedBy("lock")
+    var previous: Waiter? = null
+
+    @GuardedBy("lock")
+    var next: Waiter? = null
+  }
+
+  /**
+   * Waiters of one lane in arrival order; the first one is the oldest.
+   */
+  private class Lane {
+    var first: Waiter? = null
+    var last: Waiter? = null
+    var size: Int = 0
+
+    fun addLast(waiter: Waiter) {
+      waiter.previous = last
+      waiter.next = null
+      last?.next = waiter
+      last = waiter
+      if (first == null) {
+        first = waiter
+      }
+      waiter.isQueued = true
+      size++
+    }
+
+    fun remove(waiter: Waiter) {
+      val previous = waiter.previous
+      val next = waiter.next
+      if (previous == null) first = next else previous.next = next
+      if (next == null) last = previous else next.previous = previous
+      waiter.previous = null
+      waiter.next = null
+      waiter.isQueued = false
+      size--
+    }
+
+    fun pollFirst(): Waiter? = first?.also(::remove)
+
+    fun pollLast(): Waiter? = last?.also(::remove)
+  }
+
+  companion object {
+    /**
+     * Returned when a permit is free, so that the fast path allocates nothing.
+     */
+    @JvmSynthetic
+    val GRANTED = Waiter(-1).apply {
+      permit.complete(Unit)
+      isGranted = true
+    }
+  }
+
+  private val laneLimits: IntArray = maxQueueingActionsPerLane.toIntArray()
+  private val lanes: Array<Lane> = Array(laneLimits.size) { Lane() }
+  private val congestionThresholdNanos: Long = congestionThreshold?.toNanos() ?: Long.MAX_VALUE
+
+  private val lock = ReentrantLock()
+
+  @GuardedBy("lock")
+  private var inFlight = 0
+
+  @GuardedBy("lock")
+  private var queued = 0
+
+  val availableCount: Int
+    get() = lock.withLock { maxParallelization - inFlight }
+
+  val queueAvailableCount: Int
+    get() = lock.withLock { maxQueueingActions - queued }
+
+  /**
+   * Claims a permit for a caller of [priority]: [GRANTED] if one is free, a queued [Waiter], or `null` if the caller is
+   * rejected.
+   */
+  fun acquire(priority: Int): Waiter? {
+    val lane = priority.coerceIn(0, lanes.size - 1)
+    var evicted: Waiter? = null
+    val waiter = lock.withLock {
+      if (inFlight < maxParallelization) {
+        inFlight++
+        return GRANTED
+      }
+      if (lanes[lane].size >= laneLimits[lane]) {
+        return null
+      }
+      if (queued >= maxQueueingActions) {
+        evicted = evictBelow(lane) ?: return null
+      }
+      queued++
+      Waiter(lane).also { waiter ->
+        lanes[lane].addLast(waiter)
+        if (maxQueueWait != null) {
+          waiter.timer = HashedTimerWheel.SHARED.schedule(maxQueueWait) { expire(waiter) }
+        }
+      }
+    }
+    evicted?.permit?.completeExceptionally(BulkheadRejectedException())
+    return waiter
+  }
+
+  fun release() {
+    val next = lock.withLock {
+      val next = poll()
+      if (next == null) {
+        inFlight--
+      } else {
+        next.isGranted = true
+      }
+      next
+    }
+    next?.permit?.complete(Unit)
+  }
+
+  /**
+   * Withdraws a [waiter] that gave up waiting, passing its permit on if it had already been granted one.
+   */
+  fun cancel(waiter: Waiter) {
+    if (!withdraw(waiter) && waiter.isGranted) {
+      release()
+    }
+  }
+
+  /**
+   * Removes [waiter] from its lane; `false` if it was no longer queued because it was granted a permit or rejected.
+   */
+  private fun withdraw(waiter: Waiter): Boolean {
+    lock.withLock {
+      if (!waiter.isQueued) {
+        return false
+      }
+      lanes[waiter.lane].remove(waiter)
+      dequeued(waiter)
+      return true
+    }
+  }
+
+  private fun expire(waiter: Waiter) {
+    if (withdraw(waiter)) {
+      waiter.permit.completeExceptionally(
+        BulkheadRejectedException("The bulkhead queue wait timed out and execution was rejected.")
+      )
+    }
+  }
+
+  @GuardedBy("lock")
+  private fun poll(): Waiter? {
+    for (lane in lanes) {
+      val oldest = lane.first ?: continue
+      val waiter = when {
+        System.nanoTime() - oldest.enqueuedAt > congestionThresholdNanos -> lane.pollLast()!!
+        else -> lane.pollFirst()!!
+      }
+      dequeued(waiter)
+      return waiter
+    }
+    return null
+  }
+
+  @GuardedBy("lock")
+  private fun evictBelow(lane: Int): Waiter? {
+    for (i in lanes.size - 1 downTo lane + 1) {
+      val waiter = lanes[i].pollLast()
+      if (waiter != null) {
+        dequeued(waiter)
+        return waiter
+      }
+    }
+    return null
+  }
+
+  @GuardedBy("lock")
+  private fun dequeued(waiter: Waiter) {
+    queued--
+    waiter.timer?.cancel()
+    waiter.timer = null
+  }
+}
@@ -1,17 +1,43 @@
 package hr.tjakopan.yarl.bulkhead
 
 import kotlinx.coroutines.sync.Semaphore
+import java.util.concurrent.Semaphore as SyncSemaphore
 
 internal object BulkheadSemaphoreFactory {
   @JvmSynthetic
   fun createMaxParallelizationSemaphore(maxParallelization: Int): Semaphore = Semaphore(maxParallelization)
 
   @JvmSynthetic
-  fun createMaxQueuedActionsSemaphore(maxParallelization: Int, maxQueueingActions: Int): Semaphore {
-    val maxQueueingCompounded = when (maxQueueingActions <= Int.MAX_VALUE - maxParallelization) {
+  fun createMaxQueuedActionsSemaphore(maxParallelization: Int, maxQueueingActions: Int): Semaphore =
+    Semaphore(maxQueueingCompounded(maxParallelization, maxQueueingActions))
+
+  @JvmSynthetic
+  fun createSyncMaxParallelizationSemaphore(maxParallelization: Int): SyncSemaphore = SyncSemaphore(maxParallelization)
+
+  @JvmSynthetic
+  fun createSyncMaxQueuedActionsSemaphore(maxParallelization: Int, maxQueueingActions: Int): SyncSemaphore =
+    SyncSemaphore(maxQueueingCompounded(maxParallelization, maxQueueingActions))
+
+  /**
+   * A [BulkheadQueue] if the bulkhead needs more than the semaphores offer, otherwise `null`.
+   */
+  @JvmSynthetic
+  fun createQueue(policyBuilder: BulkheadPolicyBuilderBase<*, *>): BulkheadQueue? = when {
+    policyBuilder.maxQueueingActionsPerLane == null &&
+      policyBuilder.maxQueueWait == null &&
+      policyBuilder.congestionThreshold == null -> null
+    else -> BulkheadQueue(
+      policyBuilder.maxParallelization,
+      policyBuilder.maxQueueingActions,
+      policyBuilder.maxQueueingActionsPerLane ?: listOf(policyBuilder.maxQueueingActions),
+      policyBuilder.maxQueueWait,
+      policyBuilder.congestionThreshold
+    )
+  }
+
+  private fun maxQueueingCompounded(maxParallelization: Int, maxQueueingActions: Int): Int =
+    when (maxQueueingActions <= Int.MAX_VALUE - maxParallelization) {
       true -> maxQueueingActions + maxParallelization
       else -> Int.MAX_VALUE
     }
-    return Semaphore(maxQueueingCompounded)
-  }
 }
@@ -0,0 +1,26 @@
+package hr.tjakopan.yarl.bulkhead
+
+/**
+ * Algorithm adjusting the number of concurrent executions an adaptive bulkhead admits, from the latency and the drops
+ * it observes.
+ *
+ * Implementations must be thread-safe; [limit] is read on every acquire and should be a plain volatile read. An
+ * instance keeps state, so policies sharing one share their limit.
+ */
+interface ConcurrencyLimit {
+  /**
+   * Current number of concurrent executions admitted.
+   */
+  val limit: Int
+
+  /**
+   * Records an execution that completed in [rttNanos] while [inFlight] executions, itself included, were running.
+   */
+  fun onSample(rttNanos: Long, inFlight: Int)
+
+  /**
+   * Records an execution that failed with an exception handled by the policy, a sign of overload, while [inFlight]
+   * executions, itself included, were running.
+   */
+  fun onDrop(inFlight: Int)
+}
@@ -0,0 +1,87 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.annotations.GuardedBy
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import kotlin.math.sqrt
+
+/**
+ * Gradient limit: compares each latency with a long-term average latency and shrinks the limit as latency rises above
+ * it, in the manner of TCP Vegas, while leaving headroom of the square root of the limit for queueing.
+ *
+ * The long-term average decays quickly when latency falls well below it, so the limit recovers after the downstream
+ * does. The limit only grows while at least half of it is in use.
+ *
+ * @param initialLimit limit before any execution completes
+ * @param minLimit lower bound of the limit
+ * @param maxLimit upper bound of the limit
+ * @param smoothing weight of each new estimate of the limit, between zero and one
+ * @param rttTolerance ratio by which latency may exceed the long-term average before the limit shrinks
+ * @param longWindow number of executions the long-term average latency spans
+ */
+@ThreadSafe
+class GradientLimit @JvmOverloads constructor(
+  initialLimit: Int = 20,
+  private val minLimit: Int = 1,
+  private val maxLimit: Int = 200,
+  private val smoothing: Double = 0.2,
+  private val rttTolerance: Double = 1.5,
+  longWindow: Int = 600
+) : ConcurrencyLimit {
+  private companion object {
+    const val MIN_GRADIENT = 0.5
+    const val LONG_RTT_DECAY = 0.95
+    const val LONG_RTT_DRIFT = 2.0
+  }
+
+  init {
+    require(minLimit > 0) { "Min limit must be greater than zero." }
+    require(maxLimit >= minLimit) { "Max limit must be greater than or equal to min limit." }
+    require(initialLimit in minLimit..maxLimit) { "Initial limit must be between min limit and max limit." }
+    require(smoothing > 0.0 && smoothing <= 1.0) { "Smoothing must be greater than zero and at most one." }
+    require(rttTolerance >= 1.0) { "Rtt tolerance must be greater than or equal to one." }
+    require(longWindow > 0) { "Long window must be greater than zero." }
+  }
+
+  private val longRttFactor: Double = 2.0 / (longWindow + 1)
+
+  @Volatile
+  @GuardedBy("this")
+  private var estimatedLimit: Double = initialLimit.toDouble()
+
+  @GuardedBy("this")
+  private var longRtt: Double = 0.0
+
+  override val limit: Int
+    get() = estimatedLimit.toInt()
+
+  override fun onSample(rttNanos: Long, inFlight: Int) {
+    val shortRtt = maxOf(1L, rttNanos).toDouble()
+    synchronized(this) {
+      longRtt = when (longRtt) {
+        0.0 -> shortRtt
+        else -> longRtt + (shortRtt - longRtt) * longRttFactor
+      }
+      if (longRtt / shortRtt > LONG_RTT_DRIFT) {
+        longRtt *= LONG_RTT_DECAY
+      }
+      val limit = estimatedLimit
+      if (inFlight * 2 < limit) {
+        return
+      }
+      val gradient = (rttTolerance * longRtt / shortRtt).coerceIn(MIN_GRADIENT, 1.0)
+      update(limit * gradient + sqrt(limit))
+    }
+  }
+
+  override fun onDrop(inFlight: Int) {
+    synchronized(this) {
+      update(estimatedLimit * MIN_GRADIENT)
+    }
+  }
+
+  @GuardedBy("this")
+  private fun update(newLimit: Double) {
+    val limit = estimatedLimit * (1 - smoothing) + newLimit * smoothing
+    estimatedLimit = limit.coerceIn(minLimit.toDouble(), maxLimit.toDouble())
+  }
+}
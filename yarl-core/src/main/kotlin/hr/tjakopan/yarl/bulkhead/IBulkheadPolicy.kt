@@ -3,6 +3,18 @@ package hr.tjakopan.yarl.bulkhead
 import hr.tjakopan.yarl.IPolicy
 
 interface IBulkheadPolicy : IPolicy {
+  companion object {
+    /**
+     * [Context][hr.tjakopan.yarl.Context] key of the priority of an execution, an [Int] selecting the priority lane of
+     * a bulkhead with [priority lanes][BulkheadPolicyBuilderBase.priorityLanes]; lane `0`, the default, is served first.
+     */
+    const val PRIORITY_KEY = "BulkheadPriority"
+  }
+
+  /**
+   * Maximum number of concurrent executions; changes at runtime for an adaptive bulkhead.
+   */
+  val maxParallelization: Int
   val bulkheadAvailableCount: Int
   val queueAvailableCount: Int
 }
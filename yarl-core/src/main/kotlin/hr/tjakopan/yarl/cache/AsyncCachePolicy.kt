@@ -0,0 +1,50 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.AsyncPolicy
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+class AsyncCachePolicy<R> internal constructor(policyBuilder: AsyncCachePolicyBuilder<R>) :
+  AsyncPolicy<R, AsyncCachePolicyBuilder<R>>(policyBuilder), ICachePolicy {
+  companion object AsyncCachePolicy {
+    @JvmStatic
+    fun <R> builder(): AsyncCachePolicyBuilder<R> = AsyncCachePolicyBuilder()
+  }
+
+  private val cacheProvider: CacheProvider<DelegateResult<R>> = policyBuilder.cacheProvider
+  private val cacheKeyProvider: (Context) -> String? = policyBuilder.cacheKeyProvider
+  private val ttlProvider: (Context, R) -> Duration = policyBuilder.ttlProvider
+  private val negativeTtl: Duration = policyBuilder.negativeTtl
+
+  @JvmSynthetic
+  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
+    CacheEngine.implementation(
+      action,
+      context,
+      exceptionPredicates,
+      resultPredicates,
+      cacheProvider,
+      cacheKeyProvider,
+      ttlProvider,
+      negativeTtl
+    )
+
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> = CacheEngine.implementationAsync(
+    action,
+    context,
+    exceptionPredicates,
+    resultPredicates,
+    cacheProvider,
+    cacheKeyProvider,
+    ttlProvider,
+    negativeTtl
+  )
+}
@@ -0,0 +1,34 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import java.time.Duration
+import java.util.concurrent.Executor
+
+@JvmSuppressWildcards
+class AsyncCachePolicyBuilder<R> : CachePolicyBuilderBase<R, AsyncCachePolicyBuilder<R>>() {
+  /**
+   * Builds a policy returning the outcome stored in [cacheProvider] under the cache key of an execution, or executing
+   * the action and storing its result for [ttl].
+   */
+  fun cache(cacheProvider: CacheProvider<DelegateResult<R>>, ttl: Duration): AsyncCachePolicy<R> {
+    configureCache(cacheProvider, ttl)
+    return AsyncCachePolicy(this)
+  }
+
+  /**
+   * Builds a policy storing each result for the TTL [ttlProvider] computes from the context and the result.
+   */
+  fun cache(
+    cacheProvider: CacheProvider<DelegateResult<R>>,
+    ttlProvider: (Context, R) -> Duration
+  ): AsyncCachePolicy<R> {
+    configureCache(cacheProvider, ttlProvider)
+    return AsyncCachePolicy(this)
+  }
+
+  public override fun defaultExecutor(executor: Executor): AsyncCachePolicyBuilder<R> =
+    super.defaultExecutor(executor)
+
+  override fun self(): AsyncCachePolicyBuilder<R> = this
+}
@@ -0,0 +1,147 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.AsyncExecution
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.ExceptionPredicates
+import hr.tjakopan.yarl.ResultPredicates
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+
+internal object CacheEngine {
+  @JvmSynthetic
+  fun <R> implementation(
+    action: (Context) -> R,
+    context: Context,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    shouldHandleResultPredicates: ResultPredicates<R>,
+    cacheProvider: CacheProvider<DelegateResult<R>>,
+    cacheKeyProvider: (Context) -> String?,
+    ttlProvider: (Context, R) -> Duration,
+    negativeTtl: Duration
+  ): R {
+    val cacheKey = cacheKeyProvider(context) ?: return action(context)
+    val cached = cacheProvider.get(cacheKey)
+    if (cached != null) {
+      return cached.getOrThrow()
+    }
+    val result = try {
+      action(context)
+    } catch (e: Throwable) {
+      putException(cacheKey, e, shouldHandleExceptionPredicates, cacheProvider, negativeTtl)
+      throw e
+    }
+    putResult(cacheKey, result, context, shouldHandleResultPredicates, cacheProvider, ttlProvider, negativeTtl)
+    return result
+  }
+
+  @JvmSynthetic
+  suspend fun <R> implementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    shouldHandleResultPredicates: ResultPredicates<R>,
+    cacheProvider: CacheProvider<DelegateResult<R>>,
+    cacheKeyProvider: (Context) -> String?,
+    ttlProvider: (Context, R) -> Duration,
+    negativeTtl: Duration
+  ): R {
+    val cacheKey = cacheKeyProvider(context) ?: return action(context)
+    val cached = cacheProvider.get(cacheKey)
+    if (cached != null) {
+      return cached.getOrThrow()
+    }
+    val result = try {
+      action(context)
+    } catch (e: Throwable) {
+      putException(cacheKey, e, shouldHandleExceptionPredicates, cacheProvider, negativeTtl)
+      throw e
+    }
+    putResult(cacheKey, result, context, shouldHandleResultPredicates, cacheProvider, ttlProvider, negativeTtl)
+    return result
+  }
+
+  /**
+   * A hit completes straight away; a miss stores the outcome of the action on whichever thread completes it.
+   */
+  @JvmSynthetic
+  fun <R> implementationAsync(
+    action: (Context) -> CompletableFuture<R>,
+    context: Context,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    shouldHandleResultPredicates: ResultPredicates<R>,
+    cacheProvider: CacheProvider<DelegateResult<R>>,
+    cacheKeyProvider: (Context) -> String?,
+    ttlProvider: (Context, R) -> Duration,
+    negativeTtl: Duration
+  ): CompletableFuture<R> {
+    val cacheKey = cacheKeyProvider(context) ?: return AsyncExecution.invoke(action, context)
+    val cached = cacheProvider.get(cacheKey)
+    if (cached != null) {
+      return cached.fold({ CompletableFuture.completedFuture(it) }, { CompletableFuture.failedFuture<R>(it) })
+    }
+    val future = AsyncExecution.invoke(action, context)
+    if (!future.isDone) {
+      val cachingFuture = future.whenComplete { result, e ->
+        when (e) {
+          null -> putResult(
+            cacheKey,
+            result,
+            context,
+            shouldHandleResultPredicates,
+            cacheProvider,
+            ttlProvider,
+            negativeTtl
+          )
+          else -> putException(
+            cacheKey,
+            AsyncExecution.unwrap(e),
+            shouldHandleExceptionPredicates,
+            cacheProvider,
+            negativeTtl
+          )
+        }
+      }
+      AsyncExecution.forwardCancellation(cachingFuture, future)
+      return cachingFuture
+    }
+    val result = try {
+      future.join()
+    } catch (e: Throwable) {
+      putException(cacheKey, AsyncExecution.unwrap(e), shouldHandleExceptionPredicates, cacheProvider, negativeTtl)
+      return future
+    }
+    putResult(cacheKey, result, context, shouldHandleResultPredicates, cacheProvider, ttlProvider, negativeTtl)
+    return future
+  }
+
+  private fun <R> putResult(
+    cacheKey: String,
+    result: R,
+    context: Context,
+    shouldHandleResultPredicates: ResultPredicates<R>,
+    cacheProvider: CacheProvider<DelegateResult<R>>,
+    ttlProvider: (Context, R) -> Duration,
+    negativeTtl: Duration
+  ) {
+    val ttl = when {
+      shouldHandleResultPredicates.anyMatch(result) -> negativeTtl
+      else -> ttlProvider(context, result)
+    }
+    if (ttl > Duration.ZERO) {
+      cacheProvider.put(cacheKey, DelegateResult.success(result), ttl)
+    }
+  }
+
+  private fun <R> putException(
+    cacheKey: String,
+    exception: Throwable,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    cacheProvider: CacheProvider<DelegateResult<R>>,
+    negativeTtl: Duration
+  ) {
+    if (negativeTtl > Duration.ZERO && shouldHandleExceptionPredicates.firstMatchOrNull(exception) != null) {
+      cacheProvider.put(cacheKey, DelegateResult.failure(exception), negativeTtl)
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.Policy
+import java.time.Duration
+
+class CachePolicy<R> internal constructor(policyBuilder: CachePolicyBuilder<R>) :
+  Policy<R, CachePolicyBuilder<R>>(policyBuilder), ICachePolicy {
+  companion object CachePolicy {
+    @JvmStatic
+    fun <R> builder(): CachePolicyBuilder<R> = CachePolicyBuilder()
+  }
+
+  private val cacheProvider: CacheProvider<DelegateResult<R>> = policyBuilder.cacheProvider
+  private val cacheKeyProvider: (Context) -> String? = policyBuilder.cacheKeyProvider
+  private val ttlProvider: (Context, R) -> Duration = policyBuilder.ttlProvider
+  private val negativeTtl: Duration = policyBuilder.negativeTtl
+
+  override fun implementation(context: Context, action: (Context) -> R): R = CacheEngine.implementation(
+    action,
+    context,
+    exceptionPredicates,
+    resultPredicates,
+    cacheProvider,
+    cacheKeyProvider,
+    ttlProvider,
+    negativeTtl
+  )
+}
@@ -0,0 +1,27 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import java.time.Duration
+
+@JvmSuppressWildcards
+class CachePolicyBuilder<R> : CachePolicyBuilderBase<R, CachePolicyBuilder<R>>() {
+  /**
+   * Builds a policy returning the outcome stored in [cacheProvider] under the cache key of an execution, or executing
+   * the action and storing its result for [ttl].
+   */
+  fun cache(cacheProvider: CacheProvider<DelegateResult<R>>, ttl: Duration): CachePolicy<R> {
+    configureCache(cacheProvider, ttl)
+    return CachePolicy(this)
+  }
+
+  /**
+   * Builds a policy storing each result for the TTL [ttlProvider] computes from the context and the result.
+   */
+  fun cache(cacheProvider: CacheProvider<DelegateResult<R>>, ttlProvider: (Context, R) -> Duration): CachePolicy<R> {
+    configureCache(cacheProvider, ttlProvider)
+    return CachePolicy(this)
+  }
+
+  override fun self(): CachePolicyBuilder<R> = this
+}
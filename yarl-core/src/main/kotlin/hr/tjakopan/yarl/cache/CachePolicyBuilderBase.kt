@@ -0,0 +1,52 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.PolicyBuilder
+import java.time.Duration
+
+abstract class CachePolicyBuilderBase<R, out B : CachePolicyBuilderBase<R, B>> protected constructor() :
+  PolicyBuilder<R, B>() {
+  @JvmSynthetic
+  internal lateinit var cacheProvider: CacheProvider<DelegateResult<R>>
+
+  @JvmSynthetic
+  internal lateinit var ttlProvider: (Context, R) -> Duration
+
+  @JvmSynthetic
+  internal var cacheKeyProvider: (Context) -> String? = { it.operationKey }
+
+  @JvmSynthetic
+  internal var negativeTtl: Duration = Duration.ZERO
+
+  /**
+   * Computes the cache key of an execution instead of taking its [operation key][Context.operationKey]. Executions
+   * without a key bypass the cache.
+   */
+  fun cacheKey(cacheKeyProvider: (Context) -> String?): B {
+    this.cacheKeyProvider = cacheKeyProvider
+    return self()
+  }
+
+  /**
+   * Also caches handled exceptions and handled results, for [negativeTtl], so that a failing lookup is not repeated by
+   * every caller. They are not cached by default. A cached exception is rethrown as the same instance.
+   */
+  fun negativeTtl(negativeTtl: Duration): B {
+    require(!negativeTtl.isNegative) { "Negative TTL must be greater than or equal to zero." }
+    this.negativeTtl = negativeTtl
+    return self()
+  }
+
+  @JvmSynthetic
+  internal fun configureCache(cacheProvider: CacheProvider<DelegateResult<R>>, ttlProvider: (Context, R) -> Duration) {
+    this.cacheProvider = cacheProvider
+    this.ttlProvider = ttlProvider
+  }
+
+  @JvmSynthetic
+  internal fun configureCache(cacheProvider: CacheProvider<DelegateResult<R>>, ttl: Duration) {
+    require(!ttl.isNegative) { "TTL must be greater than or equal to zero." }
+    configureCache(cacheProvider) { _, _ -> ttl }
+  }
+}
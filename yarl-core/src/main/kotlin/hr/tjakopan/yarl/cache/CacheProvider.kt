@@ -0,0 +1,23 @@
+package hr.tjakopan.yarl.cache
+
+import java.time.Duration
+
+/**
+ * Storage behind a cache policy.
+ *
+ * Implementations must be thread-safe and must not block: async cache policies call them on whichever thread completes
+ * the action.
+ */
+interface CacheProvider<V> {
+  /**
+   * The value stored under [key], or `null` if there is none or it has expired.
+   */
+  fun get(key: String): V?
+
+  /**
+   * Stores [value] under [key] for [ttl], replacing any value already stored.
+   */
+  fun put(key: String, value: V, ttl: Duration)
+
+  fun remove(key: String)
+}
@@ -0,0 +1,92 @@
+package hr.tjakopan.yarl.cache
+
+/**
+ * Count-min sketch of 4-bit counters estimating how often each key was seen recently.
+ *
+ * Every key maps to one counter in each of four rows, all packed into a single array of longs holding sixteen counters
+ * apiece. Once the number of increments reaches ten times the table size every counter is halved, so the estimate ages
+ * towards recent history. The table starts small and grows with the number of entries through [ensureCapacity].
+ *
+ * Not thread-safe; callers serialize access.
+ */
+internal class FrequencySketch {
+  private companion object {
+    const val MAX_TABLE_SIZE = 1 shl 24
+    const val MIN_TABLE_SIZE = 16
+    const val MAX_COUNT = 15L
+    const val DEPTH = 4
+    const val RESET_MASK = 0x7777777777777777L
+    val SEEDS = longArrayOf(-0x3c3f3e9a2a1c2b4dL, -0x4b47d5b1b8b3b7c3L, -0x61c8864680b583ebL, 0x42b3a5c9d2e1f037L)
+  }
+
+  private var table = LongArray(MIN_TABLE_SIZE)
+  private var tableMask: Int = MIN_TABLE_SIZE - 1
+  private var sampleSize: Int = 10 * MIN_TABLE_SIZE
+  private var size: Int = 0
+
+  /**
+   * Grows the table to at least [expectedSize] counters per row, discarding what was counted so far. Never shrinks.
+   */
+  fun ensureCapacity(expectedSize: Long) {
+    if (expectedSize <= table.size || table.size >= MAX_TABLE_SIZE) {
+      return
+    }
+    var tableSize = table.size
+    while (tableSize < expectedSize && tableSize < MAX_TABLE_SIZE) {
+      tableSize = tableSize shl 1
+    }
+    table = LongArray(tableSize)
+    tableMask = tableSize - 1
+    sampleSize = 10 * tableSize
+    size = 0
+  }
+
+  fun frequency(key: Any): Int {
+    val hash = spread(key.hashCode())
+    var frequency = Int.MAX_VALUE
+    for (depth in 0 until DEPTH) {
+      val count = ((table[indexOf(hash, depth)] ushr offsetOf(hash, depth)) and MAX_COUNT).toInt()
+      frequency = minOf(frequency, count)
+    }
+    return frequency
+  }
+
+  fun increment(key: Any) {
+    val hash = spread(key.hashCode())
+    var added = false
+    for (depth in 0 until DEPTH) {
+      val index = indexOf(hash, depth)
+      val offset = offsetOf(hash, depth)
+      if (((table[index] ushr offset) and MAX_COUNT) < MAX_COUNT) {
+        table[index] += 1L shl offset
+        added = true
+      }
+    }
+    if (added && ++size >= sampleSize) {
+      reset()
+    }
+  }
+
+  private fun reset() {
+    for (i in table.indices) {
+      table[i] = (table[i] ushr 1) and RESET_MASK
+    }
+    size /= 2
+  }
+
+  private fun indexOf(hash: Int, depth: Int): Int {
+    var h = (hash.toLong() + SEEDS[depth]) * SEEDS[depth]
+    h += h ushr 32
+    return h.toInt() and tableMask
+  }
+
+  /**
+   * Each row owns four of the sixteen counters of a long; the low bits of the hash pick one of them.
+   */
+  private fun offsetOf(hash: Int, depth: Int): Int = ((depth shl 2) + (hash and 3)) shl 2
+
+  private fun spread(hashCode: Int): Int {
+    val h = hashCode * -0x61c88647
+    return h xor (h ushr 16)
+  }
+}
@@ -0,0 +1,5 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.IPolicy
+
+interface ICachePolicy : IPolicy
@@ -0,0 +1,331 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.annotations.GuardedBy
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.locks.ReentrantLock
+
+/**
+ * In-memory [CacheProvider] bounded by the total weight of its entries, evicting with W-TinyLFU.
+ *
+ * New entries enter a small LRU admission window. An entry leaving the window only replaces the eviction victim of the
+ * main space if a [FrequencySketch] estimates it was used more often, so one-off lookups cannot flush out the entries
+ * worth keeping. The main space is a segmented LRU whose protected segment holds entries read again since entering it.
+ *
+ * Reads are a lock-free map lookup; the read is recorded in a lossy [ReadBuffer]. Writes go to the map straight away
+ * and queue their bookkeeping. Whichever thread fills a buffer replays both under a lock taken with `tryLock`, so no
+ * caller waits for another. Every entry has its own expiry; expired entries are never returned and are removed when
+ * read or when they become eviction victims.
+ *
+ * @param maximumWeight the total weight the cache may hold
+ * @param weigher weight of an entry, by default one per entry
+ */
+@ThreadSafe
+class MemoryCacheProvider<V> internal constructor(
+  private val maximumWeight: Long,
+  private val weigher: (String, V) -> Int,
+  private val ticker: () -> Long
+) : CacheProvider<V> {
+  @JvmOverloads
+  constructor(maximumWeight: Long, weigher: (String, V) -> Int = { _, _ -> 1 }) :
+    this(maximumWeight, weigher, System::nanoTime)
+
+  private companion object {
+    const val WINDOW = 0
+    const val PROBATION = 1
+    const val PROTECTED = 2
+    const val NONE = -1
+    const val MAX_TTL_NANOS = Long.MAX_VALUE / 4
+  }
+
+  private class Node<V>(val key: String, val value: V, val weight: Int, val expiresAt: Long) {
+    var segment: Int = NONE
+    var isRetired: Boolean = false
+    var previous: Node<V>? = null
+    var next: Node<V>? = null
+  }
+
+  /**
+   * Intrusive access-order list; the first node is the least recently used.
+   */
+  private class AccessOrderDeque<V> {
+    var first: Node<V>? = null
+    var last: Node<V>? = null
+    var size: Int = 0
+
+    fun addLast(node: Node<V>) {
+      node.previous = last
+      node.next = null
+      last?.next = node
+      last = node
+      if (first == null) {
+        first = node
+      }
+      size++
+    }
+
+    fun remove(node: Node<V>) {
+      val previous = node.previous
+      val next = node.next
+      if (previous == null) first = next else previous.next = next
+      if (next == null) last = previous else next.previous = previous
+      node.previous = null
+      node.next = null
+      size--
+    }
+
+    fun moveToLast(node: Node<V>) {
+      if (node !== last) {
+        remove(node)
+        addLast(node)
+      }
+    }
+  }
+
+  init {
+    require(maximumWeight > 0) { "Maximum weight must be greater than zero." }
+  }
+
+  private val data = ConcurrentHashMap<String, Node<V>>()
+  private val readBuffer = ReadBuffer<Node<V>>()
+  private val writeBuffer = ConcurrentLinkedQueue<Runnable>()
+  private val evictionLock = ReentrantLock()
+
+  @GuardedBy("evictionLock")
+  private val sketch = FrequencySketch()
+
+  @GuardedBy("evictionLock")
+  private val windowDeque = AccessOrderDeque<V>()
+
+  @GuardedBy("evictionLock")
+  private val probationDeque = AccessOrderDeque<V>()
+
+  @GuardedBy("evictionLock")
+  private val protectedDeque = AccessOrderDeque<V>()
+
+  private val maximumWindowWeight: Long = maxOf(1L, maximumWeight / 100)
+  private val maximumProtectedWeight: Long = (maximumWeight - maximumWindowWeight) * 4 / 5
+
+  @GuardedBy("evictionLock")
+  private var windowWeight: Long = 0L
+
+  @GuardedBy("evictionLock")
+  private var protectedWeight: Long = 0L
+
+  @GuardedBy("evictionLock")
+  private var weightedSize: Long = 0L
+
+  override fun get(key: String): V? {
+    val node = data[key] ?: return null
+    if (node.expiresAt - ticker() <= 0) {
+      if (data.remove(key, node)) {
+        afterWrite { onRemove(node) }
+      }
+      return null
+    }
+    if (!readBuffer.offer(node)) {
+      tryMaintenance()
+    }
+    return node.value
+  }
+
+  override fun put(key: String, value: V, ttl: Duration) {
+    if (ttl <= Duration.ZERO) {
+      return
+    }
+    val weight = weigher(key, value)
+    require(weight >= 0) { "Weight must be greater than or equal to zero." }
+    val ttlNanos = if (ttl > Duration.ofNanos(MAX_TTL_NANOS)) MAX_TTL_NANOS else ttl.toNanos()
+    val node = Node(key, value, weight, ticker() + ttlNanos)
+    val prior = data.put(key, node)
+    if (prior != null) {
+      writeBuffer.add(Runnable { onRemove(prior) })
+    }
+    afterWrite { onAdd(node) }
+  }
+
+  override fun remove(key: String) {
+    val node = data.remove(key) ?: return
+    afterWrite { onRemove(node) }
+  }
+
+  /**
+   * Number of entries, including expired ones not removed yet.
+   */
+  val size: Int
+    get() = data.size
+
+  /**
+   * Replays pending reads and writes and evicts down to [maximumWeight] without waiting for a buffer to fill.
+   */
+  fun cleanUp() {
+    evictionLock.lock()
+    try {
+      maintenance()
+    } finally {
+      evictionLock.unlock()
+    }
+    tryMaintenance()
+  }
+
+  private fun afterWrite(task: Runnable) {
+    writeBuffer.add(task)
+    tryMaintenance()
+  }
+
+  /**
+   * A thread finding the lock held leaves its writes to the holder, which checks the write buffer again after
+   * unlocking.
+   */
+  private fun tryMaintenance() {
+    while (evictionLock.tryLock()) {
+      try {
+        maintenance()
+      } finally {
+        evictionLock.unlock()
+      }
+      if (writeBuffer.isEmpty()) {
+        return
+      }
+    }
+  }
+
+  /**
+   * The sketch is sized by the number of entries rather than by [maximumWeight], which may count bytes.
+   */
+  @GuardedBy("evictionLock")
+  private fun maintenance() {
+    sketch.ensureCapacity(data.size.toLong())
+    readBuffer.drainTo(::onAccess)
+    while (true) {
+      val task = writeBuffer.poll() ?: break
+      task.run()
+    }
+    evict()
+  }
+
+  @GuardedBy("evictionLock")
+  private fun onAccess(node: Node<V>) {
+    sketch.increment(node.key)
+    when (node.segment) {
+      WINDOW -> windowDeque.moveToLast(node)
+      PROBATION -> {
+        probationDeque.remove(node)
+        protectedDeque.addLast(node)
+        node.segment = PROTECTED
+        protectedWeight += node.weight
+        demoteProtected()
+      }
+      PROTECTED -> protectedDeque.moveToLast(node)
+    }
+  }
+
+  @GuardedBy("evictionLock")
+  private fun onAdd(node: Node<V>) {
+    if (node.isRetired) {
+      return
+    }
+    sketch.increment(node.key)
+    windowDeque.addLast(node)
+    node.segment = WINDOW
+    windowWeight += node.weight
+    weightedSize += node.weight
+  }
+
+  @GuardedBy("evictionLock")
+  private fun onRemove(node: Node<V>) {
+    unlink(node)
+    node.isRetired = true
+  }
+
+  @GuardedBy("evictionLock")
+  private fun unlink(node: Node<V>) {
+    when (node.segment) {
+      WINDOW -> {
+        windowDeque.remove(node)
+        windowWeight -= node.weight
+      }
+      PROBATION -> probationDeque.remove(node)
+      PROTECTED -> {
+        protectedDeque.remove(node)
+        protectedWeight -= node.weight
+      }
+      else -> return
+    }
+    node.segment = NONE
+    weightedSize -= node.weight
+  }
+
+  @GuardedBy("evictionLock")
+  private fun demoteProtected() {
+    while (protectedWeight > maximumProtectedWeight) {
+      val node = protectedDeque.first ?: return
+      protectedDeque.remove(node)
+      protectedWeight -= node.weight
+      probationDeque.addLast(node)
+      node.segment = PROBATION
+    }
+  }
+
+  /**
+   * Moves the overflow of the window to the end of probation as candidates, then evicts from the front of probation
+   * until the cache fits, each time keeping whichever of the oldest candidate and the victim is used more often.
+   */
+  @GuardedBy("evictionLock")
+  private fun evict() {
+    var candidates = 0
+    while (windowWeight > maximumWindowWeight) {
+      val node = windowDeque.first ?: break
+      windowDeque.remove(node)
+      windowWeight -= node.weight
+      probationDeque.addLast(node)
+      node.segment = PROBATION
+      candidates++
+    }
+    var candidate: Node<V>? = null
+    while (weightedSize > maximumWeight) {
+      if (candidates == 0 || probationDeque.size == 0) {
+        evictNode(probationDeque.first ?: protectedDeque.first ?: windowDeque.first ?: return)
+        continue
+      }
+      if (candidates >= probationDeque.size) {
+        // Only candidates are left in probation; the oldest one is also the victim.
+        evictNode(probationDeque.first!!)
+        candidates--
+        candidate = null
+        continue
+      }
+      if (candidate == null || candidate.segment != PROBATION) {
+        candidate = nthFromLast(probationDeque, candidates - 1)
+      }
+      val victim = probationDeque.first!!
+      val now = ticker()
+      val evicted = when {
+        victim.expiresAt - now <= 0 -> victim
+        candidate.expiresAt - now <= 0 -> candidate
+        sketch.frequency(candidate.key) > sketch.frequency(victim.key) -> victim
+        else -> candidate
+      }
+      if (evicted === candidate) {
+        candidate = candidate.next
+        candidates--
+      }
+      evictNode(evicted)
+    }
+  }
+
+  @GuardedBy("evictionLock")
+  private fun nthFromLast(deque: AccessOrderDeque<V>, n: Int): Node<V> {
+    var node = deque.last!!
+    repeat(n) { node = node.previous!! }
+    return node
+  }
+
+  @GuardedBy("evictionLock")
+  private fun evictNode(node: Node<V>) {
+    data.remove(node.key, node)
+    onRemove(node)
+  }
+}
@@ -0,0 +1,7 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.Policy
+
+fun <R> Policy.Policy.cache(): CachePolicyBuilder<R> = CachePolicyBuilder()
+
+fun <R> Policy.Policy.asyncCache(): AsyncCachePolicyBuilder<R> = AsyncCachePolicyBuilder()
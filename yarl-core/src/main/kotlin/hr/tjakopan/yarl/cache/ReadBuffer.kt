@@ -0,0 +1,72 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Lossy buffer of reads waiting to be replayed against the eviction policy.
+ *
+ * Reads are spread over one small ring per stripe, picked by thread id, and are dropped rather than retried when a ring
+ * is full or another reader claims the same slot first; losing some reads only makes the recorded frequencies slightly
+ * less precise. Only one thread drains at a time.
+ */
+@ThreadSafe
+internal class ReadBuffer<E : Any> {
+  private companion object {
+    const val RING_SIZE = 16
+    const val RING_MASK = RING_SIZE - 1L
+    const val MAX_STRIPES = 64
+
+    val STRIPES: Int = run {
+      var stripes = 1
+      while (stripes < Runtime.getRuntime().availableProcessors() && stripes < MAX_STRIPES) {
+        stripes = stripes shl 1
+      }
+      stripes
+    }
+  }
+
+  private class Ring<E : Any> {
+    val slots = AtomicReferenceArray<E?>(RING_SIZE)
+    val tail = AtomicLong()
+
+    @Volatile
+    var head: Long = 0L
+  }
+
+  private val rings = Array(STRIPES) { Ring<E>() }
+
+  /**
+   * Returns `false` when the ring of the calling thread is full and should be drained.
+   */
+  fun offer(element: E): Boolean {
+    val ring = rings[Thread.currentThread().id.toInt() and (STRIPES - 1)]
+    val tail = ring.tail.get()
+    if (tail - ring.head >= RING_SIZE) {
+      return false
+    }
+    if (ring.tail.compareAndSet(tail, tail + 1)) {
+      ring.slots.lazySet((tail and RING_MASK).toInt(), element)
+    }
+    return true
+  }
+
+  /**
+   * Must not be called concurrently.
+   */
+  fun drainTo(consumer: (E) -> Unit) {
+    for (ring in rings) {
+      var head = ring.head
+      val tail = ring.tail.get()
+      while (head < tail) {
+        val index = (head and RING_MASK).toInt()
+        val element = ring.slots.get(index) ?: break
+        ring.slots.lazySet(index, null)
+        consumer(element)
+        head++
+      }
+      ring.head = head
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.time.Duration
+
+@ThreadSafe
+internal class AdvancedCircuitController<R>(
+  private val failureThreshold: Double,
+  samplingDuration: Duration,
+  private val minimumThroughput: Int,
+  durationOfBreak: Duration,
+  onBreak: (DelegateResult<R>, Duration, Context) -> Unit,
+  onReset: (Context) -> Unit,
+  onHalfOpen: () -> Unit
+) : CircuitStateController<R>(durationOfBreak, onBreak, onReset, onHalfOpen) {
+  private val metrics = RollingHealthMetrics(samplingDuration)
+
+  override fun onCircuitClosedSuccess() {
+    metrics.incrementSuccess()
+  }
+
+  override fun onCircuitClosedFailure(): Boolean {
+    metrics.incrementFailure()
+    return metrics.isFailureThresholdReached(failureThreshold, minimumThroughput)
+  }
+
+  override fun resetHealth() {
+    metrics.reset()
+  }
+}
@@ -0,0 +1,51 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.AsyncPolicy
+import hr.tjakopan.yarl.Context
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+class AsyncCircuitBreakerPolicy<R> internal constructor(policyBuilder: AsyncCircuitBreakerPolicyBuilder<R>) :
+  AsyncPolicy<R, AsyncCircuitBreakerPolicyBuilder<R>>(policyBuilder), ICircuitBreakerPolicy {
+  companion object AsyncCircuitBreakerPolicy {
+    @JvmStatic
+    fun <R> builder(): AsyncCircuitBreakerPolicyBuilder<R> = AsyncCircuitBreakerPolicyBuilder()
+  }
+
+  private val breakerController: CircuitStateController<R> = policyBuilder.breakerController
+
+  override val circuitState: CircuitState
+    get() = breakerController.circuitState
+  override val lastException: Throwable?
+    get() = breakerController.lastException
+  val lastHandledResult: R?
+    get() = breakerController.lastHandledResult
+
+  override fun isolate() = breakerController.isolate()
+
+  override fun reset() = breakerController.reset(Context.none())
+
+  @JvmSynthetic
+  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
+    CircuitBreakerEngine.implementation(
+      action,
+      context,
+      exceptionPredicates,
+      resultPredicates,
+      breakerController
+    )
+
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> =
+    CircuitBreakerEngine.implementationAsync(
+      action,
+      context,
+      exceptionPredicates,
+      resultPredicates,
+      breakerController
+    )
+}
@@ -0,0 +1,49 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import java.time.Duration
+import java.util.concurrent.Executor
+
+@JvmSuppressWildcards
+class AsyncCircuitBreakerPolicyBuilder<R> : CircuitBreakerPolicyBuilderBase<R, AsyncCircuitBreakerPolicyBuilder<R>>() {
+  @JvmOverloads
+  fun circuitBreaker(
+    handledEventsAllowedBeforeBreaking: Int,
+    durationOfBreak: Duration,
+    onBreak: (DelegateResult<R>, Duration, Context) -> Unit = { _, _, _ -> },
+    onReset: (Context) -> Unit = { _ -> },
+    onHalfOpen: () -> Unit = {}
+  ): AsyncCircuitBreakerPolicy<R> {
+    this.breakerController =
+      consecutiveCountController(handledEventsAllowedBeforeBreaking, durationOfBreak, onBreak, onReset, onHalfOpen)
+    return AsyncCircuitBreakerPolicy(this)
+  }
+
+  @JvmOverloads
+  fun advancedCircuitBreaker(
+    failureThreshold: Double,
+    samplingDuration: Duration,
+    minimumThroughput: Int,
+    durationOfBreak: Duration,
+    onBreak: (DelegateResult<R>, Duration, Context) -> Unit = { _, _, _ -> },
+    onReset: (Context) -> Unit = { _ -> },
+    onHalfOpen: () -> Unit = {}
+  ): AsyncCircuitBreakerPolicy<R> {
+    this.breakerController = advancedController(
+      failureThreshold,
+      samplingDuration,
+      minimumThroughput,
+      durationOfBreak,
+      onBreak,
+      onReset,
+      onHalfOpen
+    )
+    return AsyncCircuitBreakerPolicy(this)
+  }
+
+  public override fun defaultExecutor(executor: Executor): AsyncCircuitBreakerPolicyBuilder<R> =
+    super.defaultExecutor(executor)
+
+  override fun self(): AsyncCircuitBreakerPolicyBuilder<R> = this
+}
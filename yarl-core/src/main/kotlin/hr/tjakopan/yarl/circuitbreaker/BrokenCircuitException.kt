@@ -0,0 +1,16 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.ExecutionRejectedException
+
+open class BrokenCircuitException : ExecutionRejectedException {
+  constructor(message: String, cause: Throwable) : super(message, cause)
+  constructor(message: String) : super(message)
+  constructor(cause: Throwable) : super(cause)
+  constructor() : this("The circuit is now open and is not allowing calls.")
+  constructor(message: String?, cause: Throwable?, enableSuppression: Boolean, writableStackTrace: Boolean) : super(
+    message,
+    cause,
+    enableSuppression,
+    writableStackTrace
+  )
+}
@@ -0,0 +1,105 @@
+@file:Suppress("DuplicatedCode")
+
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.AsyncExecution
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.ExceptionPredicates
+import hr.tjakopan.yarl.ResultPredicates
+import java.util.concurrent.CompletableFuture
+
+internal object CircuitBreakerEngine {
+  @JvmSynthetic
+  fun <R> implementation(
+    action: (Context) -> R,
+    context: Context,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    shouldHandleResultPredicates: ResultPredicates<R>,
+    breakerController: CircuitStateController<R>
+  ): R {
+    breakerController.onActionPreExecute()
+
+    val result = try {
+      action(context)
+    } catch (e: Throwable) {
+      val handledException = shouldHandleExceptionPredicates.firstMatchOrNull(e)
+      if (handledException != null) {
+        breakerController.onActionFailure(DelegateResult.failure(handledException), context)
+      }
+      throw e
+    }
+
+    if (shouldHandleResultPredicates.anyMatch(result)) {
+      breakerController.onActionFailure(DelegateResult.success(result), context)
+    } else {
+      breakerController.onActionSuccess(context)
+    }
+    return result
+  }
+
+  @JvmSynthetic
+  suspend fun <R> implementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    shouldHandleResultPredicates: ResultPredicates<R>,
+    breakerController: CircuitStateController<R>
+  ): R {
+    breakerController.onActionPreExecute()
+
+    val result = try {
+      action(context)
+    } catch (e: Throwable) {
+      val handledException = shouldHandleExceptionPredicates.firstMatchOrNull(e)
+      if (handledException != null) {
+        breakerController.onActionFailure(DelegateResult.failure(handledException), context)
+      }
+      throw e
+    }
+
+    if (shouldHandleResultPredicates.anyMatch(result)) {
+      breakerController.onActionFailure(DelegateResult.success(result), context)
+    } else {
+      breakerController.onActionSuccess(context)
+    }
+    return result
+  }
+
+  @JvmSynthetic
+  fun <R> implementationAsync(
+    action: (Context) -> CompletableFuture<R>,
+    context: Context,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    shouldHandleResultPredicates: ResultPredicates<R>,
+    breakerController: CircuitStateController<R>
+  ): CompletableFuture<R> {
+    breakerController.onActionPreExecute()
+
+    val future = CompletableFuture<R>()
+    val actionFuture = AsyncExecution.invoke(action, context)
+    AsyncExecution.forwardCancellation(future, actionFuture)
+    actionFuture.whenComplete { result, e ->
+      try {
+        if (e != null) {
+          val exception = AsyncExecution.unwrap(e)
+          val handledException = shouldHandleExceptionPredicates.firstMatchOrNull(exception)
+          if (handledException != null) {
+            breakerController.onActionFailure(DelegateResult.failure(handledException), context)
+          }
+          future.completeExceptionally(exception)
+        } else {
+          if (shouldHandleResultPredicates.anyMatch(result)) {
+            breakerController.onActionFailure(DelegateResult.success(result), context)
+          } else {
+            breakerController.onActionSuccess(context)
+          }
+          future.complete(result)
+        }
+      } catch (exception: Throwable) {
+        future.completeExceptionally(exception)
+      }
+    }
+    return future
+  }
+}
@@ -0,0 +1,33 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.Policy
+
+class CircuitBreakerPolicy<R> internal constructor(policyBuilder: CircuitBreakerPolicyBuilder<R>) :
+  Policy<R, CircuitBreakerPolicyBuilder<R>>(policyBuilder), ICircuitBreakerPolicy {
+  companion object CircuitBreakerPolicy {
+    @JvmStatic
+    fun <R> builder(): CircuitBreakerPolicyBuilder<R> = CircuitBreakerPolicyBuilder()
+  }
+
+  private val breakerController: CircuitStateController<R> = policyBuilder.breakerController
+
+  override val circuitState: CircuitState
+    get() = breakerController.circuitState
+  override val lastException: Throwable?
+    get() = breakerController.lastException
+  val lastHandledResult: R?
+    get() = breakerController.lastHandledResult
+
+  override fun isolate() = breakerController.isolate()
+
+  override fun reset() = breakerController.reset(Context.none())
+
+  override fun implementation(context: Context, action: (Context) -> R): R = CircuitBreakerEngine.implementation(
+    action,
+    context,
+    exceptionPredicates,
+    resultPredicates,
+    breakerController
+  )
+}
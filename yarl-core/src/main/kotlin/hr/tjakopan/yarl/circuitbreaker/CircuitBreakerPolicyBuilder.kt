@@ -0,0 +1,45 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import java.time.Duration
+
+@JvmSuppressWildcards
+class CircuitBreakerPolicyBuilder<R> : CircuitBreakerPolicyBuilderBase<R, CircuitBreakerPolicyBuilder<R>>() {
+  @JvmOverloads
+  fun circuitBreaker(
+    handledEventsAllowedBeforeBreaking: Int,
+    durationOfBreak: Duration,
+    onBreak: (DelegateResult<R>, Duration, Context) -> Unit = { _, _, _ -> },
+    onReset: (Context) -> Unit = { _ -> },
+    onHalfOpen: () -> Unit = {}
+  ): CircuitBreakerPolicy<R> {
+    this.breakerController =
+      consecutiveCountController(handledEventsAllowedBeforeBreaking, durationOfBreak, onBreak, onReset, onHalfOpen)
+    return CircuitBreakerPolicy(this)
+  }
+
+  @JvmOverloads
+  fun advancedCircuitBreaker(
+    failureThreshold: Double,
+    samplingDuration: Duration,
+    minimumThroughput: Int,
+    durationOfBreak: Duration,
+    onBreak: (DelegateResult<R>, Duration, Context) -> Unit = { _, _, _ -> },
+    onReset: (Context) -> Unit = { _ -> },
+    onHalfOpen: () -> Unit = {}
+  ): CircuitBreakerPolicy<R> {
+    this.breakerController = advancedController(
+      failureThreshold,
+      samplingDuration,
+      minimumThroughput,
+      durationOfBreak,
+      onBreak,
+      onReset,
+      onHalfOpen
+    )
+    return CircuitBreakerPolicy(this)
+  }
+
+  override fun self(): CircuitBreakerPolicyBuilder<R> = this
+}
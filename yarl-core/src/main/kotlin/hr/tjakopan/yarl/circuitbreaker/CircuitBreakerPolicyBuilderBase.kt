@@ -0,0 +1,66 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.PolicyBuilder
+import java.time.Duration
+
+abstract class CircuitBreakerPolicyBuilderBase<R, out B : CircuitBreakerPolicyBuilderBase<R, B>> protected constructor() :
+  PolicyBuilder<R, B>() {
+  @JvmSynthetic
+  internal lateinit var breakerController: CircuitStateController<R>
+
+  @JvmSynthetic
+  internal fun consecutiveCountController(
+    handledEventsAllowedBeforeBreaking: Int,
+    durationOfBreak: Duration,
+    onBreak: (DelegateResult<R>, Duration, Context) -> Unit,
+    onReset: (Context) -> Unit,
+    onHalfOpen: () -> Unit
+  ): CircuitStateController<R> {
+    require(handledEventsAllowedBeforeBreaking > 0) {
+      "Handled events allowed before breaking must be greater than zero."
+    }
+    require(!durationOfBreak.isNegative) { "Duration of break must be greater than or equal to zero." }
+    return ConsecutiveCountCircuitController(
+      handledEventsAllowedBeforeBreaking,
+      durationOfBreak,
+      onBreak,
+      onReset,
+      onHalfOpen
+    )
+  }
+
+  @JvmSynthetic
+  internal fun advancedController(
+    failureThreshold: Double,
+    samplingDuration: Duration,
+    minimumThroughput: Int,
+    durationOfBreak: Duration,
+    onBreak: (DelegateResult<R>, Duration, Context) -> Unit,
+    onReset: (Context) -> Unit,
+    onHalfOpen: () -> Unit
+  ): CircuitStateController<R> {
+    require(failureThreshold > 0.0 && failureThreshold <= 1.0) {
+      "Failure threshold must be greater than zero and less than or equal to one."
+    }
+    require(samplingDuration >= MINIMUM_SAMPLING_DURATION) {
+      "Sampling duration must be greater than or equal to ${MINIMUM_SAMPLING_DURATION.toMillis()} ms."
+    }
+    require(minimumThroughput > 1) { "Minimum throughput must be greater than one." }
+    require(!durationOfBreak.isNegative) { "Duration of break must be greater than or equal to zero." }
+    return AdvancedCircuitController(
+      failureThreshold,
+      samplingDuration,
+      minimumThroughput,
+      durationOfBreak,
+      onBreak,
+      onReset,
+      onHalfOpen
+    )
+  }
+
+  private companion object {
+    val MINIMUM_SAMPLING_DURATION: Duration = Duration.ofMillis(20)
+  }
+}
@@ -0,0 +1,8 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+enum class CircuitState {
+  CLOSED,
+  OPEN,
+  HALF_OPEN,
+  ISOLATED
+}
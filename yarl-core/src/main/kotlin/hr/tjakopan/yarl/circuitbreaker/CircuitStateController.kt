@@ -0,0 +1,125 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Lock-free circuit state machine. The state is a single atomic reference and the break deadline a single atomic
+ * long; a half-open circuit admits one trial execution per break duration by CAS-ing the deadline forward.
+ */
+@ThreadSafe
+internal abstract class CircuitStateController<R>(
+  private val durationOfBreak: Duration,
+  private val onBreak: (DelegateResult<R>, Duration, Context) -> Unit,
+  private val onReset: (Context) -> Unit,
+  private val onHalfOpen: () -> Unit
+) {
+  private companion object {
+    const val BROKEN_CIRCUIT_MESSAGE = "The circuit is now open and is not allowing calls."
+    const val MAX_DURATION_OF_BREAK_NANOS = Long.MAX_VALUE / 2
+  }
+
+  private val durationOfBreakNanos: Long = when {
+    durationOfBreak > Duration.ofNanos(MAX_DURATION_OF_BREAK_NANOS) -> MAX_DURATION_OF_BREAK_NANOS
+    else -> durationOfBreak.toNanos()
+  }
+  private val state = AtomicReference(CircuitState.CLOSED)
+  private val blockedTill = AtomicLong()
+
+  @Volatile
+  private var lastOutcome: DelegateResult<R>? = null
+
+  val circuitState: CircuitState
+    get() {
+      if (state.get() == CircuitState.OPEN && isBreakElapsed()) {
+        transitionToHalfOpen()
+      }
+      return state.get()
+    }
+
+  val lastException: Throwable?
+    get() = lastOutcome?.fold({ null }, { it })
+
+  val lastHandledResult: R?
+    get() = lastOutcome?.fold({ it }, { null })
+
+  protected abstract fun onCircuitClosedSuccess()
+
+  protected abstract fun onCircuitClosedFailure(): Boolean
+
+  protected abstract fun resetHealth()
+
+  fun isolate() {
+    state.set(CircuitState.ISOLATED)
+  }
+
+  fun reset(context: Context) {
+    resetHealth()
+    if (state.getAndSet(CircuitState.CLOSED) != CircuitState.CLOSED) {
+      onReset(context)
+    }
+  }
+
+  fun onActionPreExecute() {
+    when (state.get()) {
+      CircuitState.CLOSED -> return
+      CircuitState.OPEN -> {
+        if (!isBreakElapsed()) throw brokenCircuitException()
+        transitionToHalfOpen()
+        if (!permitHalfOpenCircuitTest()) throw brokenCircuitException()
+      }
+      CircuitState.HALF_OPEN -> if (!permitHalfOpenCircuitTest()) throw brokenCircuitException()
+      CircuitState.ISOLATED -> throw IsolatedCircuitException()
+    }
+  }
+
+  fun onActionSuccess(context: Context) {
+    when (state.get()) {
+      CircuitState.CLOSED -> onCircuitClosedSuccess()
+      CircuitState.HALF_OPEN -> if (state.compareAndSet(CircuitState.HALF_OPEN, CircuitState.CLOSED)) {
+        resetHealth()
+        onReset(context)
+      }
+      else -> Unit
+    }
+  }
+
+  fun onActionFailure(outcome: DelegateResult<R>, context: Context) {
+    lastOutcome = outcome
+    when (state.get()) {
+      CircuitState.CLOSED -> if (onCircuitClosedFailure()) breakCircuit(CircuitState.CLOSED, outcome, context)
+      CircuitState.HALF_OPEN -> breakCircuit(CircuitState.HALF_OPEN, outcome, context)
+      else -> Unit
+    }
+  }
+
+  private fun isBreakElapsed(): Boolean = System.nanoTime() - blockedTill.get() >= 0
+
+  private fun transitionToHalfOpen() {
+    if (state.compareAndSet(CircuitState.OPEN, CircuitState.HALF_OPEN)) {
+      onHalfOpen()
+    }
+  }
+
+  private fun permitHalfOpenCircuitTest(): Boolean {
+    val currentlyBlockedTill = blockedTill.get()
+    val now = System.nanoTime()
+    return now - currentlyBlockedTill >= 0 && blockedTill.compareAndSet(currentlyBlockedTill, now + durationOfBreakNanos)
+  }
+
+  private fun breakCircuit(expectedState: CircuitState, outcome: DelegateResult<R>, context: Context) {
+    blockedTill.set(System.nanoTime() + durationOfBreakNanos)
+    if (state.compareAndSet(expectedState, CircuitState.OPEN)) {
+      resetHealth()
+      onBreak(outcome, durationOfBreak, context)
+    }
+  }
+
+  // Rejections are on the hot path of an open circuit, so no stack trace is captured.
+  private fun brokenCircuitException(): BrokenCircuitException =
+    BrokenCircuitException(BROKEN_CIRCUIT_MESSAGE, lastException, false, false)
+}
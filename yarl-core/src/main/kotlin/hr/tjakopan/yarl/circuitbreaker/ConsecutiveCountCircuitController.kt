@@ -0,0 +1,32 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+@ThreadSafe
+internal class ConsecutiveCountCircuitController<R>(
+  private val handledEventsAllowedBeforeBreaking: Int,
+  durationOfBreak: Duration,
+  onBreak: (DelegateResult<R>, Duration, Context) -> Unit,
+  onReset: (Context) -> Unit,
+  onHalfOpen: () -> Unit
+) : CircuitStateController<R>(durationOfBreak, onBreak, onReset, onHalfOpen) {
+  private val consecutiveFailureCount = AtomicInteger()
+
+  // Only write when there is something to clear, so a healthy circuit does not bounce the cache line between threads.
+  override fun onCircuitClosedSuccess() {
+    if (consecutiveFailureCount.get() != 0) {
+      consecutiveFailureCount.set(0)
+    }
+  }
+
+  override fun onCircuitClosedFailure(): Boolean =
+    consecutiveFailureCount.incrementAndGet() >= handledEventsAllowedBeforeBreaking
+
+  override fun resetHealth() {
+    consecutiveFailureCount.set(0)
+  }
+}
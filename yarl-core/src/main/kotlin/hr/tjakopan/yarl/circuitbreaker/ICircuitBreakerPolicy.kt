@@ -0,0 +1,12 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.IPolicy
+
+interface ICircuitBreakerPolicy : IPolicy {
+  val circuitState: CircuitState
+  val lastException: Throwable?
+
+  fun isolate()
+
+  fun reset()
+}
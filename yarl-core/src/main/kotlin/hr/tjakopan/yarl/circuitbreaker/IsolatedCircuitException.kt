@@ -0,0 +1,14 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+class IsolatedCircuitException : BrokenCircuitException {
+  constructor(message: String, cause: Throwable) : super(message, cause)
+  constructor(message: String) : super(message)
+  constructor(cause: Throwable) : super(cause)
+  constructor() : this("The circuit is manually held open and is not allowing calls.")
+  constructor(message: String?, cause: Throwable?, enableSuppression: Boolean, writableStackTrace: Boolean) : super(
+    message,
+    cause,
+    enableSuppression,
+    writableStackTrace
+  )
+}
@@ -0,0 +1,7 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.Policy
+
+fun <R> Policy.Policy.circuitBreaker(): CircuitBreakerPolicyBuilder<R> = CircuitBreakerPolicyBuilder()
+
+fun <R> Policy.Policy.asyncCircuitBreaker(): AsyncCircuitBreakerPolicyBuilder<R> = AsyncCircuitBreakerPolicyBuilder()
@@ -0,0 +1,31 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import hr.tjakopan.yarl.utilities.RollingCounters
+import java.time.Duration
+
+/**
+ * Success and failure counts over a sampling duration, kept in [RollingCounters].
+ */
+@ThreadSafe
+internal class RollingHealthMetrics(samplingDuration: Duration) {
+  private companion object {
+    const val SUCCESSES = 0
+    const val FAILURES = 1
+  }
+
+  private val counters = RollingCounters(samplingDuration, 2)
+
+  fun incrementSuccess() = counters.increment(SUCCESSES)
+
+  fun incrementFailure() = counters.increment(FAILURES)
+
+  fun isFailureThresholdReached(failureThreshold: Double, minimumThroughput: Int): Boolean {
+    val successes = counters.sum(SUCCESSES)
+    val failures = counters.sum(FAILURES)
+    val throughput = successes + failures
+    return throughput >= minimumThroughput && failures >= failureThreshold * throughput
+  }
+
+  fun reset() = counters.reset()
+}
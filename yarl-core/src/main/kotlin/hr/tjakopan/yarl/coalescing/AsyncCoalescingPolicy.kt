@@ -0,0 +1,34 @@
+package hr.tjakopan.yarl.coalescing
+
+import hr.tjakopan.yarl.AsyncPolicy
+import hr.tjakopan.yarl.Context
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executor
+
+/**
+ * Concurrent executions sharing a coalescing key wait for the first of them, which executes the action with its own
+ * context. Suspending executions and executions through the [CompletableFuture] API are coalesced together.
+ */
+class AsyncCoalescingPolicy<R> internal constructor(policyBuilder: AsyncCoalescingPolicyBuilder<R>) :
+  AsyncPolicy<R, AsyncCoalescingPolicyBuilder<R>>(policyBuilder), ICoalescingPolicy {
+  companion object AsyncCoalescingPolicy {
+    @JvmStatic
+    fun <R> builder(): AsyncCoalescingPolicyBuilder<R> = AsyncCoalescingPolicyBuilder()
+  }
+
+  private val coalescingKeyProvider: (Context) -> String? = policyBuilder.coalescingKeyProvider
+  private val inFlightExecutions = ConcurrentHashMap<String, InFlightExecution<R>>()
+
+  @JvmSynthetic
+  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
+    CoalescingEngine.implementation(action, context, inFlightExecutions, coalescingKeyProvider)
+
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> =
+    CoalescingEngine.implementationAsync(action, context, inFlightExecutions, coalescingKeyProvider)
+}
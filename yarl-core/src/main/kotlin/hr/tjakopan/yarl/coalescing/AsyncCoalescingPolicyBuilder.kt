@@ -0,0 +1,17 @@
+package hr.tjakopan.yarl.coalescing
+
+import java.util.concurrent.Executor
+
+@JvmSuppressWildcards
+class AsyncCoalescingPolicyBuilder<R> : CoalescingPolicyBuilderBase<R, AsyncCoalescingPolicyBuilder<R>>() {
+  /**
+   * Builds a policy under which an execution whose key matches one already in flight waits for that execution and
+   * receives its result or exception instead of executing the action again.
+   */
+  fun coalesce(): AsyncCoalescingPolicy<R> = AsyncCoalescingPolicy(this)
+
+  public override fun defaultExecutor(executor: Executor): AsyncCoalescingPolicyBuilder<R> =
+    super.defaultExecutor(executor)
+
+  override fun self(): AsyncCoalescingPolicyBuilder<R> = this
+}
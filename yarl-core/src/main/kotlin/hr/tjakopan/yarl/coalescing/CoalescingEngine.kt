@@ -0,0 +1,141 @@
+package hr.tjakopan.yarl.coalescing
+
+import hr.tjakopan.yarl.AsyncExecution
+import hr.tjakopan.yarl.Context
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
+import kotlin.coroutines.coroutineContext
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Executions are keyed in a [ConcurrentHashMap]: the first caller of a key inserts its execution with `putIfAbsent`
+ * and removes it, before completing it, as soon as the action completes, so a caller arriving later starts afresh.
+ */
+internal object CoalescingEngine {
+  @JvmSynthetic
+  fun <R> implementation(
+    action: (Context) -> R,
+    context: Context,
+    inFlightExecutions: ConcurrentHashMap<String, CompletableFuture<R>>,
+    coalescingKeyProvider: (Context) -> String?
+  ): R {
+    val coalescingKey = coalescingKeyProvider(context) ?: return action(context)
+    val execution = CompletableFuture<R>()
+    val shared = inFlightExecutions.putIfAbsent(coalescingKey, execution)
+    if (shared != null) {
+      try {
+        return shared.get()
+      } catch (e: ExecutionException) {
+        throw e.cause ?: e
+      }
+    }
+    val result = try {
+      action(context)
+    } catch (e: Throwable) {
+      inFlightExecutions.remove(coalescingKey, execution)
+      execution.completeExceptionally(e)
+      throw e
+    }
+    inFlightExecutions.remove(coalescingKey, execution)
+    execution.complete(result)
+    return result
+  }
+
+  /**
+   * The first caller starts the action undispatched, in a coroutine of its own that keeps the caller's dispatcher but
+   * not its job. A cancelled caller only stops waiting; the action is cancelled when the last caller is.
+   */
+  @JvmSynthetic
+  suspend fun <R> implementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    inFlightExecutions: ConcurrentHashMap<String, InFlightExecution<R>>,
+    coalescingKeyProvider: (Context) -> String?
+  ): R {
+    val coalescingKey = coalescingKeyProvider(context) ?: return action(context)
+    while (true) {
+      val execution = InFlightExecution<R>()
+      val shared = inFlightExecutions.putIfAbsent(coalescingKey, execution)
+      if (shared == null) {
+        CoroutineScope(coroutineContext.minusKey(Job) + execution.job).launch(start = CoroutineStart.UNDISPATCHED) {
+          val outcome = runCatching { action(context) }
+          inFlightExecutions.remove(coalescingKey, execution)
+          outcome.fold({ execution.outcome.complete(it) }, { execution.outcome.completeExceptionally(it) })
+          execution.job.complete()
+        }
+        return await(coalescingKey, execution, inFlightExecutions)
+      }
+      if (shared.tryJoin()) {
+        return await(coalescingKey, shared, inFlightExecutions)
+      }
+      inFlightExecutions.remove(coalescingKey, shared)
+    }
+  }
+
+  /**
+   * Every caller gets its own copy of the shared future, so completing or cancelling it affects no other caller.
+   */
+  @JvmSynthetic
+  fun <R> implementationAsync(
+    action: (Context) -> CompletableFuture<R>,
+    context: Context,
+    inFlightExecutions: ConcurrentHashMap<String, InFlightExecution<R>>,
+    coalescingKeyProvider: (Context) -> String?
+  ): CompletableFuture<R> {
+    val coalescingKey = coalescingKeyProvider(context) ?: return AsyncExecution.invoke(action, context)
+    while (true) {
+      val execution = InFlightExecution<R>()
+      val shared = inFlightExecutions.putIfAbsent(coalescingKey, execution)
+      if (shared == null) {
+        AsyncExecution.invoke(action, context).whenComplete { result, e ->
+          inFlightExecutions.remove(coalescingKey, execution)
+          when (e) {
+            null -> execution.outcome.complete(result)
+            else -> execution.outcome.completeExceptionally(AsyncExecution.unwrap(e))
+          }
+        }
+        return execution.outcome.copy()
+      }
+      if (shared.tryJoin()) {
+        return shared.outcome.copy()
+      }
+      inFlightExecutions.remove(coalescingKey, shared)
+    }
+  }
+
+  private suspend fun <R> await(
+    coalescingKey: String,
+    execution: InFlightExecution<R>,
+    inFlightExecutions: ConcurrentHashMap<String, InFlightExecution<R>>
+  ): R {
+    val outcome = execution.outcome
+    if (outcome.isDone) {
+      try {
+        return outcome.join()
+      } catch (e: Throwable) {
+        throw AsyncExecution.unwrap(e)
+      }
+    }
+    return suspendCancellableCoroutine { continuation ->
+      outcome.whenComplete { result, e ->
+        when (e) {
+          null -> continuation.resume(result)
+          else -> continuation.resumeWithException(AsyncExecution.unwrap(e))
+        }
+      }
+      continuation.invokeOnCancellation {
+        if (execution.leave()) {
+          inFlightExecutions.remove(coalescingKey, execution)
+          execution.job.cancel()
+        }
+      }
+    }
+  }
+}
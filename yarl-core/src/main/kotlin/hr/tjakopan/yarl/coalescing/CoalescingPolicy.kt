@@ -0,0 +1,24 @@
+package hr.tjakopan.yarl.coalescing
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.Policy
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Concurrent executions sharing a coalescing key wait for the first of them, which executes the action with its own
+ * context.
+ */
+class CoalescingPolicy<R> internal constructor(policyBuilder: CoalescingPolicyBuilder<R>) :
+  Policy<R, CoalescingPolicyBuilder<R>>(policyBuilder), ICoalescingPolicy {
+  companion object CoalescingPolicy {
+    @JvmStatic
+    fun <R> builder(): CoalescingPolicyBuilder<R> = CoalescingPolicyBuilder()
+  }
+
+  private val coalescingKeyProvider: (Context) -> String? = policyBuilder.coalescingKeyProvider
+  private val inFlightExecutions = ConcurrentHashMap<String, CompletableFuture<R>>()
+
+  override fun implementation(context: Context, action: (Context) -> R): R =
+    CoalescingEngine.implementation(action, context, inFlightExecutions, coalescingKeyProvider)
+}
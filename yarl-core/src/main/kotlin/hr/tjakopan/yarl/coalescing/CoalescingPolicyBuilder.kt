@@ -0,0 +1,12 @@
+package hr.tjakopan.yarl.coalescing
+
+@JvmSuppressWildcards
+class CoalescingPolicyBuilder<R> : CoalescingPolicyBuilderBase<R, CoalescingPolicyBuilder<R>>() {
+  /**
+   * Builds a policy under which an execution whose key matches one already in flight waits for that execution and
+   * receives its result or exception instead of executing the action again.
+   */
+  fun coalesce(): CoalescingPolicy<R> = CoalescingPolicy(this)
+
+  override fun self(): CoalescingPolicyBuilder<R> = this
+}
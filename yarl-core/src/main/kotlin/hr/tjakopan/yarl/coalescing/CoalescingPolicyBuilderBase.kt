@@ -0,0 +1,19 @@
+package hr.tjakopan.yarl.coalescing
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.PolicyBuilder
+
+abstract class CoalescingPolicyBuilderBase<R, out B : CoalescingPolicyBuilderBase<R, B>> protected constructor() :
+  PolicyBuilder<R, B>() {
+  @JvmSynthetic
+  internal var coalescingKeyProvider: (Context) -> String? = { it.operationKey }
+
+  /**
+   * Computes the key that concurrent executions must share to be coalesced, instead of taking their
+   * [operation key][Context.operationKey]. Executions without a key are never coalesced.
+   */
+  fun coalescingKey(coalescingKeyProvider: (Context) -> String?): B {
+    this.coalescingKeyProvider = coalescingKeyProvider
+    return self()
+  }
+}
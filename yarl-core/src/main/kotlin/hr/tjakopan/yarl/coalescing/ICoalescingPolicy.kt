@@ -0,0 +1,5 @@
+package hr.tjakopan.yarl.coalescing
+
+import hr.tjakopan.yarl.IPolicy
+
+interface ICoalescingPolicy : IPolicy
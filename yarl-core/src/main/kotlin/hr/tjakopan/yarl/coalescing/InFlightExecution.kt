@@ -0,0 +1,41 @@
+package hr.tjakopan.yarl.coalescing
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import kotlinx.coroutines.CompletableJob
+import kotlinx.coroutines.Job
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * An execution shared by the callers waiting for it.
+ *
+ * The execution started by a suspending caller runs under [job] rather than under the caller, so that it outlives any
+ * single caller; it is cancelled only once every caller has left. Callers that cannot be cancelled, such as those of
+ * the [CompletableFuture] API, never leave.
+ */
+@ThreadSafe
+internal class InFlightExecution<R> {
+  val outcome: CompletableFuture<R> = CompletableFuture()
+  val job: CompletableJob = Job()
+  private val waiters = AtomicInteger(1)
+
+  /**
+   * Returns `false` if every caller has already left and the execution is being cancelled.
+   */
+  fun tryJoin(): Boolean {
+    while (true) {
+      val waiters = waiters.get()
+      if (waiters == 0) {
+        return false
+      }
+      if (this.waiters.compareAndSet(waiters, waiters + 1)) {
+        return true
+      }
+    }
+  }
+
+  /**
+   * Returns `true` if the calling waiter was the last one.
+   */
+  fun leave(): Boolean = waiters.decrementAndGet() == 0
+}
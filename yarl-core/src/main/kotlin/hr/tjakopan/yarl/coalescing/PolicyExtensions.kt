@@ -0,0 +1,7 @@
+package hr.tjakopan.yarl.coalescing
+
+import hr.tjakopan.yarl.Policy
+
+fun <R> Policy.Policy.coalescing(): CoalescingPolicyBuilder<R> = CoalescingPolicyBuilder()
+
+fun <R> Policy.Policy.asyncCoalescing(): AsyncCoalescingPolicyBuilder<R> = AsyncCoalescingPolicyBuilder()
@@ -1,88 +1,51 @@
-//package hr.tjakopan.yarl.fallback
-//
-//import hr.tjakopan.yarl.AsyncPolicy
-//import hr.tjakopan.yarl.Context
-//import hr.tjakopan.yarl.DelegateResult
-//import hr.tjakopan.yarl.Policy
-//import java.util.concurrent.CompletableFuture
-//import java.util.concurrent.CompletableFuture
-//import java.util.concurrent.Executor
-//
-///**
-// * A fallback policy that can be applied to asynchronous delegates.
-// *
-// * @param TResult The return type of delegates which may be executed through the policy.
-// */
-//class AsyncFallbackPolicy<TResult> private constructor(policyBuilder: Builder<TResult>) :
-//  AsyncPolicy<TResult, AsyncFallbackPolicy.Builder<TResult>>(policyBuilder), IFallbackPolicy {
-//  private val onFallback = policyBuilder.onFallback
-//  private val fallbackAction = policyBuilder.fallbackAction
-//  private val executor = policyBuilder.executor
-//
-//  override fun implementationAsync(
-//    context: Context,
-//    action: (Context) -> CompletableFuture<TResult>
-//  ): CompletableFuture<TResult> =
-//    AsyncFallbackEngine.implementationAsync(
-//      context,
-//      exceptionPredicates,
-//      resultPredicates,
-//      { dr, ctx -> onFallback(dr, ctx, null) },
-//      { dr, ctx -> fallbackAction(dr, ctx, null) },
-//      action
-//    )
-//
-//  override fun implementationAsync(
-//    context: Context,
-//    executor: Executor,
-//    action: (Context, Executor) -> CompletableFuture<TResult>
-//  ): CompletableFuture<TResult> =
-//    AsyncFallbackEngine.implementationAsync(
-//      context,
-//      executor,
-//      exceptionPredicates,
-//      resultPredicates,
-//      { dr, ctx, exe -> onFallbackAsync(dr, ctx, exe) },
-//      { dr, ctx, exe -> fallbackAction(dr, ctx, exe) },
-//      action
-//    )
-//
-//  class Builder<TResult>() : Policy.Builder<TResult, Builder<TResult>>() {
-//    @JvmSynthetic
-//    internal var onFallback: (DelegateResult<TResult>, Context, Executor) -> CompletableFuture<Unit> =
-//      { _, _, _ -> CompletableFuture.completedStage(Unit) }
-//      private set
-//
-//    @JvmSynthetic
-//    internal lateinit var fallbackAction: (DelegateResult<TResult>, Context, Executor) -> CompletableFuture<TResult>
-//      private set
-//
-//    @JvmSynthetic
-//    internal var executor: Executor? = null
-//      private set
-//
-//    constructor(fallbackAction: (DelegateResult<TResult>, Context) -> CompletableFuture<TResult>) : this() {
-//      this.fallbackAction = { r, ctx, _ -> fallbackAction(r, ctx) }
-//    }
-//
-//    constructor(
-//      executor: Executor,
-//      fallbackAction: (DelegateResult<TResult>, Context, Executor) -> CompletableFuture<TResult>
-//    ) : this() {
-//      this.executor = executor
-//      this.fallbackAction = fallbackAction
-//    }
-//
-//    fun onFallback(onFallback: (DelegateResult<TResult>, Context) -> CompletableFuture<Unit>) {
-//      this.onFallback = { r, ctx, _ -> onFallback(r, ctx) }
-//    }
-//
-//    fun onFallback(onFallback: (DelegateResult<TResult>, Context, Executor) -> CompletableFuture<Unit>) {
-//      this.onFallback = onFallback
-//    }
-//
-//    override fun self(): Builder<TResult> = this
-//
-//    fun build() = AsyncFallbackPolicy(this)
-//  }
-//}
+package hr.tjakopan.yarl.fallback
+
+import hr.tjakopan.yarl.AsyncPolicy
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+class AsyncFallbackPolicy<R> internal constructor(policyBuilder: AsyncFallbackPolicyBuilder<R>) :
+  AsyncPolicy<R, AsyncFallbackPolicyBuilder<R>>(policyBuilder), IFallbackPolicy {
+  companion object AsyncFallbackPolicy {
+    @JvmStatic
+    fun <R> builder(): AsyncFallbackPolicyBuilder<R> = AsyncFallbackPolicyBuilder()
+  }
+
+  private val fallbackAction: suspend (DelegateResult<R>, Context) -> R = policyBuilder.fallbackAction
+  private val fallbackActionAsync: ((DelegateResult<R>, Context) -> CompletableFuture<R>)? =
+    policyBuilder.fallbackActionAsync
+  private val onFallback: suspend (DelegateResult<R>, Context) -> Unit = policyBuilder.onFallback
+  private val onFallbackAsync: ((DelegateResult<R>, Context) -> CompletableFuture<Unit>)? =
+    policyBuilder.onFallbackAsync
+
+  @JvmSynthetic
+  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
+    FallbackEngine.implementation(
+      action,
+      context,
+      exceptionPredicates,
+      resultPredicates,
+      onFallback,
+      fallbackAction
+    )
+
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> =
+    FallbackEngine.implementationAsync(
+      action,
+      context,
+      executor,
+      exceptionPredicates,
+      resultPredicates,
+      onFallback,
+      onFallbackAsync,
+      fallbackAction,
+      fallbackActionAsync
+    )
+}
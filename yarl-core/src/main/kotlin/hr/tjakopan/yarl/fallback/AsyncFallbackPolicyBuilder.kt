@@ -0,0 +1,103 @@
+package hr.tjakopan.yarl.fallback
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.PolicyBuilder
+import kotlinx.coroutines.future.await
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+/**
+ * Delegates given as [CompletableFuture]s are kept as they are, so that the future API of the policy composes them
+ * without a coroutine.
+ */
+@JvmSuppressWildcards
+class AsyncFallbackPolicyBuilder<R> : PolicyBuilder<R, AsyncFallbackPolicyBuilder<R>>() {
+  private companion object {
+    val DO_NOTHING: suspend (DelegateResult<Any?>, Context) -> Unit = { _, _ -> }
+    val COMPLETED_UNIT: CompletableFuture<Unit> = CompletableFuture.completedFuture(Unit)
+    val DO_NOTHING_ASYNC: (DelegateResult<Any?>, Context) -> CompletableFuture<Unit> = { _, _ -> COMPLETED_UNIT }
+  }
+
+  @JvmSynthetic
+  internal lateinit var fallbackAction: suspend (DelegateResult<R>, Context) -> R
+
+  @JvmSynthetic
+  internal var fallbackActionAsync: ((DelegateResult<R>, Context) -> CompletableFuture<R>)? = null
+
+  @JvmSynthetic
+  internal var onFallback: suspend (DelegateResult<R>, Context) -> Unit = DO_NOTHING
+
+  @JvmSynthetic
+  internal var onFallbackAsync: ((DelegateResult<R>, Context) -> CompletableFuture<Unit>)? = DO_NOTHING_ASYNC
+
+  /**
+   * Builds a policy which, when the action throws a handled exception or returns a handled result, first calls
+   * [onFallback] with the handled outcome and then returns the result of [fallbackAction].
+   */
+  @JvmSynthetic
+  fun fallback(
+    fallbackAction: suspend (DelegateResult<R>, Context) -> R,
+    onFallback: suspend (DelegateResult<R>, Context) -> Unit = DO_NOTHING
+  ): AsyncFallbackPolicy<R> {
+    this.fallbackAction = fallbackAction
+    this.fallbackActionAsync = null
+    setOnFallback(onFallback)
+    return AsyncFallbackPolicy(this)
+  }
+
+  /**
+   * Builds a policy which, when the action throws a handled exception or returns a handled result, first calls
+   * [onFallback] with the handled outcome and then returns [fallbackValue].
+   */
+  @JvmSynthetic
+  fun fallback(
+    fallbackValue: R,
+    onFallback: suspend (DelegateResult<R>, Context) -> Unit = DO_NOTHING
+  ): AsyncFallbackPolicy<R> {
+    val fallbackFuture = CompletableFuture.completedFuture(fallbackValue)
+    this.fallbackAction = { _, _ -> fallbackValue }
+    this.fallbackActionAsync = { _, _ -> fallbackFuture }
+    setOnFallback(onFallback)
+    return AsyncFallbackPolicy(this)
+  }
+
+  @JvmName("fallback")
+  @JvmOverloads
+  fun fallbackAsync(
+    fallbackAction: (DelegateResult<R>, Context) -> CompletableFuture<R>,
+    onFallback: (DelegateResult<R>, Context) -> CompletableFuture<Unit> = DO_NOTHING_ASYNC
+  ): AsyncFallbackPolicy<R> {
+    this.fallbackAction = { outcome, context -> fallbackAction(outcome, context).await() }
+    this.fallbackActionAsync = fallbackAction
+    setOnFallbackAsync(onFallback)
+    return AsyncFallbackPolicy(this)
+  }
+
+  @JvmName("fallback")
+  @JvmOverloads
+  fun fallbackAsync(
+    fallbackValue: R,
+    onFallback: (DelegateResult<R>, Context) -> CompletableFuture<Unit> = DO_NOTHING_ASYNC
+  ): AsyncFallbackPolicy<R> {
+    val fallbackFuture = CompletableFuture.completedFuture(fallbackValue)
+    return fallbackAsync({ _, _ -> fallbackFuture }, onFallback)
+  }
+
+  private fun setOnFallback(onFallback: suspend (DelegateResult<R>, Context) -> Unit) {
+    this.onFallback = onFallback
+    this.onFallbackAsync = if (onFallback === DO_NOTHING) DO_NOTHING_ASYNC else null
+  }
+
+  private fun setOnFallbackAsync(onFallback: (DelegateResult<R>, Context) -> CompletableFuture<Unit>) {
+    this.onFallback = if (onFallback === DO_NOTHING_ASYNC) DO_NOTHING else { outcome, context ->
+      onFallback(outcome, context).await()
+    }
+    this.onFallbackAsync = onFallback
+  }
+
+  public override fun defaultExecutor(executor: Executor): AsyncFallbackPolicyBuilder<R> =
+    super.defaultExecutor(executor)
+
+  override fun self(): AsyncFallbackPolicyBuilder<R> = this
+}
@@ -1,32 +1,173 @@
-//package hr.tjakopan.yarl.fallback
-//
-//import hr.tjakopan.yarl.Context
-//import hr.tjakopan.yarl.DelegateResult
-//import hr.tjakopan.yarl.ExceptionPredicates
-//import hr.tjakopan.yarl.ResultPredicates
-//
-//internal object FallbackEngine {
-//  @JvmSynthetic
-//  internal fun <TResult> implementation(
-//    context: Context,
-//    shouldHandleExceptionPredicates: ExceptionPredicates,
-//    shouldHandleResultPredicates: ResultPredicates<TResult>,
-//    onFallback: (DelegateResult<TResult>, Context) -> Unit,
-//    fallbackAction: (DelegateResult<TResult>, Context) -> TResult?,
-//    action: (Context) -> TResult?
-//  ): TResult? {
-//    var delegateOutcome: DelegateResult<TResult>
-//    try {
-//      val result = action(context)
-//      if (!shouldHandleResultPredicates.anyMatch(result)) {
-//        return result
-//      }
-//      delegateOutcome = DelegateResult.Result(result)
-//    } catch (ex: Throwable) {
-//      val handledException = shouldHandleExceptionPredicates.firstMatchOrNull(ex) ?: throw ex
-//      delegateOutcome = DelegateResult.Exception(handledException)
-//    }
-//    onFallback(delegateOutcome, context)
-//    return fallbackAction(delegateOutcome, context)
-//  }
-//}
+package hr.tjakopan.yarl.fallback
+
+import hr.tjakopan.yarl.AsyncExecution
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.ExceptionPredicates
+import hr.tjakopan.yarl.ResultPredicates
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+internal object FallbackEngine {
+  @JvmSynthetic
+  fun <R> implementation(
+    action: (Context) -> R,
+    context: Context,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    shouldHandleResultPredicates: ResultPredicates<R>,
+    onFallback: (DelegateResult<R>, Context) -> Unit,
+    fallbackAction: (DelegateResult<R>, Context) -> R
+  ): R {
+    val delegateOutcome: DelegateResult<R> = try {
+      val result = action(context)
+      if (!shouldHandleResultPredicates.anyMatch(result)) {
+        return result
+      }
+      DelegateResult.success(result)
+    } catch (e: Throwable) {
+      DelegateResult.failure(shouldHandleExceptionPredicates.firstMatchOrNull(e) ?: throw e)
+    }
+    onFallback(delegateOutcome, context)
+    return fallbackAction(delegateOutcome, context)
+  }
+
+  /**
+   * Runs on the caller's coroutine throughout; nothing is dispatched.
+   */
+  @JvmSynthetic
+  suspend fun <R> implementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    shouldHandleResultPredicates: ResultPredicates<R>,
+    onFallback: suspend (DelegateResult<R>, Context) -> Unit,
+    fallbackAction: suspend (DelegateResult<R>, Context) -> R
+  ): R {
+    val delegateOutcome: DelegateResult<R> = try {
+      val result = action(context)
+      if (!shouldHandleResultPredicates.anyMatch(result)) {
+        return result
+      }
+      DelegateResult.success(result)
+    } catch (e: Throwable) {
+      DelegateResult.failure(shouldHandleExceptionPredicates.firstMatchOrNull(e) ?: throw e)
+    }
+    onFallback(delegateOutcome, context)
+    return fallbackAction(delegateOutcome, context)
+  }
+
+  /**
+   * Returns the future of the action itself when it has already completed with an unhandled outcome, and otherwise
+   * completes on whichever thread completes the action, without handing over to [executor]. A pending action costs one
+   * [FallbackFuture] and one completion callback unless the fallback is taken. Only delegates given as suspend
+   * functions need a coroutine, and only once the fallback is taken.
+   */
+  @JvmSynthetic
+  fun <R> implementationAsync(
+    action: (Context) -> CompletableFuture<R>,
+    context: Context,
+    executor: Executor,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    shouldHandleResultPredicates: ResultPredicates<R>,
+    onFallback: suspend (DelegateResult<R>, Context) -> Unit,
+    onFallbackAsync: ((DelegateResult<R>, Context) -> CompletableFuture<Unit>)?,
+    fallbackAction: suspend (DelegateResult<R>, Context) -> R,
+    fallbackActionAsync: ((DelegateResult<R>, Context) -> CompletableFuture<R>)?
+  ): CompletableFuture<R> {
+    val future = AsyncExecution.invoke(action, context)
+    if (future.isDone) {
+      val delegateOutcome = handledOutcome(future, shouldHandleExceptionPredicates, shouldHandleResultPredicates)
+      return when (delegateOutcome) {
+        null -> future
+        else -> fallback(
+          delegateOutcome,
+          context,
+          executor,
+          onFallback,
+          onFallbackAsync,
+          fallbackAction,
+          fallbackActionAsync
+        )
+      }
+    }
+    val fallbackFuture = FallbackFuture(future)
+    future.whenComplete { result, e ->
+      if (fallbackFuture.isDone) {
+        return@whenComplete
+      }
+      val delegateOutcome = handledOutcome(future, shouldHandleExceptionPredicates, shouldHandleResultPredicates)
+      when {
+        delegateOutcome != null -> AsyncExecution.relay(
+          fallback(
+            delegateOutcome,
+            context,
+            executor,
+            onFallback,
+            onFallbackAsync,
+            fallbackAction,
+            fallbackActionAsync
+          ),
+          fallbackFuture
+        )
+        e == null -> fallbackFuture.complete(result)
+        else -> fallbackFuture.completeExceptionally(AsyncExecution.unwrap(e))
+      }
+    }
+    return fallbackFuture
+  }
+
+  /**
+   * The outcome of a completed [future] if the policy handles it, otherwise `null`.
+   */
+  private fun <R> handledOutcome(
+    future: CompletableFuture<R>,
+    shouldHandleExceptionPredicates: ExceptionPredicates,
+    shouldHandleResultPredicates: ResultPredicates<R>
+  ): DelegateResult<R>? {
+    if (!future.isCompletedExceptionally) {
+      val result = future.join()
+      return if (shouldHandleResultPredicates.anyMatch(result)) DelegateResult.success(result) else null
+    }
+    return try {
+      future.join()
+      null
+    } catch (e: Throwable) {
+      shouldHandleExceptionPredicates.firstMatchOrNull(AsyncExecution.unwrap(e))?.let { DelegateResult.failure(it) }
+    }
+  }
+
+  private fun <R> fallback(
+    delegateOutcome: DelegateResult<R>,
+    context: Context,
+    executor: Executor,
+    onFallback: suspend (DelegateResult<R>, Context) -> Unit,
+    onFallbackAsync: ((DelegateResult<R>, Context) -> CompletableFuture<Unit>)?,
+    fallbackAction: suspend (DelegateResult<R>, Context) -> R,
+    fallbackActionAsync: ((DelegateResult<R>, Context) -> CompletableFuture<R>)?
+  ): CompletableFuture<R> {
+    if (onFallbackAsync == null || fallbackActionAsync == null) {
+      return AsyncExecution.bridge(executor) {
+        onFallback(delegateOutcome, context)
+        fallbackAction(delegateOutcome, context)
+      }
+    }
+    return try {
+      onFallbackAsync(delegateOutcome, context).thenCompose { fallbackActionAsync(delegateOutcome, context) }
+    } catch (e: Throwable) {
+      CompletableFuture.failedFuture(e)
+    }
+  }
+
+  /**
+   * Cancels the future of the action along with itself, so forwarding cancellation needs no dependent stage.
+   */
+  private class FallbackFuture<R>(private val actionFuture: CompletableFuture<R>) : CompletableFuture<R>() {
+    override fun cancel(mayInterruptIfRunning: Boolean): Boolean {
+      val cancelled = super.cancel(mayInterruptIfRunning)
+      if (cancelled) {
+        actionFuture.cancel(false)
+      }
+      return cancelled
+    }
+  }
+}
@@ -1,36 +1,26 @@
-//package hr.tjakopan.yarl.fallback
-//
-//import hr.tjakopan.yarl.Context
-//import hr.tjakopan.yarl.DelegateResult
-//import hr.tjakopan.yarl.Policy
-//
-///**
-// * A fallback policy that can be applied to delegates returning a value of type [TResult].
-// */
-//class FallbackPolicy<TResult> private constructor(policyBuilder: Builder<TResult>) :
-//  Policy<TResult, FallbackPolicy.Builder<TResult>>(policyBuilder), IFallbackPolicy {
-//  private val onFallback = policyBuilder.onFallback
-//  private val fallbackAction = policyBuilder.fallbackAction
-//
-//  override fun implementation(context: Context, action: (Context) -> TResult?): TResult? =
-//    FallbackEngine.implementation(
-//      context,
-//      exceptionPredicates,
-//      resultPredicates,
-//      onFallback,
-//      fallbackAction,
-//      action
-//    )
-//
-//  class Builder<TResult>(@JvmSynthetic internal val fallbackAction: (DelegateResult<TResult>, Context) -> TResult?) :
-//    Policy.Builder<TResult, Builder<TResult>>() {
-//    @JvmSynthetic
-//    internal var onFallback: (DelegateResult<TResult>, Context) -> Unit = { _, _ -> }
-//
-//    constructor(fallbackValue: TResult?) : this({ _, _ -> fallbackValue })
-//
-//    override fun self(): Builder<TResult> = this
-//
-//    fun build() = FallbackPolicy(this)
-//  }
-//}
+package hr.tjakopan.yarl.fallback
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.Policy
+
+class FallbackPolicy<R> internal constructor(policyBuilder: FallbackPolicyBuilder<R>) :
+  Policy<R, FallbackPolicyBuilder<R>>(policyBuilder), IFallbackPolicy {
+  companion object FallbackPolicy {
+    @JvmStatic
+    fun <R> builder(): FallbackPolicyBuilder<R> = FallbackPolicyBuilder()
+  }
+
+  private val fallbackAction: (DelegateResult<R>, Context) -> R = policyBuilder.fallbackAction
+  private val onFallback: (DelegateResult<R>, Context) -> Unit = policyBuilder.onFallback
+
+  override fun implementation(context: Context, action: (Context) -> R): R =
+    FallbackEngine.implementation(
+      action,
+      context,
+      exceptionPredicates,
+      resultPredicates,
+      onFallback,
+      fallbackAction
+    )
+}
@@ -0,0 +1,40 @@
+package hr.tjakopan.yarl.fallback
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.PolicyBuilder
+
+@JvmSuppressWildcards
+class FallbackPolicyBuilder<R> : PolicyBuilder<R, FallbackPolicyBuilder<R>>() {
+  @JvmSynthetic
+  internal lateinit var fallbackAction: (DelegateResult<R>, Context) -> R
+
+  @JvmSynthetic
+  internal var onFallback: (DelegateResult<R>, Context) -> Unit = { _, _ -> }
+
+  /**
+   * Builds a policy which, when the action throws a handled exception or returns a handled result, first calls
+   * [onFallback] with the handled outcome and then returns the result of [fallbackAction].
+   */
+  @JvmOverloads
+  fun fallback(
+    fallbackAction: (DelegateResult<R>, Context) -> R,
+    onFallback: (DelegateResult<R>, Context) -> Unit = { _, _ -> }
+  ): FallbackPolicy<R> {
+    this.fallbackAction = fallbackAction
+    this.onFallback = onFallback
+    return FallbackPolicy(this)
+  }
+
+  /**
+   * Builds a policy which, when the action throws a handled exception or returns a handled result, first calls
+   * [onFallback] with the handled outcome and then returns [fallbackValue].
+   */
+  @JvmOverloads
+  fun fallback(
+    fallbackValue: R,
+    onFallback: (DelegateResult<R>, Context) -> Unit = { _, _ -> }
+  ): FallbackPolicy<R> = fallback({ _, _ -> fallbackValue }, onFallback)
+
+  override fun self(): FallbackPolicyBuilder<R> = this
+}
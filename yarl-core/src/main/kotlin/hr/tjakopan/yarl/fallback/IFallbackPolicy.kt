@@ -1,8 +1,5 @@
-//package hr.tjakopan.yarl.fallback
-//
-//import hr.tjakopan.yarl.IsPolicy
-//
-///**
-// * Defines properties and methods common to all Fallback policies.
-// */
-//interface IFallbackPolicy : IsPolicy
+package hr.tjakopan.yarl.fallback
+
+import hr.tjakopan.yarl.IPolicy
+
+interface IFallbackPolicy : IPolicy
@@ -0,0 +1,7 @@
+package hr.tjakopan.yarl.fallback
+
+import hr.tjakopan.yarl.Policy
+
+fun <R> Policy.Policy.fallback(): FallbackPolicyBuilder<R> = FallbackPolicyBuilder()
+
+fun <R> Policy.Policy.asyncFallback(): AsyncFallbackPolicyBuilder<R> = AsyncFallbackPolicyBuilder()
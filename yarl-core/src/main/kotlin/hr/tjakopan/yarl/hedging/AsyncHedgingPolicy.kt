@@ -0,0 +1,37 @@
+package hr.tjakopan.yarl.hedging
+
+import hr.tjakopan.yarl.AsyncPolicy
+import hr.tjakopan.yarl.Context
+import java.time.Duration
+
+/**
+ * Starts a hedged attempt of the action whenever the attempts in flight have not produced an acceptable outcome within
+ * the hedging delay, and completes with the first acceptable outcome, cancelling the other attempts.
+ *
+ * An outcome is acceptable unless it is an exception or a result handled by the policy. A handled outcome starts the
+ * next hedged attempt straight away; an unhandled exception is thrown straight away. Once every attempt has completed
+ * with a handled outcome, the outcome of the last one is returned or thrown. All attempts share the same [Context].
+ */
+class AsyncHedgingPolicy<R> internal constructor(policyBuilder: AsyncHedgingPolicyBuilder<R>) :
+  AsyncPolicy<R, AsyncHedgingPolicyBuilder<R>>(policyBuilder), IHedgingPolicy {
+  companion object AsyncHedgingPolicy {
+    @JvmStatic
+    fun <R> builder(): AsyncHedgingPolicyBuilder<R> = AsyncHedgingPolicyBuilder()
+  }
+
+  override val maxHedgedAttempts: Int = policyBuilder.maxHedgedAttempts
+  private val hedgingDelayProvider: (Int, Context) -> Duration = policyBuilder.hedgingDelayProvider
+  private val onHedge: suspend (Int, Context) -> Unit = policyBuilder.onHedge
+
+  @JvmSynthetic
+  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
+    HedgingEngine.implementation(
+      action,
+      context,
+      exceptionPredicates,
+      resultPredicates,
+      maxHedgedAttempts,
+      hedgingDelayProvider,
+      onHedge
+    )
+}
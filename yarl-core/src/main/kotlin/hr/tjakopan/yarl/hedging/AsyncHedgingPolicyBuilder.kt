@@ -0,0 +1,85 @@
+package hr.tjakopan.yarl.hedging
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.PolicyBuilder
+import kotlinx.coroutines.future.await
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+@JvmSuppressWildcards
+class AsyncHedgingPolicyBuilder<R> : PolicyBuilder<R, AsyncHedgingPolicyBuilder<R>>() {
+  @JvmSynthetic
+  internal var maxHedgedAttempts: Int = 1
+
+  @JvmSynthetic
+  internal var hedgingDelayProvider: (Int, Context) -> Duration = { _, _ -> Duration.ZERO }
+
+  @JvmSynthetic
+  internal var onHedge: suspend (Int, Context) -> Unit = { _, _ -> Unit }
+
+  /**
+   * Builds a policy starting up to [maxHedgedAttempts] hedged attempts, each one [hedgingDelay] after the previous
+   * attempt unless an outcome arrives first. [onHedge] is called with the number of the hedged attempt before it
+   * starts.
+   */
+  @JvmSynthetic
+  fun hedge(
+    maxHedgedAttempts: Int,
+    hedgingDelay: Duration,
+    onHedge: suspend (Int, Context) -> Unit
+  ): AsyncHedgingPolicy<R> {
+    require(!hedgingDelay.isNegative) { "Hedging delay must be greater than or equal to zero." }
+    return hedge(maxHedgedAttempts, { _, _ -> hedgingDelay }, onHedge)
+  }
+
+  fun hedge(maxHedgedAttempts: Int, hedgingDelay: Duration): AsyncHedgingPolicy<R> {
+    val doNothing: suspend (Int, Context) -> Unit = { _, _ -> Unit }
+    return hedge(maxHedgedAttempts, hedgingDelay, doNothing)
+  }
+
+  /**
+   * Builds a policy starting up to [maxHedgedAttempts] hedged attempts. [hedgingDelayProvider] is called with the number
+   * of the next hedged attempt, starting at one, and may compute the delay dynamically, e.g. from a latency percentile
+   * observed by the caller.
+   */
+  @JvmSynthetic
+  fun hedge(
+    maxHedgedAttempts: Int,
+    hedgingDelayProvider: (Int, Context) -> Duration,
+    onHedge: suspend (Int, Context) -> Unit
+  ): AsyncHedgingPolicy<R> {
+    if (maxHedgedAttempts < 0) throw IllegalArgumentException(
+      "Max hedged attempts must be greater than or equal to zero."
+    )
+    this.maxHedgedAttempts = maxHedgedAttempts
+    this.hedgingDelayProvider = hedgingDelayProvider
+    this.onHedge = onHedge
+    return AsyncHedgingPolicy(this)
+  }
+
+  fun hedge(maxHedgedAttempts: Int, hedgingDelayProvider: (Int, Context) -> Duration): AsyncHedgingPolicy<R> {
+    val doNothing: suspend (Int, Context) -> Unit = { _, _ -> Unit }
+    return hedge(maxHedgedAttempts, hedgingDelayProvider, doNothing)
+  }
+
+  @JvmName("hedge")
+  fun hedgeAsync(
+    maxHedgedAttempts: Int,
+    hedgingDelay: Duration,
+    onHedge: (Int, Context) -> CompletableFuture<Unit>
+  ): AsyncHedgingPolicy<R> = hedge(maxHedgedAttempts, hedgingDelay) { i, context -> onHedge(i, context).await() }
+
+  @JvmName("hedge")
+  fun hedgeAsync(
+    maxHedgedAttempts: Int,
+    hedgingDelayProvider: (Int, Context) -> Duration,
+    onHedge: (Int, Context) -> CompletableFuture<Unit>
+  ): AsyncHedgingPolicy<R> =
+    hedge(maxHedgedAttempts, hedgingDelayProvider) { i, context -> onHedge(i, context).await() }
+
+  public override fun defaultExecutor(executor: Executor): AsyncHedgingPolicyBuilder<R> =
+    super.defaultExecutor(executor)
+
+  override fun self(): AsyncHedgingPolicyBuilder<R> = this
+}
@@ -0,0 +1,94 @@
+package hr.tjakopan.yarl.hedging
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.ExceptionPredicates
+import hr.tjakopan.yarl.ResultPredicates
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.cancelChildren
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import java.time.Duration
+
+internal object HedgingEngine {
+  private class HedgeDue(val attempt: Int)
+
+  /**
+   * Attempts and the hedging timer run as children of one scope and report to a single channel, which is never
+   * cancelled while receiving so no outcome is lost. Once an outcome is accepted the scope cancels the attempts still in
+   * flight.
+   */
+  @JvmSynthetic
+  suspend fun <R> implementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    exceptionPredicates: ExceptionPredicates,
+    resultPredicates: ResultPredicates<R>,
+    maxHedgedAttempts: Int,
+    hedgingDelayProvider: (Int, Context) -> Duration,
+    onHedge: suspend (Int, Context) -> Unit
+  ): R = coroutineScope {
+    val events = Channel<Any>(Channel.UNLIMITED)
+    var startedAttempts = 0
+    var completedAttempts = 0
+    var hedgingTimer: Job? = null
+
+    suspend fun startAttempt() {
+      if (startedAttempts > 0) {
+        onHedge(startedAttempts, context)
+      }
+      startedAttempts++
+      launch {
+        events.send(DelegateResult.runCatching(exceptionPredicates) { action(context) })
+      }
+      hedgingTimer?.cancel()
+      hedgingTimer = when {
+        startedAttempts <= maxHedgedAttempts -> {
+          val attempt = startedAttempts
+          val hedgingDelay = hedgingDelayProvider(attempt, context)
+          launch {
+            delay(hedgingDelay.toMillis())
+            events.send(HedgeDue(attempt))
+          }
+        }
+        else -> null
+      }
+    }
+
+    suspend fun acceptedOutcome(): DelegateResult<R> {
+      while (true) {
+        val event = events.receive()
+        if (event is HedgeDue) {
+          if (event.attempt == startedAttempts) {
+            startAttempt()
+          }
+          continue
+        }
+        @Suppress("UNCHECKED_CAST")
+        val outcome = event as DelegateResult<R>
+        completedAttempts++
+        when {
+          !isHandled(outcome, exceptionPredicates, resultPredicates) -> return outcome
+          startedAttempts <= maxHedgedAttempts -> startAttempt()
+          completedAttempts == startedAttempts -> return outcome
+        }
+      }
+    }
+
+    startAttempt()
+    val outcome = acceptedOutcome()
+    coroutineContext.cancelChildren()
+    outcome.getOrThrow()
+  }
+
+  private fun <R> isHandled(
+    outcome: DelegateResult<R>,
+    exceptionPredicates: ExceptionPredicates,
+    resultPredicates: ResultPredicates<R>
+  ): Boolean = outcome.fold(
+    { resultPredicates.anyMatch(it) },
+    { exceptionPredicates.firstMatchOrNull(it) != null }
+  )
+}
@@ -0,0 +1,7 @@
+package hr.tjakopan.yarl.hedging
+
+import hr.tjakopan.yarl.IPolicy
+
+interface IHedgingPolicy : IPolicy {
+  val maxHedgedAttempts: Int
+}
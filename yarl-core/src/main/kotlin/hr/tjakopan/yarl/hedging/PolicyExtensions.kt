@@ -0,0 +1,5 @@
+package hr.tjakopan.yarl.hedging
+
+import hr.tjakopan.yarl.Policy
+
+fun <R> Policy.Policy.asyncHedging(): AsyncHedgingPolicyBuilder<R> = AsyncHedgingPolicyBuilder()
@@ -0,0 +1,10 @@
+package hr.tjakopan.yarl.metrics
+
+/**
+ * Tells whether a policy invoked the action of an execution, which separates a rejection by the policy from an
+ * [ExecutionRejectedException][hr.tjakopan.yarl.ExecutionRejectedException] coming out of the action.
+ */
+internal class ActionInvocation {
+  @Volatile
+  var isInvoked: Boolean = false
+}
@@ -0,0 +1,83 @@
+package hr.tjakopan.yarl.metrics
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.AtomicReferenceArray
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets, in the style of HdrHistogram.
+ *
+ * Values below [SUB_BUCKET_COUNT] get a bucket each; above that every power of two is split into [SUB_BUCKET_COUNT]
+ * linear buckets, so a bucket is never wider than 1/16 of its values. Values are clamped to [MAX_VALUE], about 36
+ * minutes.
+ *
+ * Recording increments one bucket of an array picked by thread id. Arrays are allocated the first time a thread of
+ * their stripe records, so a quiet histogram stays small, and threads rarely contend for a bucket.
+ */
+@ThreadSafe
+internal class LatencyHistogram {
+  companion object {
+    private const val SUB_BUCKET_BITS = 4
+    const val SUB_BUCKET_COUNT = 1 shl SUB_BUCKET_BITS
+    const val MAX_VALUE = (1L shl 41) - 1
+    private const val MAX_STRIPES = 16
+
+    private val STRIPES: Int = run {
+      var stripes = 1
+      while (stripes < Runtime.getRuntime().availableProcessors() && stripes < MAX_STRIPES) {
+        stripes = stripes shl 1
+      }
+      stripes
+    }
+
+    val BUCKET_COUNT: Int = indexOf(MAX_VALUE) + 1
+
+    fun indexOf(value: Long): Int {
+      val clamped = value.coerceIn(0L, MAX_VALUE)
+      if (clamped < SUB_BUCKET_COUNT) {
+        return clamped.toInt()
+      }
+      val shift = 63 - java.lang.Long.numberOfLeadingZeros(clamped) - SUB_BUCKET_BITS
+      return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + (clamped ushr shift).toInt() - SUB_BUCKET_COUNT
+    }
+
+    /**
+     * The highest value recorded into the bucket at [index].
+     */
+    fun highestValueOf(index: Int): Long {
+      if (index < SUB_BUCKET_COUNT) {
+        return index.toLong()
+      }
+      val shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT
+      val subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT
+      return ((subBucket + 1).toLong() shl shift) - 1
+    }
+  }
+
+  private val stripes = AtomicReferenceArray<AtomicLongArray>(STRIPES)
+  private val totalNanos = LongAdder()
+
+  fun record(nanos: Long) {
+    val stripe = Thread.currentThread().id.toInt() and (STRIPES - 1)
+    val buckets = stripes.get(stripe) ?: allocate(stripe)
+    buckets.incrementAndGet(indexOf(nanos))
+    totalNanos.add(nanos.coerceIn(0L, MAX_VALUE))
+  }
+
+  fun snapshot(): LatencySnapshot {
+    val counts = LongArray(BUCKET_COUNT)
+    for (stripe in 0 until STRIPES) {
+      val buckets = stripes.get(stripe) ?: continue
+      for (i in counts.indices) {
+        counts[i] += buckets.get(i)
+      }
+    }
+    return LatencySnapshot(counts, totalNanos.sum())
+  }
+
+  private fun allocate(stripe: Int): AtomicLongArray {
+    stripes.compareAndSet(stripe, null, AtomicLongArray(BUCKET_COUNT))
+    return stripes.get(stripe)
+  }
+}
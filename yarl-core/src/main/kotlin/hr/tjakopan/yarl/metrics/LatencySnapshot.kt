@@ -0,0 +1,44 @@
+package hr.tjakopan.yarl.metrics
+
+import hr.tjakopan.yarl.annotations.Immutable
+import java.time.Duration
+import kotlin.math.ceil
+
+/**
+ * Latencies recorded up to the moment the snapshot was taken. Percentiles and [max] are the highest value of the
+ * bucket they fall into, so they overstate the recorded latency by at most 1/16.
+ */
+@Immutable
+class LatencySnapshot internal constructor(private val counts: LongArray, totalNanos: Long) {
+  val count: Long = counts.sum()
+
+  val mean: Duration = when (count) {
+    0L -> Duration.ZERO
+    else -> Duration.ofNanos(totalNanos / count)
+  }
+
+  val max: Duration = when (val index = counts.indexOfLast { it > 0 }) {
+    -1 -> Duration.ZERO
+    else -> Duration.ofNanos(LatencyHistogram.highestValueOf(index))
+  }
+
+  /**
+   * The latency that [percentile] percent of the recorded latencies do not exceed, e.g. `99.0` for the 99th
+   * percentile.
+   */
+  fun percentile(percentile: Double): Duration {
+    require(percentile in 0.0..100.0) { "Percentile must be between 0 and 100." }
+    if (count == 0L) {
+      return Duration.ZERO
+    }
+    val rank = ceil(percentile / 100 * count).toLong().coerceAtLeast(1L)
+    var cumulativeCount = 0L
+    for (i in counts.indices) {
+      cumulativeCount += counts[i]
+      if (cumulativeCount >= rank) {
+        return Duration.ofNanos(LatencyHistogram.highestValueOf(i))
+      }
+    }
+    return max
+  }
+}
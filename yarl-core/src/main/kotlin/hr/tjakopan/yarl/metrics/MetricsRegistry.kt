@@ -0,0 +1,27 @@
+package hr.tjakopan.yarl.metrics
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Metrics of every policy key recorded so far. Entries are never removed, which is why only policies with an explicit
+ * policy key record metrics.
+ */
+object MetricsRegistry {
+  private val policyMetrics = ConcurrentHashMap<String, PolicyMetrics>()
+
+  /**
+   * Metrics of [policyKey], or `null` if no policy with that key records metrics.
+   */
+  @JvmStatic
+  operator fun get(policyKey: String): PolicyMetrics? = policyMetrics[policyKey]
+
+  /**
+   * Snapshots of the metrics of every policy key, by policy key.
+   */
+  @JvmStatic
+  fun snapshot(): Map<String, PolicyMetricsSnapshot> = policyMetrics.mapValues { (_, metrics) -> metrics.snapshot() }
+
+  @JvmSynthetic
+  internal fun forPolicyKey(policyKey: String): PolicyMetrics =
+    policyMetrics.computeIfAbsent(policyKey, ::PolicyMetrics)
+}
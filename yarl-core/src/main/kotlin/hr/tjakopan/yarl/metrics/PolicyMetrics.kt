@@ -0,0 +1,63 @@
+package hr.tjakopan.yarl.metrics
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Execution metrics of the policies sharing [policyKey], recorded by policies built with
+ * [recordMetrics][hr.tjakopan.yarl.PolicyBuilder.recordMetrics]. Counters are [LongAdder]s, so recording from many
+ * threads does not contend.
+ */
+@ThreadSafe
+class PolicyMetrics internal constructor(val policyKey: String) {
+  private companion object {
+    const val MAX_TRACKED_RETRY_ATTEMPTS = 16
+  }
+
+  private val executions = LongAdder()
+  private val successes = LongAdder()
+  private val handledFailures = LongAdder()
+  private val unhandledFailures = LongAdder()
+  private val rejections = LongAdder()
+  private val retries = Array(MAX_TRACKED_RETRY_ATTEMPTS) { LongAdder() }
+  private val latency = LatencyHistogram()
+
+  @JvmSynthetic
+  internal fun recordExecution() = executions.increment()
+
+  @JvmSynthetic
+  internal fun recordSuccess(latencyNanos: Long) {
+    successes.increment()
+    latency.record(latencyNanos)
+  }
+
+  @JvmSynthetic
+  internal fun recordHandledFailure(latencyNanos: Long) {
+    handledFailures.increment()
+    latency.record(latencyNanos)
+  }
+
+  @JvmSynthetic
+  internal fun recordUnhandledFailure(latencyNanos: Long) {
+    unhandledFailures.increment()
+    latency.record(latencyNanos)
+  }
+
+  @JvmSynthetic
+  internal fun recordRejection() = rejections.increment()
+
+  @JvmSynthetic
+  internal fun recordRetry(attempt: Int) =
+    retries[(attempt - 1).coerceIn(0, MAX_TRACKED_RETRY_ATTEMPTS - 1)].increment()
+
+  fun snapshot(): PolicyMetricsSnapshot = PolicyMetricsSnapshot(
+    policyKey,
+    executions.sum(),
+    successes.sum(),
+    handledFailures.sum(),
+    unhandledFailures.sum(),
+    rejections.sum(),
+    retries.map { it.sum() },
+    latency.snapshot()
+  )
+}
@@ -0,0 +1,30 @@
+package hr.tjakopan.yarl.metrics
+
+import hr.tjakopan.yarl.annotations.Immutable
+
+/**
+ * Metrics of the policies sharing [policyKey] up to the moment the snapshot was taken. Counters are read one after
+ * another while executions go on, so they may disagree slightly with each other.
+ *
+ * @property executions executions started, including those still in flight
+ * @property handledFailures executions ending with an exception or result handled by the policy
+ * @property unhandledFailures executions ending with an exception not handled by the policy
+ * @property rejections executions refused by the policy without executing the action
+ * @property retriesByAttempt retries by attempt number: the first element counts first retries, the second element
+ * second retries, and the last element also every later retry
+ * @property latency latencies of executions that were not rejected
+ */
+@Immutable
+class PolicyMetricsSnapshot internal constructor(
+  val policyKey: String,
+  val executions: Long,
+  val successes: Long,
+  val handledFailures: Long,
+  val unhandledFailures: Long,
+  val rejections: Long,
+  val retriesByAttempt: List<Long>,
+  val latency: LatencySnapshot
+) {
+  val retries: Long
+    get() = retriesByAttempt.sum()
+}
@@ -2,10 +2,19 @@ package hr.tjakopan.yarl.noop
 
 import hr.tjakopan.yarl.AsyncPolicy
 import hr.tjakopan.yarl.Context
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
 
 class AsyncNoOpPolicy<R> internal constructor() :
   AsyncPolicy<R, NoOpPolicyBuilder<R>>(NoOpPolicyBuilder()), INoOpPolicy {
   @JvmSynthetic
   override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
     NoOpEngine.implementation(context, action)
+
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> = NoOpEngine.implementationAsync(context, action)
 }
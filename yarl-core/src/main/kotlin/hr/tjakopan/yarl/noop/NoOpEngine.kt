@@ -1,6 +1,8 @@
 package hr.tjakopan.yarl.noop
 
+import hr.tjakopan.yarl.AsyncExecution
 import hr.tjakopan.yarl.Context
+import java.util.concurrent.CompletableFuture
 
 internal object NoOpEngine {
   @JvmSynthetic
@@ -8,4 +10,8 @@ internal object NoOpEngine {
 
   @JvmSynthetic
   suspend fun <R> implementation(context: Context, action: suspend (Context) -> R): R = action(context)
+
+  @JvmSynthetic
+  fun <R> implementationAsync(context: Context, action: (Context) -> CompletableFuture<R>): CompletableFuture<R> =
+    AsyncExecution.invoke(action, context)
 }
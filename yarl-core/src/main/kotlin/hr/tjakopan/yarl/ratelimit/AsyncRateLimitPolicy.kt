@@ -0,0 +1,28 @@
+package hr.tjakopan.yarl.ratelimit
+
+import hr.tjakopan.yarl.AsyncPolicy
+import hr.tjakopan.yarl.Context
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+class AsyncRateLimitPolicy<R> internal constructor(policyBuilder: AsyncRateLimitPolicyBuilder<R>) :
+  AsyncPolicy<R, AsyncRateLimitPolicyBuilder<R>>(policyBuilder), IRateLimitPolicy {
+  companion object AsyncRateLimitPolicy {
+    @JvmStatic
+    fun <R> builder(): AsyncRateLimitPolicyBuilder<R> = AsyncRateLimitPolicyBuilder()
+  }
+
+  private val rateLimiter: TokenBucketRateLimiter = policyBuilder.rateLimiter
+  private val maxWaitNanos: Long = policyBuilder.maxWaitNanos
+
+  @JvmSynthetic
+  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
+    RateLimitEngine.implementation(action, context, rateLimiter, maxWaitNanos)
+
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> = RateLimitEngine.implementationAsync(action, context, executor, rateLimiter, maxWaitNanos)
+}
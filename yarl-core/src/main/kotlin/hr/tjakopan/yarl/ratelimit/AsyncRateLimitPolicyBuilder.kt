@@ -0,0 +1,23 @@
+package hr.tjakopan.yarl.ratelimit
+
+import java.time.Duration
+import java.util.concurrent.Executor
+
+@JvmSuppressWildcards
+class AsyncRateLimitPolicyBuilder<R> : RateLimitPolicyBuilderBase<R, AsyncRateLimitPolicyBuilder<R>>() {
+  @JvmOverloads
+  fun rateLimit(
+    numberOfExecutions: Int,
+    perTimeSpan: Duration,
+    maxBurst: Int = 1,
+    maxWait: Duration = Duration.ZERO
+  ): AsyncRateLimitPolicy<R> {
+    configureRateLimit(numberOfExecutions, perTimeSpan, maxBurst, maxWait)
+    return AsyncRateLimitPolicy(this)
+  }
+
+  public override fun defaultExecutor(executor: Executor): AsyncRateLimitPolicyBuilder<R> =
+    super.defaultExecutor(executor)
+
+  override fun self(): AsyncRateLimitPolicyBuilder<R> = this
+}
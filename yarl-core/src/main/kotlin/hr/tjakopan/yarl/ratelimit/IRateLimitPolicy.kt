@@ -0,0 +1,5 @@
+package hr.tjakopan.yarl.ratelimit
+
+import hr.tjakopan.yarl.IPolicy
+
+interface IRateLimitPolicy : IPolicy
@@ -0,0 +1,7 @@
+package hr.tjakopan.yarl.ratelimit
+
+import hr.tjakopan.yarl.Policy
+
+fun <R> Policy.Policy.rateLimit(): RateLimitPolicyBuilder<R> = RateLimitPolicyBuilder()
+
+fun <R> Policy.Policy.asyncRateLimit(): AsyncRateLimitPolicyBuilder<R> = AsyncRateLimitPolicyBuilder()
@@ -0,0 +1,90 @@
+package hr.tjakopan.yarl.ratelimit
+
+import hr.tjakopan.yarl.AsyncExecution
+import hr.tjakopan.yarl.Context
+import kotlinx.coroutines.delay
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.LockSupport
+
+internal object RateLimitEngine {
+  @JvmSynthetic
+  fun <R> implementation(
+    action: (Context) -> R,
+    context: Context,
+    rateLimiter: TokenBucketRateLimiter,
+    maxWaitNanos: Long
+  ): R {
+    val waitNanos = rateLimiter.tryAcquire(maxWaitNanos)
+    if (waitNanos > maxWaitNanos) {
+      throw rateLimitRejectedException(waitNanos)
+    }
+    if (waitNanos > 0) {
+      val deadline = System.nanoTime() + waitNanos
+      var remainingNanos = waitNanos
+      while (remainingNanos > 0) {
+        LockSupport.parkNanos(remainingNanos)
+        if (Thread.interrupted()) {
+          throw InterruptedException()
+        }
+        remainingNanos = deadline - System.nanoTime()
+      }
+    }
+    return action(context)
+  }
+
+  @JvmSynthetic
+  suspend fun <R> implementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    rateLimiter: TokenBucketRateLimiter,
+    maxWaitNanos: Long
+  ): R {
+    val waitNanos = rateLimiter.tryAcquire(maxWaitNanos)
+    if (waitNanos > maxWaitNanos) {
+      throw rateLimitRejectedException(waitNanos)
+    }
+    if (waitNanos > 0) {
+      delay(TimeUnit.NANOSECONDS.toMillis(waitNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1))
+    }
+    return action(context)
+  }
+
+  @JvmSynthetic
+  fun <R> implementationAsync(
+    action: (Context) -> CompletableFuture<R>,
+    context: Context,
+    executor: Executor,
+    rateLimiter: TokenBucketRateLimiter,
+    maxWaitNanos: Long
+  ): CompletableFuture<R> {
+    val waitNanos = rateLimiter.tryAcquire(maxWaitNanos)
+    if (waitNanos > maxWaitNanos) {
+      return CompletableFuture.failedFuture(rateLimitRejectedException(waitNanos))
+    }
+    if (waitNanos <= 0) {
+      return AsyncExecution.invoke(action, context)
+    }
+    val future = CompletableFuture<R>()
+    CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS, executor).execute {
+      if (!future.isDone) {
+        AsyncExecution.relay(AsyncExecution.invoke(action, context), future)
+      }
+    }
+    return future
+  }
+
+  // Rejections are expected under load, so no stack trace is captured.
+  private fun rateLimitRejectedException(retryAfterNanos: Long): RateLimitRejectedException {
+    val retryAfter = Duration.ofNanos(retryAfterNanos)
+    return RateLimitRejectedException(
+      retryAfter,
+      "The rate limit for this policy has been exceeded. Retry after ${retryAfter.toMillis()} ms.",
+      null,
+      false,
+      false
+    )
+  }
+}
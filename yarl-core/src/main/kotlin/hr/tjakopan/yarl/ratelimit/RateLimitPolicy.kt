@@ -0,0 +1,18 @@
+package hr.tjakopan.yarl.ratelimit
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.Policy
+
+class RateLimitPolicy<R> internal constructor(policyBuilder: RateLimitPolicyBuilder<R>) :
+  Policy<R, RateLimitPolicyBuilder<R>>(policyBuilder), IRateLimitPolicy {
+  companion object RateLimitPolicy {
+    @JvmStatic
+    fun <R> builder(): RateLimitPolicyBuilder<R> = RateLimitPolicyBuilder()
+  }
+
+  private val rateLimiter: TokenBucketRateLimiter = policyBuilder.rateLimiter
+  private val maxWaitNanos: Long = policyBuilder.maxWaitNanos
+
+  override fun implementation(context: Context, action: (Context) -> R): R =
+    RateLimitEngine.implementation(action, context, rateLimiter, maxWaitNanos)
+}
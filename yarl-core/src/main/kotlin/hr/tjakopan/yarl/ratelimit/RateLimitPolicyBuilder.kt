@@ -0,0 +1,19 @@
+package hr.tjakopan.yarl.ratelimit
+
+import java.time.Duration
+
+@JvmSuppressWildcards
+class RateLimitPolicyBuilder<R> : RateLimitPolicyBuilderBase<R, RateLimitPolicyBuilder<R>>() {
+  @JvmOverloads
+  fun rateLimit(
+    numberOfExecutions: Int,
+    perTimeSpan: Duration,
+    maxBurst: Int = 1,
+    maxWait: Duration = Duration.ZERO
+  ): RateLimitPolicy<R> {
+    configureRateLimit(numberOfExecutions, perTimeSpan, maxBurst, maxWait)
+    return RateLimitPolicy(this)
+  }
+
+  override fun self(): RateLimitPolicyBuilder<R> = this
+}
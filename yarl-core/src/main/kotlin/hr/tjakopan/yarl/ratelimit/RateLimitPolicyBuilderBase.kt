@@ -0,0 +1,32 @@
+package hr.tjakopan.yarl.ratelimit
+
+import hr.tjakopan.yarl.PolicyBuilder
+import java.time.Duration
+
+abstract class RateLimitPolicyBuilderBase<R, out B : RateLimitPolicyBuilderBase<R, B>> protected constructor() :
+  PolicyBuilder<R, B>() {
+  @JvmSynthetic
+  internal lateinit var rateLimiter: TokenBucketRateLimiter
+
+  @JvmSynthetic
+  internal var maxWaitNanos: Long = 0L
+
+  @JvmSynthetic
+  internal fun configureRateLimit(numberOfExecutions: Int, perTimeSpan: Duration, maxBurst: Int, maxWait: Duration) {
+    require(numberOfExecutions > 0) { "Number of executions must be greater than zero." }
+    require(perTimeSpan > Duration.ZERO) { "Time span must be greater than zero." }
+    require(maxBurst > 0) { "Max burst must be greater than zero." }
+    require(!maxWait.isNegative) { "Max wait must be greater than or equal to zero." }
+    val intervalNanos = perTimeSpan.dividedBy(numberOfExecutions.toLong()).toNanos()
+    require(intervalNanos > 0) { "Number of executions per time span must be at most one per nanosecond." }
+    this.rateLimiter = TokenBucketRateLimiter(intervalNanos, maxBurst)
+    this.maxWaitNanos = when {
+      maxWait > MAX_WAIT -> MAX_WAIT.toNanos()
+      else -> maxWait.toNanos()
+    }
+  }
+
+  private companion object {
+    val MAX_WAIT: Duration = Duration.ofNanos(Long.MAX_VALUE / 4)
+  }
+}
@@ -0,0 +1,35 @@
+package hr.tjakopan.yarl.ratelimit
+
+import hr.tjakopan.yarl.ExecutionRejectedException
+import java.time.Duration
+
+class RateLimitRejectedException : ExecutionRejectedException {
+  val retryAfter: Duration
+
+  constructor(retryAfter: Duration, message: String, cause: Throwable) : super(message, cause) {
+    this.retryAfter = retryAfter
+  }
+
+  constructor(retryAfter: Duration, message: String) : super(message) {
+    this.retryAfter = retryAfter
+  }
+
+  constructor(retryAfter: Duration, cause: Throwable) : super(cause) {
+    this.retryAfter = retryAfter
+  }
+
+  constructor(retryAfter: Duration) : this(
+    retryAfter,
+    "The rate limit for this policy has been exceeded. Retry after ${retryAfter.toMillis()} ms."
+  )
+
+  constructor(
+    retryAfter: Duration,
+    message: String?,
+    cause: Throwable?,
+    enableSuppression: Boolean,
+    writableStackTrace: Boolean
+  ) : super(message, cause, enableSuppression, writableStackTrace) {
+    this.retryAfter = retryAfter
+  }
+}
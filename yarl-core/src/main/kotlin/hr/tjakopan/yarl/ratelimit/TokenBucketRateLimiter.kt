@@ -0,0 +1,40 @@
+package hr.tjakopan.yarl.ratelimit
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Lock-free token bucket. The whole state is one `nanoTime` stamp: the instant at which the bucket held zero tokens.
+ * Tokens available at `now` are `(now - zeroTime) / interval`, capped at the burst size, so refill is computed lazily
+ * and taking a token is a single CAS advancing the stamp by one interval.
+ */
+@ThreadSafe
+internal class TokenBucketRateLimiter(private val intervalNanos: Long, maxBurst: Int) {
+  private val capacityNanos: Long = when {
+    intervalNanos > Long.MAX_VALUE / 4 / maxBurst -> Long.MAX_VALUE / 4
+    else -> intervalNanos * maxBurst
+  }
+  private val zeroTime = AtomicLong(System.nanoTime() - capacityNanos)
+
+  /**
+   * Takes a token, reserving a future one if it becomes available within [maxWaitNanos]. Returns how long the caller
+   * must wait before executing; a result greater than [maxWaitNanos] means nothing was taken and is the time until a
+   * token is available.
+   */
+  fun tryAcquire(maxWaitNanos: Long): Long {
+    while (true) {
+      val now = System.nanoTime()
+      val currentZeroTime = zeroTime.get()
+      val fullBucketZeroTime = now - capacityNanos
+      val base = if (currentZeroTime - fullBucketZeroTime > 0) currentZeroTime else fullBucketZeroTime
+      val next = base + intervalNanos
+      val waitNanos = next - now
+      if (waitNanos > maxWaitNanos) {
+        return waitNanos
+      }
+      if (zeroTime.compareAndSet(currentZeroTime, next)) {
+        return maxOf(waitNanos, 0L)
+      }
+    }
+  }
+}
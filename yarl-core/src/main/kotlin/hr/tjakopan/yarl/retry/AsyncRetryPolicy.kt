@@ -1,9 +1,14 @@
 package hr.tjakopan.yarl.retry
 
+import hr.tjakopan.yarl.AsyncExecution
 import hr.tjakopan.yarl.AsyncPolicy
 import hr.tjakopan.yarl.Context
 import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.metrics.PolicyMetrics
+import kotlinx.coroutines.future.await
 import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
 
 class AsyncRetryPolicy<R> internal constructor(policyBuilder: AsyncRetryPolicyBuilder<R>) :
   AsyncPolicy<R, AsyncRetryPolicyBuilder<R>>(policyBuilder), IRetryPolicy {
@@ -12,11 +17,24 @@ class AsyncRetryPolicy<R> internal constructor(policyBuilder: AsyncRetryPolicyBu
     fun <R> builder() = AsyncRetryPolicyBuilder<R>()
   }
 
-  private val onRetry: suspend (DelegateResult<R>, Duration, Int, Context) -> Unit = policyBuilder.onRetry
+  private val onRetry: suspend (DelegateResult<R>, Duration, Int, Context) -> Unit = when (val metrics = metrics) {
+    null -> policyBuilder.onRetry
+    else -> recordingRetries(metrics, policyBuilder.onRetry)
+  }
   private val permittedRetryCount: Int = policyBuilder.permittedRetryCount
-  private val sleepDurationsIterable: Iterable<Duration> = policyBuilder.sleepDurationsIterable
+  private val sleepDurations: SleepDurationSchedule = SleepDurationSchedule(policyBuilder.sleepDurationsIterable)
   private val sleepDurationProvider: ((Int, DelegateResult<R>, Context) -> Duration)? =
     policyBuilder.sleepDurationProvider
+  private val sleeper: Sleeper = policyBuilder.sleeper
+  private val retryBudget: RetryBudget? = policyBuilder.retryBudget
+
+  private fun recordingRetries(
+    metrics: PolicyMetrics,
+    onRetry: suspend (DelegateResult<R>, Duration, Int, Context) -> Unit
+  ): suspend (DelegateResult<R>, Duration, Int, Context) -> Unit = { outcome, duration, attempt, context ->
+    metrics.recordRetry(attempt)
+    onRetry(outcome, duration, attempt, context)
+  }
 
   @JvmSynthetic
   override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
@@ -27,7 +45,59 @@ class AsyncRetryPolicy<R> internal constructor(policyBuilder: AsyncRetryPolicyBu
       resultPredicates,
       onRetry,
       permittedRetryCount,
-      sleepDurationsIterable,
-      sleepDurationProvider
+      sleepDurations,
+      sleepDurationProvider,
+      sleeper,
+      retryBudget
+    )
+
+  /**
+   * Makes the first attempt inline; a coroutine is only started once the outcome has to be retried.
+   */
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> {
+    retryBudget?.deposit()
+    val future = CompletableFuture<R>()
+    val firstAttempt = AsyncExecution.invoke(action, context)
+    AsyncExecution.forwardCancellation(future, firstAttempt)
+    firstAttempt.whenComplete { result, e ->
+      if (future.isDone) {
+        return@whenComplete
+      }
+      val outcome: DelegateResult<R> = when (e) {
+        null -> DelegateResult.success(result)
+        else -> DelegateResult.runCatching(exceptionPredicates) { throw AsyncExecution.unwrap(e) }
+      }
+      when {
+        outcome.isSuccess && !resultPredicates.anyMatch(result) -> future.complete(result)
+        e != null && exceptionPredicates.firstMatchOrNull(AsyncExecution.unwrap(e)) == null ->
+          future.completeExceptionally(AsyncExecution.unwrap(e))
+        else -> AsyncExecution.relay(AsyncExecution.bridge(executor) { retry(context, action, outcome) }, future)
+      }
+    }
+    return future
+  }
+
+  private suspend fun retry(
+    context: Context,
+    action: (Context) -> CompletableFuture<R>,
+    firstOutcome: DelegateResult<R>
+  ): R =
+    RetryEngine.implementation(
+      { ctx -> action(ctx).await() },
+      context,
+      exceptionPredicates,
+      resultPredicates,
+      onRetry,
+      permittedRetryCount,
+      sleepDurations,
+      sleepDurationProvider,
+      sleeper,
+      retryBudget,
+      firstOutcome
     )
 }
@@ -5,6 +5,7 @@ import hr.tjakopan.yarl.DelegateResult
 import kotlinx.coroutines.future.await
 import java.time.Duration
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
 
 @JvmSuppressWildcards
 class AsyncRetryPolicyBuilder<R> : RetryPolicyBuilderBase<R, AsyncRetryPolicyBuilder<R>>() {
@@ -146,5 +147,8 @@ class AsyncRetryPolicyBuilder<R> : RetryPolicyBuilderBase<R, AsyncRetryPolicyBui
     return AsyncRetryPolicy(this)
   }
 
+  public override fun defaultExecutor(executor: Executor): AsyncRetryPolicyBuilder<R> =
+    super.defaultExecutor(executor)
+
   override fun self(): AsyncRetryPolicyBuilder<R> = this
 }
@@ -0,0 +1,183 @@
+package hr.tjakopan.yarl.retry
+
+import hr.tjakopan.yarl.annotations.Immutable
+import java.time.Duration
+import java.util.concurrent.ThreadLocalRandom
+import kotlin.math.min
+import kotlin.math.pow
+
+/**
+ * Sleep duration schedules for [RetryPolicyBuilder.waitAndRetry] and [AsyncRetryPolicyBuilder.waitAndRetry].
+ *
+ * Schedules are lazy; each retry computes only its own duration. Jittered schedules draw from [ThreadLocalRandom], so
+ * a single schedule can be shared by any number of concurrent executions while still spreading their retries apart.
+ * Pass [Int.MAX_VALUE] as the retry count for a schedule that never runs out.
+ *
+ * With `fastFirst` the first retry is immediate and the schedule starts from the second retry.
+ */
+object Backoff {
+  private val MAX_DELAY: Duration = Duration.ofNanos(Long.MAX_VALUE)
+
+  @JvmStatic
+  @JvmOverloads
+  fun constant(delay: Duration, retryCount: Int, fastFirst: Boolean = false): Iterable<Duration> {
+    requireNonNegative(delay, "Delay")
+    val delayNanos = delay.toNanos()
+    return BackoffIterable(retryCount, fastFirst, delayNanos) { _, _ -> delayNanos }
+  }
+
+  /**
+   * Delay of retry n (zero-based) is `initialDelay * (1 + factor * n)`.
+   */
+  @JvmStatic
+  @JvmOverloads
+  fun linear(
+    initialDelay: Duration,
+    retryCount: Int,
+    factor: Double = 1.0,
+    maxDelay: Duration = MAX_DELAY,
+    fastFirst: Boolean = false
+  ): Iterable<Duration> {
+    requireNonNegative(initialDelay, "Initial delay")
+    require(factor >= 0.0) { "Factor must be greater than or equal to zero." }
+    requireNonNegative(maxDelay, "Max delay")
+    val initialNanos = initialDelay.toNanos().toDouble()
+    val maxNanos = maxDelay.toNanos()
+    return BackoffIterable(retryCount, fastFirst, initialNanos.toLong()) { n, _ ->
+      cap(initialNanos * (1.0 + factor * n), maxNanos)
+    }
+  }
+
+  /**
+   * Delay of retry n (zero-based) is `initialDelay * factor ^ n`, without jitter.
+   */
+  @JvmStatic
+  @JvmOverloads
+  fun exponential(
+    initialDelay: Duration,
+    retryCount: Int,
+    factor: Double = 2.0,
+    maxDelay: Duration = MAX_DELAY,
+    fastFirst: Boolean = false
+  ): Iterable<Duration> {
+    requireNonNegative(initialDelay, "Initial delay")
+    require(factor >= 1.0) { "Factor must be greater than or equal to one." }
+    requireNonNegative(maxDelay, "Max delay")
+    val initialNanos = initialDelay.toNanos().toDouble()
+    val maxNanos = maxDelay.toNanos()
+    return BackoffIterable(retryCount, fastFirst, initialNanos.toLong()) { n, _ ->
+      exponentialNanos(initialNanos, factor, n, maxNanos)
+    }
+  }
+
+  /**
+   * Delay of retry n (zero-based) is uniformly distributed between zero and `min(maxDelay, baseDelay * 2 ^ n)`.
+   */
+  @JvmStatic
+  @JvmOverloads
+  fun fullJitter(
+    baseDelay: Duration,
+    retryCount: Int,
+    maxDelay: Duration = MAX_DELAY,
+    fastFirst: Boolean = false
+  ): Iterable<Duration> {
+    requireNonNegative(baseDelay, "Base delay")
+    requireNonNegative(maxDelay, "Max delay")
+    val baseNanos = baseDelay.toNanos().toDouble()
+    val maxNanos = maxDelay.toNanos()
+    return BackoffIterable(retryCount, fastFirst, baseNanos.toLong()) { n, _ ->
+      randomNanos(0L, exponentialNanos(baseNanos, 2.0, n, maxNanos))
+    }
+  }
+
+  /**
+   * Delay of retry n (zero-based) is half of `min(maxDelay, baseDelay * 2 ^ n)` plus a uniformly distributed amount up
+   * to the other half.
+   */
+  @JvmStatic
+  @JvmOverloads
+  fun equalJitter(
+    baseDelay: Duration,
+    retryCount: Int,
+    maxDelay: Duration = MAX_DELAY,
+    fastFirst: Boolean = false
+  ): Iterable<Duration> {
+    requireNonNegative(baseDelay, "Base delay")
+    requireNonNegative(maxDelay, "Max delay")
+    val baseNanos = baseDelay.toNanos().toDouble()
+    val maxNanos = maxDelay.toNanos()
+    return BackoffIterable(retryCount, fastFirst, baseNanos.toLong()) { n, _ ->
+      val half = exponentialNanos(baseNanos, 2.0, n, maxNanos) / 2
+      half + randomNanos(0L, half)
+    }
+  }
+
+  /**
+   * Delay of each retry is uniformly distributed between `baseDelay` and three times the previous delay, capped at
+   * `maxDelay`.
+   */
+  @JvmStatic
+  @JvmOverloads
+  fun decorrelatedJitter(
+    baseDelay: Duration,
+    retryCount: Int,
+    maxDelay: Duration = MAX_DELAY,
+    fastFirst: Boolean = false
+  ): Iterable<Duration> {
+    requireNonNegative(baseDelay, "Base delay")
+    requireNonNegative(maxDelay, "Max delay")
+    require(maxDelay >= baseDelay) { "Max delay must be greater than or equal to base delay." }
+    val baseNanos = baseDelay.toNanos()
+    val maxNanos = maxDelay.toNanos()
+    return BackoffIterable(retryCount, fastFirst, baseNanos) { _, previousNanos ->
+      min(maxNanos, randomNanos(baseNanos, cap(previousNanos * 3.0, Long.MAX_VALUE)))
+    }
+  }
+
+  private fun requireNonNegative(duration: Duration, name: String) =
+    require(!duration.isNegative) { "$name must be greater than or equal to zero." }
+
+  private fun cap(nanos: Double, maxNanos: Long): Long = min(nanos, maxNanos.toDouble()).toLong()
+
+  private fun exponentialNanos(initialNanos: Double, factor: Double, n: Int, maxNanos: Long): Long = when {
+    initialNanos == 0.0 -> 0L
+    else -> cap(initialNanos * factor.pow(n), maxNanos)
+  }
+
+  private fun randomNanos(origin: Long, bound: Long): Long = when {
+    bound <= origin -> origin
+    else -> origin + (ThreadLocalRandom.current().nextDouble() * (bound - origin)).toLong()
+  }
+
+  /**
+   * @param initialNanos seed for the previous delay passed to [delayNanos] on the first computed retry
+   * @param delayNanos computes the delay of retry n (zero-based, not counting a fast first retry) from the previous one
+   */
+  @Immutable
+  private class BackoffIterable(
+    private val retryCount: Int,
+    private val fastFirst: Boolean,
+    private val initialNanos: Long,
+    private val delayNanos: (Int, Long) -> Long
+  ) : Iterable<Duration> {
+    init {
+      require(retryCount >= 0) { "Retry count must be greater than or equal to zero." }
+    }
+
+    override fun iterator(): Iterator<Duration> = object : Iterator<Duration> {
+      private var retry = 0
+      private var previousNanos = initialNanos
+
+      override fun hasNext(): Boolean = retry < retryCount
+
+      override fun next(): Duration {
+        if (!hasNext()) throw NoSuchElementException()
+        val n = if (fastFirst) retry - 1 else retry
+        retry++
+        if (n < 0) return Duration.ZERO
+        previousNanos = delayNanos(n, previousNanos)
+        return Duration.ofNanos(previousNanos)
+      }
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package hr.tjakopan.yarl.retry
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import hr.tjakopan.yarl.utilities.RollingCounters
+import java.time.Duration
+
+/**
+ * Caps retries to a fraction of first attempts, shared by every retry policy it is attached to.
+ *
+ * Each execution deposits one first attempt; each retry withdraws from the budget and is refused once retries within
+ * [window] exceed `retryRatio` times the first attempts plus a reserve of `minRetriesPerSecond` for low traffic. A
+ * refused retry surfaces the last outcome as if the policy had run out of retries.
+ *
+ * Attempts and retries are kept in [RollingCounters], so a deposit costs a single counter increment. A withdrawal counts
+ * its retry before checking the budget and takes it back if refused, so concurrent retries cannot all pass on the same
+ * sums.
+ *
+ * @param retryRatio retries allowed per first attempt, e.g. `0.1` for 10% extra load
+ * @param minRetriesPerSecond retries allowed regardless of the ratio, so that low traffic can still retry
+ * @param window duration over which attempts and retries are counted
+ */
+@ThreadSafe
+class RetryBudget @JvmOverloads constructor(
+  private val retryRatio: Double,
+  minRetriesPerSecond: Int = 10,
+  window: Duration = Duration.ofSeconds(10)
+) {
+  private companion object {
+    const val ATTEMPTS = 0
+    const val RETRIES = 1
+    const val NANOS_PER_SECOND = 1_000_000_000.0
+  }
+
+  init {
+    require(retryRatio >= 0.0) { "Retry ratio must be greater than or equal to zero." }
+    require(minRetriesPerSecond >= 0) { "Min retries per second must be greater than or equal to zero." }
+    require(window > Duration.ZERO) { "Window must be greater than zero." }
+  }
+
+  private val reserve: Double = minRetriesPerSecond * (window.toNanos() / NANOS_PER_SECOND)
+  private val counters = RollingCounters(window, 2)
+
+  @JvmSynthetic
+  internal fun deposit() = counters.increment(ATTEMPTS)
+
+  @JvmSynthetic
+  internal fun tryWithdraw(): Boolean {
+    val retries = counters.current(RETRIES)
+    retries?.increment()
+    // A retry dropped at a bucket rollover is not in the sum, but still has to fit in the budget.
+    val uncounted = if (retries == null) 1 else 0
+    if (counters.sum(RETRIES) + uncounted > retryRatio * counters.sum(ATTEMPTS) + reserve) {
+      retries?.decrement()
+      return false
+    }
+    return true
+  }
+}
@@ -6,7 +6,6 @@ import hr.tjakopan.yarl.Context
 import hr.tjakopan.yarl.DelegateResult
 import hr.tjakopan.yarl.ExceptionPredicates
 import hr.tjakopan.yarl.ResultPredicates
-import kotlinx.coroutines.delay
 import kotlinx.coroutines.yield
 import java.time.Duration
 
@@ -16,9 +15,9 @@ internal object RetryEngine {
     tryCount: Int,
     permittedRetryCount: Int,
     sleepDurationsIterator: Iterator<Duration>,
-    sleepDurationsCount: Int
+    sleepDurations: SleepDurationSchedule
   ): Boolean =
-    tryCount < permittedRetryCount && (sleepDurationsIterator.hasNext() || sleepDurationsCount == 0)
+    tryCount < permittedRetryCount && (sleepDurations.isEmpty || sleepDurationsIterator.hasNext())
 
   @JvmSynthetic
   fun <R> shouldHandleResult(result: R, shouldRetryResultPredicates: ResultPredicates<R>): Boolean =
@@ -36,15 +35,18 @@ internal object RetryEngine {
     shouldRetryResultPredicates: ResultPredicates<R>,
     onRetry: (DelegateResult<R>, Duration, Int, Context) -> Unit,
     permittedRetryCount: Int = Int.MAX_VALUE,
-    sleepDurationsIterable: Iterable<Duration> = listOf(),
-    sleepDurationProvider: ((Int, DelegateResult<R>, Context) -> Duration)? = null
+    sleepDurations: SleepDurationSchedule = SleepDurationSchedule.NONE,
+    sleepDurationProvider: ((Int, DelegateResult<R>, Context) -> Duration)? = null,
+    sleeper: Sleeper = Sleeper.SYSTEM,
+    retryBudget: RetryBudget? = null
   ): R {
     var tryCount = 0
-    val sleepDurationsIterator = sleepDurationsIterable.iterator()
+    val sleepDurationsIterator = sleepDurations.iterator()
+    retryBudget?.deposit()
 
     while (true) {
       val outcome = DelegateResult.runCatching(shouldRetryExceptionPredicates) { action(context) }
-      val canRetry = canRetry(tryCount, permittedRetryCount, sleepDurationsIterator, sleepDurationsIterable.count())
+      val canRetry = canRetry(tryCount, permittedRetryCount, sleepDurationsIterator, sleepDurations)
 
       if (!canRetry) {
         return outcome.getOrThrow()
@@ -61,6 +63,10 @@ internal object RetryEngine {
           }
         }
 
+      if (retryBudget != null && !retryBudget.tryWithdraw()) {
+        return outcome.getOrThrow()
+      }
+
       if (tryCount < Int.MAX_VALUE) {
         tryCount++
       }
@@ -71,7 +77,7 @@ internal object RetryEngine {
       }
       onRetry(outcome, waitDuration, tryCount, context)
       if (waitDuration > Duration.ZERO) {
-        Thread.sleep(waitDuration.toMillis())
+        sleeper.sleep(waitDuration)
       }
     }
   }
@@ -84,16 +90,26 @@ internal object RetryEngine {
     shouldRetryResultPredicates: ResultPredicates<R>,
     onRetry: suspend (DelegateResult<R>, Duration, Int, Context) -> Unit,
     permittedRetryCount: Int = Int.MAX_VALUE,
-    sleepDurationsIterable: Iterable<Duration> = listOf(),
-    sleepDurationProvider: ((Int, DelegateResult<R>, Context) -> Duration)? = null
+    sleepDurations: SleepDurationSchedule = SleepDurationSchedule.NONE,
+    sleepDurationProvider: ((Int, DelegateResult<R>, Context) -> Duration)? = null,
+    sleeper: Sleeper = Sleeper.SYSTEM,
+    retryBudget: RetryBudget? = null,
+    firstOutcome: DelegateResult<R>? = null
   ): R {
     var tryCount = 0
-    val sleepDurationsIterator = sleepDurationsIterable.iterator()
+    val sleepDurationsIterator = sleepDurations.iterator()
+    var pendingOutcome = firstOutcome
+    if (pendingOutcome == null) {
+      retryBudget?.deposit()
+    }
 
     while (true) {
-      yield()
-      val outcome = DelegateResult.runCatching(shouldRetryExceptionPredicates) { action(context) }
-      val canRetry = canRetry(tryCount, permittedRetryCount, sleepDurationsIterator, sleepDurationsIterable.count())
+      val outcome = pendingOutcome ?: run {
+        yield()
+        DelegateResult.runCatching(shouldRetryExceptionPredicates) { action(context) }
+      }
+      pendingOutcome = null
+      val canRetry = canRetry(tryCount, permittedRetryCount, sleepDurationsIterator, sleepDurations)
 
       if (!canRetry) {
         return outcome.getOrThrow()
@@ -110,6 +126,10 @@ internal object RetryEngine {
           }
         }
 
+      if (retryBudget != null && !retryBudget.tryWithdraw()) {
+        return outcome.getOrThrow()
+      }
+
       if (tryCount < Int.MAX_VALUE) {
         tryCount++
       }
@@ -121,7 +141,7 @@ internal object RetryEngine {
       yield()
       onRetry(outcome, waitDuration, tryCount, context)
       if (waitDuration > Duration.ZERO) {
-        delay(waitDuration.toMillis())
+        sleeper.delay(waitDuration)
       }
     }
   }
@@ -3,6 +3,7 @@ package hr.tjakopan.yarl.retry
 import hr.tjakopan.yarl.Context
 import hr.tjakopan.yarl.DelegateResult
 import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.metrics.PolicyMetrics
 import java.time.Duration
 
 class RetryPolicy<R> internal constructor(policyBuilder: RetryPolicyBuilder<R>) :
@@ -12,11 +13,24 @@ class RetryPolicy<R> internal constructor(policyBuilder: RetryPolicyBuilder<R>)
     fun <R> builder(): RetryPolicyBuilder<R> = RetryPolicyBuilder()
   }
 
-  private val onRetry: (DelegateResult<R>, Duration, Int, Context) -> Unit = policyBuilder.onRetry
+  private val onRetry: (DelegateResult<R>, Duration, Int, Context) -> Unit = when (val metrics = metrics) {
+    null -> policyBuilder.onRetry
+    else -> recordingRetries(metrics, policyBuilder.onRetry)
+  }
   private val permittedRetryCount: Int = policyBuilder.permittedRetryCount
-  private val sleepDurationsIterable: Iterable<Duration> = policyBuilder.sleepDurationsIterable
+  private val sleepDurations: SleepDurationSchedule = SleepDurationSchedule(policyBuilder.sleepDurationsIterable)
   private val sleepDurationProvider: ((Int, DelegateResult<R>, Context) -> Duration)? =
     policyBuilder.sleepDurationProvider
+  private val sleeper: Sleeper = policyBuilder.sleeper
+  private val retryBudget: RetryBudget? = policyBuilder.retryBudget
+
+  private fun recordingRetries(
+    metrics: PolicyMetrics,
+    onRetry: (DelegateResult<R>, Duration, Int, Context) -> Unit
+  ): (DelegateResult<R>, Duration, Int, Context) -> Unit = { outcome, duration, attempt, context ->
+    metrics.recordRetry(attempt)
+    onRetry(outcome, duration, attempt, context)
+  }
 
   override fun implementation(context: Context, action: (Context) -> R): R = RetryEngine.implementation(
     action,
@@ -25,7 +39,9 @@ class RetryPolicy<R> internal constructor(policyBuilder: RetryPolicyBuilder<R>)
     resultPredicates,
     onRetry,
     permittedRetryCount,
-    sleepDurationsIterable,
-    sleepDurationProvider
+    sleepDurations,
+    sleepDurationProvider,
+    sleeper,
+    retryBudget
   )
 }
@@ -15,4 +15,20 @@ abstract class RetryPolicyBuilderBase<R, out B : RetryPolicyBuilderBase<R, B>> p
 
   @JvmSynthetic
   internal var sleepDurationProvider: ((Int, DelegateResult<R>, Context) -> Duration)? = null
+
+  @JvmSynthetic
+  internal var sleeper: Sleeper = Sleeper.SYSTEM
+
+  fun sleeper(sleeper: Sleeper): B {
+    this.sleeper = sleeper
+    return self()
+  }
+
+  @JvmSynthetic
+  internal var retryBudget: RetryBudget? = null
+
+  fun retryBudget(retryBudget: RetryBudget): B {
+    this.retryBudget = retryBudget
+    return self()
+  }
 }
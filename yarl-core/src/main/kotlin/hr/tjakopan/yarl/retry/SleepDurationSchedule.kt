@@ -0,0 +1,36 @@
+package hr.tjakopan.yarl.retry
+
+import hr.tjakopan.yarl.annotations.Immutable
+import java.time.Duration
+
+/**
+ * Sleep durations of a retry policy, characterised once when the policy is built.
+ *
+ * Collections are snapshotted so that the schedule cannot change under a running policy. Any other iterable is
+ * treated as a stream, which may be infinite, and is only ever walked one element per attempt.
+ */
+@Immutable
+internal class SleepDurationSchedule(sleepDurations: Iterable<Duration>) {
+  companion object {
+    @JvmSynthetic
+    val NONE: SleepDurationSchedule = SleepDurationSchedule(emptyList())
+  }
+
+  private val sleepDurations: Iterable<Duration> = when (sleepDurations) {
+    is Collection<Duration> -> sleepDurations.toList()
+    else -> sleepDurations
+  }
+
+  /**
+   * `true` when there are no sleep durations, in which case the number of retries is governed by the permitted retry
+   * count alone.
+   */
+  @JvmSynthetic
+  val isEmpty: Boolean = !this.sleepDurations.iterator().hasNext()
+
+  @JvmSynthetic
+  fun iterator(): Iterator<Duration> = when {
+    isEmpty -> emptyList<Duration>().iterator()
+    else -> sleepDurations.iterator()
+  }
+}
@@ -0,0 +1,78 @@
+package hr.tjakopan.yarl.retry
+
+import kotlinx.coroutines.future.await
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.LockSupport
+
+/**
+ * Waits out the sleep durations between retries.
+ *
+ * Replace the [SYSTEM] sleeper to run retry policies without real time passing, e.g. in tests or simulations. Sync
+ * retry policies wait with [sleep] and async retry policies with [delayAsync], so implement both to take real time out
+ * of either; a sleeper implementing only [sleep] still waits in real time in async retry policies.
+ */
+interface Sleeper {
+  companion object {
+    /**
+     * Parks the calling thread with nanosecond resolution and without holding any monitor, so waiting virtual threads
+     * release their carrier thread.
+     */
+    @JvmField
+    val SYSTEM: Sleeper = SystemSleeper
+  }
+
+  /**
+   * Blocks the calling thread for [duration]; durations too long to count in nanoseconds are waited out as about 73
+   * years.
+   *
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  @Throws(InterruptedException::class)
+  fun sleep(duration: Duration)
+
+  /**
+   * Returns a future completed once [duration], capped like [sleep], has passed, without blocking the calling thread.
+   */
+  fun delayAsync(duration: Duration): CompletableFuture<Void> =
+    CompletableFuture.runAsync({}, CompletableFuture.delayedExecutor(cap(duration).toNanos(), TimeUnit.NANOSECONDS))
+
+  /**
+   * Suspends the calling coroutine until the future of [delayAsync] completes.
+   */
+  @JvmSynthetic
+  suspend fun delay(duration: Duration) {
+    delayAsync(duration).await()
+  }
+}
+
+private const val NANOS_PER_MILLI = 1_000_000
+
+/**
+ * Longest wait, kept well below [Long.MAX_VALUE] nanoseconds so the deadline does not overflow either.
+ */
+private val MAX_SLEEP: Duration = Duration.ofNanos(Long.MAX_VALUE / 4)
+
+private fun cap(duration: Duration): Duration = if (duration > MAX_SLEEP) MAX_SLEEP else duration
+
+private object SystemSleeper : Sleeper {
+  override fun sleep(duration: Duration) {
+    var remaining = cap(duration).toNanos()
+    val deadline = System.nanoTime() + remaining
+    while (remaining > 0) {
+      LockSupport.parkNanos(this, remaining)
+      if (Thread.interrupted()) throw InterruptedException()
+      remaining = deadline - System.nanoTime()
+    }
+  }
+
+  /**
+   * Delays with the coroutine dispatcher, rounded up to whole milliseconds, so test dispatchers can skip the wait.
+   */
+  override suspend fun delay(duration: Duration) {
+    val capped = cap(duration)
+    val millis = capped.toMillis()
+    kotlinx.coroutines.delay(if (capped.nano % NANOS_PER_MILLI != 0) millis + 1 else millis)
+  }
+}
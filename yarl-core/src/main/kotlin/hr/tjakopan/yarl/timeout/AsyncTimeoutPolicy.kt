@@ -0,0 +1,27 @@
+package hr.tjakopan.yarl.timeout
+
+import hr.tjakopan.yarl.AsyncPolicy
+import hr.tjakopan.yarl.Context
+import java.time.Duration
+
+class AsyncTimeoutPolicy<R> internal constructor(policyBuilder: AsyncTimeoutPolicyBuilder<R>) :
+  AsyncPolicy<R, AsyncTimeoutPolicyBuilder<R>>(policyBuilder), ITimeoutPolicy {
+  companion object AsyncTimeoutPolicy {
+    @JvmStatic
+    fun <R> builder(): AsyncTimeoutPolicyBuilder<R> = AsyncTimeoutPolicyBuilder()
+  }
+
+  override val timeout: Duration = policyBuilder.timeout
+  override val timeoutStrategy: TimeoutStrategy = policyBuilder.timeoutStrategy
+  private val onTimeout: suspend (Context, Duration) -> Unit = policyBuilder.onTimeout
+
+  @JvmSynthetic
+  override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
+    TimeoutEngine.implementation(
+      action,
+      context,
+      timeout,
+      timeoutStrategy,
+      onTimeout
+    )
+}
@@ -0,0 +1,49 @@
+package hr.tjakopan.yarl.timeout
+
+import hr.tjakopan.yarl.Context
+import kotlinx.coroutines.future.await
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+@JvmSuppressWildcards
+class AsyncTimeoutPolicyBuilder<R> : TimeoutPolicyBuilderBase<R, AsyncTimeoutPolicyBuilder<R>>() {
+  @JvmSynthetic
+  internal var onTimeout: suspend (Context, Duration) -> Unit = { _, _ -> }
+
+  @JvmSynthetic
+  fun timeout(
+    timeout: Duration,
+    timeoutStrategy: TimeoutStrategy = TimeoutStrategy.OPTIMISTIC,
+    onTimeout: suspend (Context, Duration) -> Unit = { _, _ -> }
+  ): AsyncTimeoutPolicy<R> {
+    configureTimeout(timeout, timeoutStrategy)
+    this.onTimeout = onTimeout
+    return AsyncTimeoutPolicy(this)
+  }
+
+  @JvmSynthetic
+  fun timeout(timeout: Duration, onTimeout: suspend (Context, Duration) -> Unit): AsyncTimeoutPolicy<R> =
+    timeout(timeout, TimeoutStrategy.OPTIMISTIC, onTimeout)
+
+  @JvmName("timeout")
+  @JvmOverloads
+  fun timeoutAsync(
+    timeout: Duration,
+    timeoutStrategy: TimeoutStrategy = TimeoutStrategy.OPTIMISTIC,
+    onTimeout: (Context, Duration) -> CompletableFuture<Unit> = { _, _ -> CompletableFuture.completedFuture(Unit) }
+  ): AsyncTimeoutPolicy<R> =
+    timeout(timeout, timeoutStrategy) { context, duration -> onTimeout(context, duration).await() }
+
+  @JvmName("timeout")
+  fun timeoutAsync(
+    timeout: Duration,
+    onTimeout: (Context, Duration) -> CompletableFuture<Unit>
+  ): AsyncTimeoutPolicy<R> =
+    timeoutAsync(timeout, TimeoutStrategy.OPTIMISTIC, onTimeout)
+
+  public override fun defaultExecutor(executor: Executor): AsyncTimeoutPolicyBuilder<R> =
+    super.defaultExecutor(executor)
+
+  override fun self(): AsyncTimeoutPolicyBuilder<R> = this
+}
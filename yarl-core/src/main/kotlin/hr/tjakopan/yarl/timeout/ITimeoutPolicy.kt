@@ -0,0 +1,9 @@
+package hr.tjakopan.yarl.timeout
+
+import hr.tjakopan.yarl.IPolicy
+import java.time.Duration
+
+interface ITimeoutPolicy : IPolicy {
+  val timeout: Duration
+  val timeoutStrategy: TimeoutStrategy
+}
@@ -0,0 +1,7 @@
+package hr.tjakopan.yarl.timeout
+
+import hr.tjakopan.yarl.Policy
+
+fun <R> Policy.Policy.timeout(): TimeoutPolicyBuilder<R> = TimeoutPolicyBuilder()
+
+fun <R> Policy.Policy.asyncTimeout(): AsyncTimeoutPolicyBuilder<R> = AsyncTimeoutPolicyBuilder()
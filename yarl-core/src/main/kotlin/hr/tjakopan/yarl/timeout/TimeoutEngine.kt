@@ -0,0 +1,159 @@
+package hr.tjakopan.yarl.timeout
+
+import hr.tjakopan.yarl.AsyncExecutors
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.utilities.HashedTimerWheel
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import kotlin.coroutines.coroutineContext
+
+internal object TimeoutEngine {
+  private const val TIMEOUT_MESSAGE = "The delegate executed through TimeoutPolicy did not complete within the timeout."
+
+  // Completes the walked-away-from execution; recognised by type so that coroutine stack trace recovery copies match.
+  private class PessimisticTimeout : Throwable(TIMEOUT_MESSAGE, null, false, false)
+
+  val defaultPessimisticExecutor: Executor
+    get() = AsyncExecutors.blockingExecutor
+
+  @JvmSynthetic
+  fun <R> implementation(
+    action: (Context) -> R,
+    context: Context,
+    timeout: Duration,
+    timeoutStrategy: TimeoutStrategy,
+    executor: Executor,
+    onTimeout: (Context, Duration) -> Unit
+  ): R = when (timeoutStrategy) {
+    TimeoutStrategy.OPTIMISTIC -> optimisticImplementation(action, context, timeout, onTimeout)
+    TimeoutStrategy.PESSIMISTIC -> pessimisticImplementation(action, context, timeout, executor, onTimeout)
+  }
+
+  // Cooperative: the executing thread is interrupted when the timeout elapses.
+  private fun <R> optimisticImplementation(
+    action: (Context) -> R,
+    context: Context,
+    timeout: Duration,
+    onTimeout: (Context, Duration) -> Unit
+  ): R {
+    val thread = Thread.currentThread()
+    val timer = HashedTimerWheel.SHARED.schedule(timeout) { thread.interrupt() }
+    try {
+      return action(context)
+    } catch (e: Throwable) {
+      if (timer.isExpired) {
+        onTimeout(context, timeout)
+        throw TimeoutRejectedException(TIMEOUT_MESSAGE, e)
+      }
+      throw e
+    } finally {
+      if (!timer.cancel()) {
+        timer.awaitExpiration()
+        Thread.interrupted()
+      }
+    }
+  }
+
+  // Walks away: the action runs on the executor and the caller stops waiting when the timeout elapses.
+  private fun <R> pessimisticImplementation(
+    action: (Context) -> R,
+    context: Context,
+    timeout: Duration,
+    executor: Executor,
+    onTimeout: (Context, Duration) -> Unit
+  ): R {
+    val outcome = CompletableFuture<R>()
+    val timer = HashedTimerWheel.SHARED.schedule(timeout) { outcome.completeExceptionally(PessimisticTimeout()) }
+    executor.execute {
+      try {
+        outcome.complete(action(context))
+      } catch (e: Throwable) {
+        outcome.completeExceptionally(e)
+      }
+    }
+    try {
+      return outcome.get()
+    } catch (e: ExecutionException) {
+      val cause = e.cause ?: e
+      if (cause is PessimisticTimeout) {
+        onTimeout(context, timeout)
+        throw TimeoutRejectedException(TIMEOUT_MESSAGE)
+      }
+      throw cause
+    } finally {
+      timer.cancel()
+    }
+  }
+
+  @JvmSynthetic
+  suspend fun <R> implementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    timeout: Duration,
+    timeoutStrategy: TimeoutStrategy,
+    onTimeout: suspend (Context, Duration) -> Unit
+  ): R = when (timeoutStrategy) {
+    TimeoutStrategy.OPTIMISTIC -> optimisticImplementation(action, context, timeout, onTimeout)
+    TimeoutStrategy.PESSIMISTIC -> pessimisticImplementation(action, context, timeout, onTimeout)
+  }
+
+  // Cooperative: the action's scope is cancelled when the timeout elapses.
+  private suspend fun <R> optimisticImplementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    timeout: Duration,
+    onTimeout: suspend (Context, Duration) -> Unit
+  ): R {
+    var timer: HashedTimerWheel.Timeout? = null
+    try {
+      return coroutineScope {
+        val scopeJob = coroutineContext[Job]!!
+        timer = HashedTimerWheel.SHARED.schedule(timeout) { scopeJob.cancel(CancellationException(TIMEOUT_MESSAGE)) }
+        action(context)
+      }
+    } catch (e: CancellationException) {
+      if (timer?.isExpired == true) {
+        onTimeout(context, timeout)
+        throw TimeoutRejectedException(TIMEOUT_MESSAGE, e)
+      }
+      throw e
+    } finally {
+      timer?.cancel()
+    }
+  }
+
+  // Walks away: the action runs in its own coroutine, which is cancelled but not awaited when the timeout elapses.
+  private suspend fun <R> pessimisticImplementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    timeout: Duration,
+    onTimeout: suspend (Context, Duration) -> Unit
+  ): R {
+    val outcome = CompletableDeferred<R>()
+    val timer = HashedTimerWheel.SHARED.schedule(timeout) { outcome.completeExceptionally(PessimisticTimeout()) }
+    val job = CoroutineScope(coroutineContext.minusKey(Job)).launch {
+      try {
+        outcome.complete(action(context))
+      } catch (e: Throwable) {
+        outcome.completeExceptionally(e)
+      }
+    }
+    try {
+      return outcome.await()
+    } catch (e: PessimisticTimeout) {
+      onTimeout(context, timeout)
+      throw TimeoutRejectedException(TIMEOUT_MESSAGE)
+    } finally {
+      timer.cancel()
+      job.cancel()
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package hr.tjakopan.yarl.timeout
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.Policy
+import java.time.Duration
+import java.util.concurrent.Executor
+
+class TimeoutPolicy<R> internal constructor(policyBuilder: TimeoutPolicyBuilder<R>) :
+  Policy<R, TimeoutPolicyBuilder<R>>(policyBuilder), ITimeoutPolicy {
+  companion object TimeoutPolicy {
+    @JvmStatic
+    fun <R> builder(): TimeoutPolicyBuilder<R> = TimeoutPolicyBuilder()
+  }
+
+  override val timeout: Duration = policyBuilder.timeout
+  override val timeoutStrategy: TimeoutStrategy = policyBuilder.timeoutStrategy
+  private val executor: Executor = policyBuilder.executor ?: TimeoutEngine.defaultPessimisticExecutor
+  private val onTimeout: (Context, Duration) -> Unit = policyBuilder.onTimeout
+
+  override fun implementation(context: Context, action: (Context) -> R): R = TimeoutEngine.implementation(
+    action,
+    context,
+    timeout,
+    timeoutStrategy,
+    executor,
+    onTimeout
+  )
+}
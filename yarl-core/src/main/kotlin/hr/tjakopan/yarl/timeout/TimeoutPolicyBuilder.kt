@@ -0,0 +1,35 @@
+package hr.tjakopan.yarl.timeout
+
+import hr.tjakopan.yarl.Context
+import java.time.Duration
+import java.util.concurrent.Executor
+
+@JvmSuppressWildcards
+class TimeoutPolicyBuilder<R> : TimeoutPolicyBuilderBase<R, TimeoutPolicyBuilder<R>>() {
+  @JvmSynthetic
+  internal var onTimeout: (Context, Duration) -> Unit = { _, _ -> }
+
+  @JvmSynthetic
+  internal var executor: Executor? = null
+
+  fun executor(executor: Executor): TimeoutPolicyBuilder<R> {
+    this.executor = executor
+    return self()
+  }
+
+  @JvmOverloads
+  fun timeout(
+    timeout: Duration,
+    timeoutStrategy: TimeoutStrategy = TimeoutStrategy.OPTIMISTIC,
+    onTimeout: (Context, Duration) -> Unit = { _, _ -> }
+  ): TimeoutPolicy<R> {
+    configureTimeout(timeout, timeoutStrategy)
+    this.onTimeout = onTimeout
+    return TimeoutPolicy(this)
+  }
+
+  fun timeout(timeout: Duration, onTimeout: (Context, Duration) -> Unit): TimeoutPolicy<R> =
+    timeout(timeout, TimeoutStrategy.OPTIMISTIC, onTimeout)
+
+  override fun self(): TimeoutPolicyBuilder<R> = this
+}
@@ -0,0 +1,20 @@
+package hr.tjakopan.yarl.timeout
+
+import hr.tjakopan.yarl.PolicyBuilder
+import java.time.Duration
+
+abstract class TimeoutPolicyBuilderBase<R, out B : TimeoutPolicyBuilderBase<R, B>> protected constructor() :
+  PolicyBuilder<R, B>() {
+  @JvmSynthetic
+  internal lateinit var timeout: Duration
+
+  @JvmSynthetic
+  internal var timeoutStrategy: TimeoutStrategy = TimeoutStrategy.OPTIMISTIC
+
+  @JvmSynthetic
+  internal fun configureTimeout(timeout: Duration, timeoutStrategy: TimeoutStrategy) {
+    require(timeout > Duration.ZERO) { "Timeout must be greater than zero." }
+    this.timeout = timeout
+    this.timeoutStrategy = timeoutStrategy
+  }
+}
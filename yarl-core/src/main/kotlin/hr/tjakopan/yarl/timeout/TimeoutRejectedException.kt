@@ -0,0 +1,16 @@
+package hr.tjakopan.yarl.timeout
+
+import hr.tjakopan.yarl.ExecutionRejectedException
+
+class TimeoutRejectedException : ExecutionRejectedException {
+  constructor(message: String, cause: Throwable) : super(message, cause)
+  constructor(message: String) : super(message)
+  constructor(cause: Throwable) : super(cause)
+  constructor() : this("The delegate executed through TimeoutPolicy did not complete within the timeout.")
+  constructor(message: String?, cause: Throwable?, enableSuppression: Boolean, writableStackTrace: Boolean) : super(
+    message,
+    cause,
+    enableSuppression,
+    writableStackTrace
+  )
+}
@@ -0,0 +1,6 @@
+package hr.tjakopan.yarl.timeout
+
+enum class TimeoutStrategy {
+  OPTIMISTIC,
+  PESSIMISTIC
+}
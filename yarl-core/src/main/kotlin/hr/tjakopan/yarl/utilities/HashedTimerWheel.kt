@@ -0,0 +1,224 @@
+package hr.tjakopan.yarl.utilities
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.time.Duration
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.LockSupport
+
+/**
+ * A hashed timer wheel driven by a single daemon thread. Scheduling and cancelling only enqueue onto lock-free
+ * queues; the worker thread owns the buckets, so each pending timeout costs one small node and no thread. Expiry
+ * tasks run on the worker thread and must be short and non-blocking.
+ */
+@ThreadSafe
+internal class HashedTimerWheel(tickDuration: Duration, ticksPerWheel: Int, private val threadName: String) {
+  internal companion object {
+    private const val MAX_TIMEOUTS_TRANSFERRED_PER_TICK = 100_000
+    private const val MAX_DELAY_NANOS = Long.MAX_VALUE / 4
+
+    @JvmSynthetic
+    internal val SHARED: HashedTimerWheel by lazy { HashedTimerWheel(Duration.ofMillis(10), 512, "yarl-timer") }
+  }
+
+  private val tickNanos: Long = tickDuration.toNanos()
+  private val wheel: Array<Bucket>
+  private val mask: Int
+  private val pendingTimeouts = ConcurrentLinkedQueue<Timeout>()
+  private val cancelledTimeouts = ConcurrentLinkedQueue<Timeout>()
+  private val started = AtomicBoolean()
+  private val startTimeInitialized = CountDownLatch(1)
+
+  @Volatile
+  private var startTime: Long = 0L
+
+  init {
+    require(tickNanos > 0) { "Tick duration must be greater than zero." }
+    require(ticksPerWheel > 0) { "Ticks per wheel must be greater than zero." }
+    var normalizedTicksPerWheel = 1
+    while (normalizedTicksPerWheel < ticksPerWheel) {
+      normalizedTicksPerWheel = normalizedTicksPerWheel shl 1
+    }
+    wheel = Array(normalizedTicksPerWheel) { Bucket() }
+    mask = normalizedTicksPerWheel - 1
+  }
+
+  fun schedule(delay: Duration, task: Runnable): Timeout = when {
+    delay > Duration.ofNanos(MAX_DELAY_NANOS) -> schedule(MAX_DELAY_NANOS, task)
+    else -> schedule(delay.toNanos(), task)
+  }
+
+  fun schedule(delayNanos: Long, task: Runnable): Timeout {
+    start()
+    val deadline = System.nanoTime() - startTime + delayNanos.coerceIn(0L, MAX_DELAY_NANOS)
+    val timeout = Timeout(this, task, deadline)
+    pendingTimeouts.add(timeout)
+    return timeout
+  }
+
+  private fun start() {
+    if (started.compareAndSet(false, true)) {
+      val worker = Thread(Worker(), threadName)
+      worker.isDaemon = true
+      worker.start()
+    }
+    while (startTime == 0L) {
+      startTimeInitialized.await()
+    }
+  }
+
+  private inner class Worker : Runnable {
+    private var tick: Long = 0L
+
+    override fun run() {
+      startTime = System.nanoTime().let { if (it == 0L) 1L else it }
+      startTimeInitialized.countDown()
+
+      while (true) {
+        waitForNextTick()
+        removeCancelledTimeouts()
+        transferPendingTimeoutsToBuckets()
+        wheel[(tick and mask.toLong()).toInt()].expireTimeouts()
+        tick++
+      }
+    }
+
+    private fun waitForNextTick() {
+      val deadline = tickNanos * (tick + 1)
+      while (true) {
+        val sleepNanos = deadline - (System.nanoTime() - startTime)
+        if (sleepNanos <= 0) {
+          return
+        }
+        LockSupport.parkNanos(this, sleepNanos)
+      }
+    }
+
+    private fun removeCancelledTimeouts() {
+      while (true) {
+        val timeout = cancelledTimeouts.poll() ?: return
+        timeout.bucket?.remove(timeout)
+      }
+    }
+
+    private fun transferPendingTimeoutsToBuckets() {
+      for (i in 0 until MAX_TIMEOUTS_TRANSFERRED_PER_TICK) {
+        val timeout = pendingTimeouts.poll() ?: return
+        if (timeout.isCancelled) {
+          continue
+        }
+        val calculatedTick = timeout.deadline / tickNanos
+        timeout.remainingRounds = (calculatedTick - tick) / wheel.size
+        val ticks = maxOf(calculatedTick, tick)
+        wheel[(ticks and mask.toLong()).toInt()].add(timeout)
+      }
+    }
+  }
+
+  internal class Bucket {
+    private var head: Timeout? = null
+    private var tail: Timeout? = null
+
+    fun add(timeout: Timeout) {
+      timeout.bucket = this
+      if (head == null) {
+        head = timeout
+        tail = timeout
+      } else {
+        tail!!.next = timeout
+        timeout.prev = tail
+        tail = timeout
+      }
+    }
+
+    fun expireTimeouts() {
+      var timeout = head
+      while (timeout != null) {
+        val next = timeout.next
+        when {
+          timeout.remainingRounds <= 0 -> {
+            remove(timeout)
+            timeout.expire()
+          }
+          timeout.isCancelled -> remove(timeout)
+          else -> timeout.remainingRounds--
+        }
+        timeout = next
+      }
+    }
+
+    fun remove(timeout: Timeout) {
+      if (timeout.bucket !== this) {
+        return
+      }
+      val prev = timeout.prev
+      val next = timeout.next
+      if (prev != null) prev.next = next else head = next
+      if (next != null) next.prev = prev else tail = prev
+      timeout.prev = null
+      timeout.next = null
+      timeout.bucket = null
+    }
+  }
+
+  @ThreadSafe
+  class Timeout internal constructor(
+    private val timerWheel: HashedTimerWheel,
+    private val task: Runnable,
+    internal val deadline: Long
+  ) {
+    private companion object {
+      const val ST_INIT = 0
+      const val ST_CANCELLED = 1
+      const val ST_EXPIRING = 2
+      const val ST_EXPIRED = 3
+    }
+
+    private val state = AtomicInteger(ST_INIT)
+
+    // Owned by the worker thread.
+    internal var bucket: Bucket? = null
+    internal var prev: Timeout? = null
+    internal var next: Timeout? = null
+    internal var remainingRounds: Long = 0L
+
+    val isCancelled: Boolean
+      get() = state.get() == ST_CANCELLED
+
+    val isExpired: Boolean
+      get() = state.get() >= ST_EXPIRING
+
+    fun cancel(): Boolean {
+      if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+        return false
+      }
+      timerWheel.cancelledTimeouts.add(this)
+      return true
+    }
+
+    /**
+     * Waits until the expiry task has finished running, for callers that lost the race to [cancel] and need its side
+     * effects to have happened.
+     */
+    fun awaitExpiration() {
+      while (state.get() == ST_EXPIRING) {
+        Thread.onSpinWait()
+      }
+    }
+
+    internal fun expire() {
+      if (!state.compareAndSet(ST_INIT, ST_EXPIRING)) {
+        return
+      }
+      try {
+        task.run()
+      } catch (e: Throwable) {
+        Thread.currentThread().uncaughtExceptionHandler?.uncaughtException(Thread.currentThread(), e)
+      } finally {
+        state.set(ST_EXPIRED)
+      }
+    }
+  }
+}
@@ -1,8 +1,14 @@
 package hr.tjakopan.yarl.utilities
 
-import java.util.*
+import hr.tjakopan.yarl.Context
 
 internal object KeyHelper {
+  private const val GUID_PART_BIT = 0x1_0000_0000L
+
+  /**
+   * First eight hex digits of an id from [Context.idGenerator].
+   */
   @JvmSynthetic
-  internal fun guidPart(): String = UUID.randomUUID().toString().substring(0, 8)
+  internal fun guidPart(): String =
+    java.lang.Long.toHexString((Context.idGenerator.nextId().mostSignificantBits ushr 32) or GUID_PART_BIT).substring(1)
 }
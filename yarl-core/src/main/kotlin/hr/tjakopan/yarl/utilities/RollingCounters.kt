@@ -0,0 +1,72 @@
+package hr.tjakopan.yarl.utilities
+
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * [counterCount] counters summed over a rolling [duration] split into fixed time buckets.
+ *
+ * Each bucket is tagged with the epoch it counts for and is recycled with a CAS when time moves past it; counts use
+ * striped [LongAdder]s, so counting costs a single increment. Counts racing with a bucket rollover may be dropped, so
+ * sums are approximate by design.
+ */
+@ThreadSafe
+internal class RollingCounters(duration: Duration, counterCount: Int) {
+  private companion object {
+    const val NUMBER_OF_BUCKETS = 10
+    const val NO_EPOCH = Long.MIN_VALUE
+  }
+
+  private class Bucket(counterCount: Int) {
+    val epoch = AtomicLong(NO_EPOCH)
+    val counters = Array(counterCount) { LongAdder() }
+  }
+
+  private val bucketDurationNanos: Long = maxOf(1L, duration.toNanos() / NUMBER_OF_BUCKETS)
+  private val buckets = Array(NUMBER_OF_BUCKETS) { Bucket(counterCount) }
+
+  fun increment(counter: Int) {
+    current(counter)?.increment()
+  }
+
+  /**
+   * [counter] of the current bucket, or `null` while another thread recycles the bucket.
+   */
+  fun current(counter: Int): LongAdder? = currentBucket()?.counters?.get(counter)
+
+  fun sum(counter: Int): Long {
+    val oldestEpoch = currentEpoch() - NUMBER_OF_BUCKETS + 1
+    var sum = 0L
+    for (bucket in buckets) {
+      if (bucket.epoch.get() >= oldestEpoch) {
+        sum += bucket.counters[counter].sum()
+      }
+    }
+    return sum
+  }
+
+  fun reset() {
+    for (bucket in buckets) {
+      bucket.epoch.set(NO_EPOCH)
+      bucket.counters.forEach(LongAdder::reset)
+    }
+  }
+
+  private fun currentEpoch(): Long = Math.floorDiv(System.nanoTime(), bucketDurationNanos)
+
+  private fun currentBucket(): Bucket? {
+    val epoch = currentEpoch()
+    val bucket = buckets[Math.floorMod(epoch, NUMBER_OF_BUCKETS.toLong()).toInt()]
+    val bucketEpoch = bucket.epoch.get()
+    if (bucketEpoch == epoch) {
+      return bucket
+    }
+    if (bucketEpoch < epoch && bucket.epoch.compareAndSet(bucketEpoch, epoch)) {
+      bucket.counters.forEach(LongAdder::reset)
+      return bucket
+    }
+    return if (bucket.epoch.get() == epoch) bucket else null
+  }
+}
@@ -1,8 +1,12 @@
 package hr.tjakopan.yarl.wrap
 
+import hr.tjakopan.yarl.AsyncExecution
 import hr.tjakopan.yarl.AsyncPolicy
 import hr.tjakopan.yarl.Context
 import hr.tjakopan.yarl.IAsyncPolicy
+import hr.tjakopan.yarl.IPolicy
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
 
 class AsyncWrapPolicy<R> internal constructor(policyBuilder: AsyncWrapPolicyBuilder<R>) :
   AsyncPolicy<R, AsyncWrapPolicyBuilder<R>>(policyBuilder), IWrapPolicy {
@@ -14,6 +18,17 @@ class AsyncWrapPolicy<R> internal constructor(policyBuilder: AsyncWrapPolicyBuil
   override val outer: IAsyncPolicy<R> = policyBuilder.outer
   override val inner: IAsyncPolicy<R> = policyBuilder.inner
 
+  private val pipeline: Array<IAsyncPolicy<R>>? = when {
+    policyBuilder.compiled -> WrapEngine.compile(outer, inner)
+    else -> null
+  }
+
+  private val policyIndex: PolicyIndex = PolicyIndex(this)
+
+  override fun getPolicies(): Iterable<IPolicy> = policyIndex.policies
+
+  override fun <P : IPolicy> getPolicies(policyClass: Class<P>): Iterable<P> = policyIndex.policiesOf(policyClass)
+
   override suspend fun execute(context: Context, action: suspend (Context) -> R): R {
     val priorPolicyWrapKey = context.policyWrapKey
     context.policyWrapKey = policyKey
@@ -25,5 +40,27 @@ class AsyncWrapPolicy<R> internal constructor(policyBuilder: AsyncWrapPolicyBuil
   }
 
   override suspend fun implementation(context: Context, action: suspend (Context) -> R): R =
-    WrapEngine.implementation(action, context, outer, inner)
+    when (pipeline) {
+      null -> WrapEngine.implementation(action, context, outer, inner)
+      else -> WrapEngine.implementation(action, context, pipeline)
+    }
+
+  @JvmSynthetic
+  override fun implementationAsync(
+    context: Context,
+    executor: Executor,
+    action: (Context) -> CompletableFuture<R>
+  ): CompletableFuture<R> {
+    val priorPolicyWrapKey = context.policyWrapKey
+    context.policyWrapKey = policyKey
+    val future: CompletableFuture<R> = try {
+      when (pipeline) {
+        null -> WrapEngine.implementationAsync(action, context, executor, outer, inner)
+        else -> WrapEngine.implementationAsync(action, context, executor, pipeline)
+      }
+    } catch (e: Throwable) {
+      CompletableFuture.failedFuture(e)
+    }
+    return AsyncExecution.afterCompletion(future) { context.policyWrapKey = priorPolicyWrapKey }
+  }
 }
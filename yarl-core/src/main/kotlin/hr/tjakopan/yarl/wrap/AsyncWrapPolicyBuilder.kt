@@ -2,6 +2,7 @@ package hr.tjakopan.yarl.wrap
 
 import hr.tjakopan.yarl.IAsyncPolicy
 import hr.tjakopan.yarl.PolicyBuilder
+import java.util.concurrent.Executor
 
 @JvmSuppressWildcards
 class AsyncWrapPolicyBuilder<R> : PolicyBuilder<R, AsyncWrapPolicyBuilder<R>>() {
@@ -11,6 +12,21 @@ class AsyncWrapPolicyBuilder<R> : PolicyBuilder<R, AsyncWrapPolicyBuilder<R>>()
   @JvmSynthetic
   internal lateinit var inner: IAsyncPolicy<R>
 
+  @JvmSynthetic
+  internal var compiled: Boolean = false
+
+  /**
+   * Flattens the wrap into a single pipeline of its policies when it is built. Policies inside the wrap all see the
+   * key of the outermost wrap as [hr.tjakopan.yarl.Context.policyWrapKey]; nested wraps are not executed.
+   *
+   * This only saves the overhead of the nested wraps themselves. Every execution still allocates one stage per policy
+   * in the pipeline, as many objects as the nested wraps allocate for their inner actions.
+   */
+  fun compiled(): AsyncWrapPolicyBuilder<R> {
+    this.compiled = true
+    return self()
+  }
+
   fun wrap(outerPolicy: IAsyncPolicy<R>, innerPolicy: IAsyncPolicy<R>): AsyncWrapPolicy<R> {
     this.outer = outerPolicy
     this.inner = innerPolicy
@@ -27,5 +43,8 @@ class AsyncWrapPolicyBuilder<R> : PolicyBuilder<R, AsyncWrapPolicyBuilder<R>>()
     else -> wrap(policies[0], wrap(*policies.drop(1).toTypedArray()))
   }
 
+  public override fun defaultExecutor(executor: Executor): AsyncWrapPolicyBuilder<R> =
+    super.defaultExecutor(executor)
+
   override fun self(): AsyncWrapPolicyBuilder<R> = this
 }
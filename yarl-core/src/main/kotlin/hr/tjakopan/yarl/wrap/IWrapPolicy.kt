@@ -26,32 +26,26 @@ interface IWrapPolicy : IPolicy {
 
   @JvmSynthetic
   fun <P : IPolicy> getPolicies(policyClass: KClass<P>): Iterable<P> =
-    getPolicies().filterIsInstance(policyClass.java)
+    getPolicies(policyClass.java)
 
   fun <P : IPolicy> getPolicies(policyClass: Class<P>, filter: (P) -> Boolean): Iterable<P> =
-    getPolicies().filterIsInstance(policyClass)
-      .filter(filter)
+    getPolicies(policyClass).filter(filter)
 
   @JvmSynthetic
   fun <P : IPolicy> getPolicies(policyClass: KClass<P>, filter: (P) -> Boolean): Iterable<P> =
-    getPolicies().filterIsInstance(policyClass.java)
-      .filter(filter)
+    getPolicies(policyClass.java).filter(filter)
 
   fun <P : IPolicy> getPolicy(policyClass: Class<P>): P? =
-    getPolicies().filterIsInstance(policyClass)
-      .firstOrNull()
+    getPolicies(policyClass).firstOrNull()
 
   @JvmSynthetic
   fun <P : IPolicy> getPolicy(policyClass: KClass<P>): P? =
-    getPolicies().filterIsInstance(policyClass.java)
-      .firstOrNull()
+    getPolicies(policyClass.java).firstOrNull()
 
   fun <P : IPolicy> getPolicy(policyClass: Class<P>, filter: (P) -> Boolean): P? =
-    getPolicies().filterIsInstance(policyClass)
-      .firstOrNull(filter)
+    getPolicies(policyClass).firstOrNull(filter)
 
   @JvmSynthetic
   fun <P : IPolicy> getPolicy(policyClass: KClass<P>, filter: (P) -> Boolean): P? =
-    getPolicies().filterIsInstance(policyClass.java)
-      .firstOrNull(filter)
+    getPolicies(policyClass.java).firstOrNull(filter)
 }
@@ -0,0 +1,37 @@
+package hr.tjakopan.yarl.wrap
+
+import hr.tjakopan.yarl.IPolicy
+import hr.tjakopan.yarl.annotations.ThreadSafe
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Flattened policies of an immutable wrap, computed once, with the policies of each requested class indexed on first
+ * lookup. All lists handed out are unmodifiable.
+ */
+@ThreadSafe
+internal class PolicyIndex(wrap: IWrapPolicy) {
+  val policies: List<IPolicy> = Collections.unmodifiableList(flatten(wrap))
+
+  private val policiesByClass = ConcurrentHashMap<Class<*>, List<IPolicy>>()
+
+  fun <P : IPolicy> policiesOf(policyClass: Class<P>): List<P> {
+    val indexed = policiesByClass.computeIfAbsent(policyClass) { _ ->
+      Collections.unmodifiableList(policies.filter { policyClass.isInstance(it) })
+    }
+    @Suppress("UNCHECKED_CAST")
+    return indexed as List<P>
+  }
+
+  private fun flatten(wrap: IWrapPolicy): List<IPolicy> {
+    val flattened = ArrayList<IPolicy>()
+    for (childPolicy in arrayOf(wrap.outer, wrap.inner)) {
+      if (childPolicy is IWrapPolicy) {
+        flattened.addAll(childPolicy.getPolicies())
+      } else {
+        flattened.add(childPolicy)
+      }
+    }
+    return flattened
+  }
+}
@@ -1,8 +1,11 @@
 package hr.tjakopan.yarl.wrap
 
+import hr.tjakopan.yarl.AsyncExecution
 import hr.tjakopan.yarl.Context
 import hr.tjakopan.yarl.IAsyncPolicy
 import hr.tjakopan.yarl.ISyncPolicy
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
 
 internal object WrapEngine {
   @JvmSynthetic
@@ -20,4 +23,112 @@ internal object WrapEngine {
     outerPolicy: IAsyncPolicy<R>,
     innerPolicy: IAsyncPolicy<R>
   ): R = outerPolicy.execute(context) { ctx -> innerPolicy.execute(ctx, action) }
+
+  /**
+   * Runs [action] through a compiled [pipeline], outermost policy first, without going through nested wraps.
+   *
+   * The stages are linked once per execution, innermost first, so policies that run their action again, such as
+   * retries, reuse the stage they were given instead of allocating a new one per attempt. Every stage is immutable,
+   * because pessimistic timeouts and hedging may still be running one attempt of a stage while starting the next.
+   */
+  @JvmSynthetic
+  fun <R> implementation(action: (Context) -> R, context: Context, pipeline: Array<ISyncPolicy<R>>): R {
+    var stage = action
+    for (index in pipeline.size - 1 downTo 1) {
+      stage = Stage(pipeline[index], stage)
+    }
+    return pipeline[0].execute(context, stage)
+  }
+
+  @JvmSynthetic
+  suspend fun <R> implementation(
+    action: suspend (Context) -> R,
+    context: Context,
+    pipeline: Array<IAsyncPolicy<R>>
+  ): R {
+    var stage = action
+    for (index in pipeline.size - 1 downTo 1) {
+      // Suspend function types cannot be implemented by a class, so the stage is a lambda over the same two values.
+      val policy = pipeline[index]
+      val next = stage
+      stage = { ctx -> policy.execute(ctx, next) }
+    }
+    return pipeline[0].execute(context, stage)
+  }
+
+  @JvmSynthetic
+  fun <R> implementationAsync(
+    action: (Context) -> CompletableFuture<R>,
+    context: Context,
+    executor: Executor,
+    outerPolicy: IAsyncPolicy<R>,
+    innerPolicy: IAsyncPolicy<R>
+  ): CompletableFuture<R> = AsyncExecution.executeFuture(outerPolicy, context, executor) { ctx ->
+    AsyncExecution.executeFuture(innerPolicy, ctx, executor, action)
+  }
+
+  @JvmSynthetic
+  fun <R> implementationAsync(
+    action: (Context) -> CompletableFuture<R>,
+    context: Context,
+    executor: Executor,
+    pipeline: Array<IAsyncPolicy<R>>
+  ): CompletableFuture<R> {
+    var stage = action
+    for (index in pipeline.size - 1 downTo 1) {
+      stage = AsyncStage(pipeline[index], executor, stage)
+    }
+    return AsyncExecution.executeFuture(pipeline[0], context, executor, stage)
+  }
+
+  /**
+   * Flattens nested wraps into the policies they execute, outermost first.
+   */
+  @JvmSynthetic
+  fun <R> compile(outerPolicy: ISyncPolicy<R>, innerPolicy: ISyncPolicy<R>): Array<ISyncPolicy<R>> {
+    val pipeline = mutableListOf<ISyncPolicy<R>>()
+    fun add(policy: ISyncPolicy<R>) {
+      if (policy is WrapPolicy<R>) {
+        add(policy.outer)
+        add(policy.inner)
+      } else {
+        pipeline.add(policy)
+      }
+    }
+    add(outerPolicy)
+    add(innerPolicy)
+    return pipeline.toTypedArray()
+  }
+
+  @JvmSynthetic
+  fun <R> compile(outerPolicy: IAsyncPolicy<R>, innerPolicy: IAsyncPolicy<R>): Array<IAsyncPolicy<R>> {
+    val pipeline = mutableListOf<IAsyncPolicy<R>>()
+    fun add(policy: IAsyncPolicy<R>) {
+      if (policy is AsyncWrapPolicy<R>) {
+        add(policy.outer)
+        add(policy.inner)
+      } else {
+        pipeline.add(policy)
+      }
+    }
+    add(outerPolicy)
+    add(innerPolicy)
+    return pipeline.toTypedArray()
+  }
+
+  /**
+   * Runs [policy] around [next], the stage of the policy inside it or the action itself.
+   */
+  private class Stage<R>(private val policy: ISyncPolicy<R>, private val next: (Context) -> R) : (Context) -> R {
+    override fun invoke(context: Context): R = policy.execute(context, next)
+  }
+
+  private class AsyncStage<R>(
+    private val policy: IAsyncPolicy<R>,
+    private val executor: Executor,
+    private val next: (Context) -> CompletableFuture<R>
+  ) : (Context) -> CompletableFuture<R> {
+    override fun invoke(context: Context): CompletableFuture<R> =
+      AsyncExecution.executeFuture(policy, context, executor, next)
+  }
 }
@@ -1,6 +1,7 @@
 package hr.tjakopan.yarl.wrap
 
 import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.IPolicy
 import hr.tjakopan.yarl.ISyncPolicy
 import hr.tjakopan.yarl.Policy
 
@@ -14,6 +15,17 @@ class WrapPolicy<R> internal constructor(policyBuilder: WrapPolicyBuilder<R>) :
   override val outer: ISyncPolicy<R> = policyBuilder.outer
   override val inner: ISyncPolicy<R> = policyBuilder.inner
 
+  private val pipeline: Array<ISyncPolicy<R>>? = when {
+    policyBuilder.compiled -> WrapEngine.compile(outer, inner)
+    else -> null
+  }
+
+  private val policyIndex: PolicyIndex = PolicyIndex(this)
+
+  override fun getPolicies(): Iterable<IPolicy> = policyIndex.policies
+
+  override fun <P : IPolicy> getPolicies(policyClass: Class<P>): Iterable<P> = policyIndex.policiesOf(policyClass)
+
   override fun execute(context: Context, action: (Context) -> R): R {
     val priorPolicyWrapKey = context.policyWrapKey
     context.policyWrapKey = policyKey
@@ -25,5 +37,8 @@ class WrapPolicy<R> internal constructor(policyBuilder: WrapPolicyBuilder<R>) :
   }
 
   override fun implementation(context: Context, action: (Context) -> R): R =
-    WrapEngine.implementation(action, context, outer, inner)
+    when (pipeline) {
+      null -> WrapEngine.implementation(action, context, outer, inner)
+      else -> WrapEngine.implementation(action, context, pipeline)
+    }
 }
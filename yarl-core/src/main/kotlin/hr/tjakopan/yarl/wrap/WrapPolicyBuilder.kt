@@ -11,6 +11,21 @@ class WrapPolicyBuilder<R> : PolicyBuilder<R, WrapPolicyBuilder<R>>() {
   @JvmSynthetic
   internal lateinit var inner: ISyncPolicy<R>
 
+  @JvmSynthetic
+  internal var compiled: Boolean = false
+
+  /**
+   * Flattens the wrap into a single pipeline of its policies when it is built. Policies inside the wrap all see the
+   * key of the outermost wrap as [hr.tjakopan.yarl.Context.policyWrapKey]; nested wraps are not executed.
+   *
+   * This only saves the overhead of the nested wraps themselves. Every execution still allocates one stage per policy
+   * in the pipeline, as many objects as the nested wraps allocate for their inner actions.
+   */
+  fun compiled(): WrapPolicyBuilder<R> {
+    this.compiled = true
+    return self()
+  }
+
   fun wrap(outerPolicy: ISyncPolicy<R>, innerPolicy: ISyncPolicy<R>): WrapPolicy<R> {
     this.outer = outerPolicy
     this.inner = innerPolicy
@@ -0,0 +1,74 @@
+package hr.tjakopan.yarl
+
+import hr.tjakopan.yarl.noop.asyncNoOp
+import hr.tjakopan.yarl.noop.noOp
+import hr.tjakopan.yarl.retry.asyncRetry
+import kotlinx.coroutines.runBlocking
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import kotlin.test.Test
+
+class AsyncExecutorsTest {
+  @Test
+  fun `should run the future api on the executor of the policy`() {
+    val executor = Executors.newSingleThreadExecutor { runnable -> Thread(runnable, "policy-executor") }
+    try {
+      val policy = Policy.asyncRetry<String>()
+        .handle(ArithmeticException::class)
+        .defaultExecutor(executor)
+        .retry(1)
+
+      val threadName = policy.executeAsync { CompletableFuture.completedFuture(Thread.currentThread().name) }.join()
+
+      assertThat(policy.defaultExecutor).isSameAs(executor)
+      assertThat(threadName).isEqualTo("policy-executor")
+    } finally {
+      executor.shutdown()
+    }
+  }
+
+  @Test
+  fun `should fall back to the global default executor`() {
+    val policy = Policy.asyncNoOp<Int>()
+
+    assertThat(policy.defaultExecutor).isSameAs(AsyncExecutors.defaultExecutor)
+  }
+
+  @Test
+  fun `should run a sync policy off the calling thread`() {
+    val caller = Thread.currentThread()
+    val policy = Policy.noOp<Thread>()
+
+    val futureThread = AsyncExecutors.executeBlocking(policy) { Thread.currentThread() }.join()
+    val suspendThread = runBlocking { policy.executeBlocking { Thread.currentThread() } }
+
+    assertThat(futureThread).isNotSameAs(caller)
+    assertThat(suspendThread).isNotSameAs(caller)
+  }
+
+  @Test
+  fun `should fail the future of a sync policy with the unwrapped exception`() {
+    val policy = Policy.noOp<Int>()
+
+    val exception = AsyncExecutors.executeBlocking(policy) { throw ArithmeticException() }
+      .handle { _, e -> e }
+      .join()
+
+    assertThat(exception).isExactlyInstanceOf(ArithmeticException::class.java)
+  }
+
+  @Test
+  fun `should run on virtual threads where supported`() {
+    if (AsyncExecutors.isVirtualThreadSupported) {
+      val isVirtual = Thread::class.java.getMethod("isVirtual")
+      val thread = CompletableFuture.supplyAsync({ Thread.currentThread() }, AsyncExecutors.virtualThreadPerTask()).join()
+
+      assertThat(isVirtual.invoke(thread)).isEqualTo(true)
+    } else {
+      assertThatThrownBy { AsyncExecutors.virtualThreadPerTask() }
+        .isInstanceOf(UnsupportedOperationException::class.java)
+    }
+  }
+}
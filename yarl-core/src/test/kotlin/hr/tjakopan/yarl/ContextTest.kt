@@ -1,6 +1,7 @@
 package hr.tjakopan.yarl
 
 import org.assertj.core.api.Assertions.assertThat
+import java.util.*
 import kotlin.test.Test
 
 class ContextTest {
@@ -45,4 +46,78 @@ class ContextTest {
 
     assertThat(uuid1).isSameAs(uuid2)
   }
+
+  @Test
+  fun `should put get and remove entries`() {
+    val context = Context()
+
+    assertThat(context.put("key1", "value1")).isNull()
+    assertThat(context.put("key1", "value2")).isEqualTo("value1")
+    context["key2"] = "value3"
+
+    assertThat(context.size).isEqualTo(2)
+    assertThat(context["key1"]).isEqualTo("value2")
+    assertThat(context.containsValue("value3")).isTrue()
+    assertThat(context.remove("key1")).isEqualTo("value2")
+    assertThat(context.remove("key1")).isNull()
+    assertThat(context.keys).containsExactly("key2")
+  }
+
+  @Test
+  fun `should keep entries when growing beyond inline entries`() {
+    val context = Context(mapOf("key0" to 0))
+
+    (1 until 20).forEach { context["key$it"] = it }
+    context.remove("key0")
+
+    assertThat(context.size).isEqualTo(19)
+    (1 until 20).forEach { assertThat(context["key$it"]).isEqualTo(it) }
+  }
+
+  @Test
+  fun `should clear entries`() {
+    val context = Context(mapOf("key1" to "value1", "key2" to "value2"))
+
+    context.clear()
+
+    assertThat(context.isEmpty()).isTrue()
+    assertThat(context["key1"]).isNull()
+  }
+
+  @Test
+  fun `should not share data with the passed map`() {
+    val contextData = mutableMapOf<String, Any>("key1" to "value1")
+    val context = Context(contextData)
+
+    context["key2"] = "value2"
+    contextData["key3"] = "value3"
+
+    assertThat(contextData).doesNotContainKey("key2")
+    assertThat(context).doesNotContainKey("key3")
+  }
+
+  @Test
+  fun `should generate correlation id with the configured generator`() {
+    val id = UUID.randomUUID()
+    val priorIdGenerator = Context.idGenerator
+    Context.idGenerator = object : IdGenerator {
+      override fun nextId(): UUID = id
+    }
+    try {
+      assertThat(Context().correlationId).isEqualTo(id)
+    } finally {
+      Context.idGenerator = priorIdGenerator
+    }
+  }
+
+  @Test
+  fun `fast id generator should generate distinct version 4 ids`() {
+    val ids = (1..1000).map { IdGenerator.FAST.nextId() }
+
+    assertThat(ids).doesNotHaveDuplicates()
+    assertThat(ids).allSatisfy {
+      assertThat(it.version()).isEqualTo(4)
+      assertThat(it.variant()).isEqualTo(2)
+    }
+  }
 }
@@ -0,0 +1,50 @@
+package hr.tjakopan.yarl
+
+import org.assertj.core.api.Assertions.assertThat
+import kotlin.test.Test
+
+class ExceptionPredicatesTest {
+  @Test
+  fun `should return null when there are no predicates`() {
+    assertThat(ExceptionPredicates.NONE.firstMatchOrNull(ArithmeticException())).isNull()
+  }
+
+  @Test
+  fun `should match exception by handled type and its subtypes`() {
+    val predicates = ExceptionPredicates() +
+      ExceptionTypePredicate(IllegalStateException::class.java) +
+      ExceptionTypePredicate(RuntimeException::class.java)
+    val exception = IllegalArgumentException()
+
+    assertThat(predicates.firstMatchOrNull(exception)).isSameAs(exception)
+    assertThat(predicates.firstMatchOrNull(exception)).isSameAs(exception)
+    assertThat(predicates.firstMatchOrNull(Exception())).isNull()
+  }
+
+  @Test
+  fun `should return result of first matching predicate in order`() {
+    val cause = ArithmeticException()
+    val exception = IllegalStateException(cause)
+    val causeFirst = ExceptionPredicates() +
+      { e: Throwable -> e.cause } +
+      ExceptionTypePredicate(IllegalStateException::class.java)
+    val typeFirst = ExceptionPredicates() +
+      ExceptionTypePredicate(IllegalStateException::class.java) +
+      { e: Throwable -> e.cause }
+
+    assertThat(causeFirst.firstMatchOrNull(exception)).isSameAs(cause)
+    assertThat(typeFirst.firstMatchOrNull(exception)).isSameAs(exception)
+  }
+
+  @Test
+  fun `should not evaluate predicates after first match`() {
+    var evaluated = false
+    val predicates = ExceptionPredicates() +
+      ExceptionTypePredicate(ArithmeticException::class.java) +
+      { _: Throwable -> evaluated = true; null }
+
+    predicates.firstMatchOrNull(ArithmeticException())
+
+    assertThat(evaluated).isFalse()
+  }
+}
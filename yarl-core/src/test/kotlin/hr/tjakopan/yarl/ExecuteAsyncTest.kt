@@ -0,0 +1,138 @@
+package hr.tjakopan.yarl
+
+import hr.tjakopan.yarl.bulkhead.BulkheadRejectedException
+import hr.tjakopan.yarl.bulkhead.asyncBulkhead
+import hr.tjakopan.yarl.circuitbreaker.BrokenCircuitException
+import hr.tjakopan.yarl.circuitbreaker.asyncCircuitBreaker
+import hr.tjakopan.yarl.noop.asyncNoOp
+import hr.tjakopan.yarl.retry.asyncRetry
+import hr.tjakopan.yarl.wrap.wrap
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.Test
+
+class ExecuteAsyncTest {
+  @Test
+  fun `should complete with the exception of the action rather than a completion exception`() {
+    val policy = Policy.asyncNoOp<Int>()
+      .wrap(Policy.asyncRetry<Int>().handle(ArithmeticException::class).retry(1))
+
+    val future = policy.executeAsync { CompletableFuture.supplyAsync<Int> { throw IllegalStateException() } }
+
+    assertThatThrownBy { future.get() }
+      .isInstanceOf(ExecutionException::class.java)
+      .hasCauseExactlyInstanceOf(IllegalStateException::class.java)
+  }
+
+  @Test
+  fun `should retry a future that completes with a handled exception`() {
+    var attempts = 0
+    val policy = Policy.asyncRetry<Int>()
+      .handle(ArithmeticException::class)
+      .retry(2)
+
+    val result = policy.executeAsync {
+      attempts++
+      when {
+        attempts < 3 -> CompletableFuture.supplyAsync<Int> { throw ArithmeticException() }
+        else -> CompletableFuture.completedFuture(attempts)
+      }
+    }.join()
+
+    assertThat(result).isEqualTo(3)
+  }
+
+  @Test
+  fun `should restore the policy key of the context after the future completes`() {
+    val context = Context()
+    var policyKeyInAction: String? = null
+    val policy = Policy.asyncNoOp<Int>()
+
+    policy.executeAsync(context) { ctx ->
+      policyKeyInAction = ctx.policyKey
+      CompletableFuture.completedFuture(1)
+    }.join()
+
+    assertThat(policyKeyInAction).isEqualTo(policy.policyKey)
+    assertThat(context.policyKey).isNull()
+  }
+
+  @Test
+  fun `should break the circuit through the future api`() {
+    val policy = Policy.asyncCircuitBreaker<Int>()
+      .handle(ArithmeticException::class)
+      .circuitBreaker(1, Duration.ofMinutes(1))
+
+    val failed = policy.executeAndCaptureAsync { CompletableFuture.failedFuture(ArithmeticException()) }.join()
+    val rejected = policy.executeAndCaptureAsync { CompletableFuture.completedFuture(1) }.join()
+
+    assertThat(failed.isFailureWithException).isTrue()
+    assertThat((rejected as PolicyResult.Failure.FailureWithException).finalException)
+      .isInstanceOf(BrokenCircuitException::class.java)
+  }
+
+  @Test
+  fun `should release the bulkhead when the future completes`() {
+    val policy = Policy.asyncBulkhead<Int>().bulkhead(1)
+    val pending = CompletableFuture<Int>()
+    val started = CountDownLatch(1)
+
+    val first = policy.executeAsync {
+      started.countDown()
+      pending
+    }
+    started.await()
+    val second = policy.executeAndCaptureAsync { CompletableFuture.completedFuture(2) }.join()
+    pending.complete(1)
+
+    assertThat(first.join()).isEqualTo(1)
+    assertThat((second as PolicyResult.Failure.FailureWithException).finalException)
+      .isInstanceOf(BulkheadRejectedException::class.java)
+    assertThat(policy.executeAsync { CompletableFuture.completedFuture(3) }.join()).isEqualTo(3)
+  }
+
+  @Test
+  fun `should cancel the future of the action when the returned future is cancelled`() {
+    val pending = CompletableFuture<Int>()
+    val started = CountDownLatch(1)
+    val policy = Policy.asyncRetry<Int>()
+      .handle(ArithmeticException::class)
+      .retry()
+
+    val future = policy.executeAsync {
+      started.countDown()
+      pending
+    }
+    started.await()
+    future.cancel(true)
+
+    assertThat(pending.isCancelled).isTrue()
+  }
+
+  @Test
+  fun `should stop waiting and retrying when the returned future is cancelled`() {
+    val attempts = AtomicInteger()
+    val retried = CountDownLatch(2)
+    val policy = Policy.asyncRetry<Int>()
+      .handle(ArithmeticException::class)
+      .waitAndRetry(1000) { _, _, _ -> Duration.ofMillis(10) }
+
+    val future = policy.executeAsync {
+      attempts.incrementAndGet()
+      retried.countDown()
+      CompletableFuture.failedFuture(ArithmeticException())
+    }
+    retried.await()
+    future.cancel(true)
+    val attemptsWhenCancelled = attempts.get()
+    Thread.sleep(100)
+
+    assertThat(future.isCancelled).isTrue()
+    assertThat(attempts.get()).isLessThanOrEqualTo(attemptsWhenCancelled + 1)
+  }
+}
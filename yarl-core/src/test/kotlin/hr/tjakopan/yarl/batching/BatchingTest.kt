@@ -0,0 +1,136 @@
+package hr.tjakopan.yarl.batching
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.Policy
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatExceptionOfType
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+class BatchingTest {
+  private fun itemContext(item: Int) = Context(mapOf(IBatchingPolicy.ITEM_KEY to item))
+
+  @Test
+  fun `should throw when max batch size is not greater than zero`() {
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.asyncBatching<Int, Int>()
+        .batch(0, Duration.ofMillis(10)) { items -> items }
+    }
+      .withMessageContaining("Max batch size")
+  }
+
+  @Test
+  fun `should execute a batch once it reaches max batch size`() = runBlocking {
+    val batches = CopyOnWriteArrayList<List<Int>>()
+    val policy = Policy.asyncBatching<Int, Int>()
+      .batch(2, Duration.ofMinutes(1)) { items ->
+        batches.add(items)
+        items.map { it * 10 }
+      }
+
+    val results = (1..4).map { item ->
+      async { policy.execute(itemContext(item)) { throw IllegalStateException() } }
+    }.awaitAll()
+
+    assertThat(results).containsExactly(10, 20, 30, 40)
+    assertThat(batches).containsExactly(listOf(1, 2), listOf(3, 4))
+  }
+
+  @Test
+  fun `should execute a partial batch after max linger`() = runBlocking {
+    val batches = CopyOnWriteArrayList<List<Int>>()
+    val policy = Policy.asyncBatching<Int, Int>()
+      .batch(100, Duration.ofMillis(50)) { items ->
+        batches.add(items)
+        items
+      }
+
+    val results = (1..3).map { item -> async { policy.execute(itemContext(item)) { 0 } } }.awaitAll()
+
+    assertThat(results).containsExactly(1, 2, 3)
+    assertThat(batches).containsExactly(listOf(1, 2, 3))
+  }
+
+  @Test
+  fun `should not cut short the linger of items queued after a batch flushed when full`() {
+    val batches = CopyOnWriteArrayList<List<Int>>()
+    val policy = Policy.asyncBatching<Int, Int>()
+      .batch(2, Duration.ofMillis(300)) { items ->
+        batches.add(items)
+        items
+      }
+
+    listOf(1, 2).map { item -> policy.executeAsync(itemContext(item)) { CompletableFuture.completedFuture(0) } }
+      .forEach { it.join() }
+    Thread.sleep(200)
+    val late = policy.executeAsync(itemContext(3)) { CompletableFuture.completedFuture(0) }
+    Thread.sleep(200)
+
+    assertThat(late.isDone).isFalse()
+    assertThat(late.join()).isEqualTo(3)
+    assertThat(batches).containsExactly(listOf(1, 2), listOf(3))
+  }
+
+  @Test
+  fun `should fail every execution of a batch with the exception of the batch function`() = runBlocking {
+    val policy = Policy.asyncBatching<Int, Int>()
+      .batch(2, Duration.ofMinutes(1)) { throw ArithmeticException() }
+
+    val outcomes = (1..2).map { item ->
+      async { runCatching { policy.execute(itemContext(item)) { 0 } } }
+    }.awaitAll()
+
+    assertThat(outcomes.map { it.exceptionOrNull() }).allMatch { it is ArithmeticException }
+  }
+
+  @Test
+  fun `should fail a batch when the batch function returns the wrong number of results`() = runBlocking {
+    val policy = Policy.asyncBatching<Int, Int>()
+      .batch(1, Duration.ofMinutes(1)) { emptyList() }
+
+    val e = assertFailsWith<IllegalStateException> { policy.execute(itemContext(1)) { 0 } }
+
+    assertThat(e.message).contains("0 results for 1 items")
+  }
+
+  @Test
+  fun `should execute the action of an execution without an item`() = runBlocking {
+    val policy = Policy.asyncBatching<Int, Int>()
+      .batch(1, Duration.ofMinutes(1)) { items -> items }
+
+    val result = policy.execute { 42 }
+
+    assertThat(result).isEqualTo(42)
+  }
+
+  @Test
+  fun `should take the item from the item provider`() = runBlocking {
+    val policy = Policy.asyncBatching<String, Int>()
+      .batchItem { it.operationKey }
+      .batch(1, Duration.ofMinutes(1)) { items -> items.map { it.length } }
+
+    val result = policy.execute(Context("item")) { 0 }
+
+    assertThat(result).isEqualTo(4)
+  }
+
+  @Test
+  fun `should batch executions through the future api`() {
+    val policy = Policy.asyncBatching<Int, Int>()
+      .batchAsync(2, Duration.ofMinutes(1)) { items ->
+        CompletableFuture.supplyAsync { items.map { it + 1 } }
+      }
+
+    val first = policy.executeAsync(itemContext(1)) { CompletableFuture.completedFuture(0) }
+    val second = policy.executeAsync(itemContext(2)) { CompletableFuture.completedFuture(0) }
+
+    assertThat(first.join()).isEqualTo(2)
+    assertThat(second.join()).isEqualTo(3)
+  }
+}
@@ -0,0 +1,135 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.Policy
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runBlockingTest
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatExceptionOfType
+import java.time.Duration
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+@ExperimentalCoroutinesApi
+class AdaptiveBulkheadTest {
+  private class RecordingLimit(override val limit: Int) : ConcurrencyLimit {
+    var samples = 0
+    var drops = 0
+
+    override fun onSample(rttNanos: Long, inFlight: Int) {
+      samples++
+    }
+
+    override fun onDrop(inFlight: Int) {
+      drops++
+    }
+  }
+
+  @Test
+  fun `aimd limit should grow while in use and back off on drops`() {
+    val limit = AimdLimit(initialLimit = 4, minLimit = 2, maxLimit = 5, backoffRatio = 0.5)
+
+    limit.onSample(1_000, 1)
+    assertThat(limit.limit).isEqualTo(4)
+    limit.onSample(1_000, 2)
+    limit.onSample(1_000, 5)
+    assertThat(limit.limit).isEqualTo(5)
+    limit.onDrop(5)
+    assertThat(limit.limit).isEqualTo(2)
+    limit.onDrop(2)
+    assertThat(limit.limit).isEqualTo(2)
+  }
+
+  @Test
+  fun `aimd limit should back off when latency exceeds the timeout`() {
+    val limit = AimdLimit(initialLimit = 10, backoffRatio = 0.5, timeout = Duration.ofMillis(1))
+
+    limit.onSample(Duration.ofMillis(2).toNanos(), 10)
+
+    assertThat(limit.limit).isEqualTo(5)
+  }
+
+  @Test
+  fun `gradient limit should shrink when latency rises`() {
+    val limit = GradientLimit(initialLimit = 20)
+    repeat(100) { limit.onSample(Duration.ofMillis(1).toNanos(), 200) }
+    val warmLimit = limit.limit
+
+    repeat(10) { limit.onSample(Duration.ofMillis(10).toNanos(), 200) }
+
+    assertThat(warmLimit).isGreaterThan(20)
+    assertThat(limit.limit).isLessThan(warmLimit)
+  }
+
+  @Test
+  fun `should reject execution beyond the current limit`() {
+    var rejected = false
+    val policy = Policy.bulkhead<Int>()
+      .adaptiveBulkhead(RecordingLimit(1)) { rejected = true }
+
+    assertThatExceptionOfType(BulkheadRejectedException::class.java).isThrownBy {
+      policy.execute { policy.execute { 1 } }
+    }
+    assertThat(rejected).isTrue()
+    assertThat(policy.maxParallelization).isEqualTo(1)
+    assertThat(policy.bulkheadAvailableCount).isEqualTo(1)
+    assertThat(policy.queueAvailableCount).isEqualTo(0)
+  }
+
+  @Test
+  fun `should report handled exceptions as drops and other outcomes as samples`() {
+    val limit = RecordingLimit(1)
+    val policy = Policy.bulkhead<Int>()
+      .handle(ArithmeticException::class)
+      .adaptiveBulkhead(limit)
+
+    policy.execute { 1 }
+    assertFailsWith<ArithmeticException> { policy.execute { throw ArithmeticException() } }
+    assertFailsWith<IllegalStateException> { policy.execute { throw IllegalStateException() } }
+
+    assertThat(limit.samples).isEqualTo(2)
+    assertThat(limit.drops).isEqualTo(1)
+  }
+
+  @Test
+  fun `async policy should reject execution beyond the current limit`() = runBlockingTest {
+    val limit = RecordingLimit(1)
+    val policy = Policy.asyncBulkhead<Int>()
+      .adaptiveBulkhead(limit)
+
+    assertFailsWith<BulkheadRejectedException> { policy.execute { policy.execute { 1 } } }
+    assertThat(policy.execute { 2 }).isEqualTo(2)
+    assertThat(limit.samples).isEqualTo(2)
+  }
+
+  @Test
+  fun `should throw when combined with priority lanes`() {
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.bulkhead<Int>()
+        .priorityLanes(listOf(1, 1))
+        .adaptiveBulkhead()
+    }
+      .withMessageContaining("adaptive bulkhead")
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.asyncBulkhead<Int>()
+        .priorityLanes(listOf(1, 1))
+        .adaptiveBulkhead()
+    }
+      .withMessageContaining("adaptive bulkhead")
+  }
+
+  @Test
+  fun `should throw when combined with max queue wait or adaptive lifo`() {
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.bulkhead<Int>()
+        .adaptiveLifo(Duration.ofMillis(10))
+        .adaptiveBulkhead()
+    }
+      .withMessageContaining("adaptive bulkhead")
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.asyncBulkhead<Int>()
+        .maxQueueWait(Duration.ofSeconds(1))
+        .adaptiveBulkhead()
+    }
+      .withMessageContaining("adaptive bulkhead")
+  }
+}
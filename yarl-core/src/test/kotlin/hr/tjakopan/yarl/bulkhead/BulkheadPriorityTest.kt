@@ -0,0 +1,105 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.Policy
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.runBlockingTest
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatExceptionOfType
+import kotlin.test.Test
+
+@ExperimentalCoroutinesApi
+class BulkheadPriorityTest {
+  @Test
+  fun `should throw when priority lanes are empty`() {
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.bulkhead<Unit>()
+        .priorityLanes(listOf())
+    }
+      .withMessageContaining("Priority lanes")
+  }
+
+  @Test
+  fun `should serve higher priority waiters first`() {
+    val queue = BulkheadQueue(1, 10, listOf(5, 5))
+
+    assertThat(queue.acquire(0)).isSameAs(BulkheadQueue.GRANTED)
+    val low = queue.acquire(1)!!
+    val high = queue.acquire(0)!!
+    queue.release()
+
+    assertThat(high.permit).isCompleted()
+    assertThat(low.permit).isNotDone()
+    queue.release()
+    assertThat(low.permit).isCompleted()
+  }
+
+  @Test
+  fun `should reject when the lane is full`() {
+    val queue = BulkheadQueue(1, 10, listOf(1, 1))
+
+    queue.acquire(1)
+    queue.acquire(1)
+
+    assertThat(queue.acquire(1)).isNull()
+    assertThat(queue.acquire(0)).isNotNull()
+  }
+
+  @Test
+  fun `should reject the lowest priority waiter first when the queue is full`() {
+    val queue = BulkheadQueue(1, 1, listOf(1, 1))
+
+    queue.acquire(0)
+    val low = queue.acquire(1)!!
+    val high = queue.acquire(0)
+
+    assertThat(high).isNotNull()
+    assertThat(low.permit).isCompletedExceptionally()
+    assertThat(queue.acquire(1)).isNull()
+    assertThat(queue.queueAvailableCount).isEqualTo(0)
+  }
+
+  @Test
+  fun `should pass on the permit of a cancelled waiter`() {
+    val queue = BulkheadQueue(1, 10, listOf(5))
+
+    queue.acquire(0)
+    val first = queue.acquire(0)!!
+    val second = queue.acquire(0)!!
+    queue.release()
+    queue.cancel(first)
+
+    assertThat(second.permit).isCompleted()
+    assertThat(queue.availableCount).isEqualTo(0)
+    assertThat(queue.queueAvailableCount).isEqualTo(10)
+  }
+
+  @Test
+  fun `should evict lower priority executions queued in the policy`() = runBlockingTest {
+    var rejected = 0
+    val policy = Policy.asyncBulkhead<Int>()
+      .priorityLanes(listOf(1, 1))
+      .bulkhead(1, 1) { rejected++ }
+    val gate = CompletableDeferred<Unit>()
+
+    launch {
+      policy.execute {
+        gate.await()
+        0
+      }
+    }
+    val low = async {
+      runCatching { policy.execute(Context(mapOf(IBulkheadPolicy.PRIORITY_KEY to 1))) { 1 } }
+    }
+    val high = async { policy.execute(Context(mapOf(IBulkheadPolicy.PRIORITY_KEY to 0))) { 2 } }
+    gate.complete(Unit)
+
+    assertThat(low.await().exceptionOrNull()).isInstanceOf(BulkheadRejectedException::class.java)
+    assertThat(high.await()).isEqualTo(2)
+    assertThat(rejected).isEqualTo(1)
+    assertThat(policy.bulkheadAvailableCount).isEqualTo(1)
+  }
+}
@@ -0,0 +1,94 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.Policy
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatExceptionOfType
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import kotlin.test.Test
+
+class BulkheadQueueWaitTest {
+  @Test
+  fun `should throw when max queue wait is not greater than zero`() {
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.bulkhead<Unit>()
+        .maxQueueWait(Duration.ZERO)
+    }
+      .withMessageContaining("Max queue wait")
+  }
+
+  @Test
+  fun `should reject a waiter queued for longer than the max queue wait`() {
+    val queue = BulkheadQueue(1, 10, listOf(10), maxQueueWait = Duration.ofMillis(50))
+
+    queue.acquire(0)
+    val waiter = queue.acquire(0)!!
+
+    assertThatExceptionOfType(ExecutionException::class.java).isThrownBy { waiter.permit.get(5, TimeUnit.SECONDS) }
+      .withCauseInstanceOf(BulkheadRejectedException::class.java)
+      .withMessageContaining("timed out")
+    assertThat(queue.queueAvailableCount).isEqualTo(10)
+  }
+
+  @Test
+  fun `should serve waiters in arrival order when not congested`() {
+    val queue = BulkheadQueue(1, 10, listOf(10), congestionThreshold = Duration.ofMinutes(1))
+
+    queue.acquire(0)
+    val oldest = queue.acquire(0)!!
+    val newest = queue.acquire(0)!!
+    queue.release()
+
+    assertThat(oldest.permit).isCompleted()
+    assertThat(newest.permit).isNotDone()
+  }
+
+  @Test
+  fun `should serve the newest waiter first when congested`() {
+    val queue = BulkheadQueue(1, 10, listOf(10), congestionThreshold = Duration.ZERO)
+
+    queue.acquire(0)
+    val oldest = queue.acquire(0)!!
+    val newest = queue.acquire(0)!!
+    Thread.sleep(1)
+    queue.release()
+
+    assertThat(newest.permit).isCompleted()
+    assertThat(oldest.permit).isNotDone()
+  }
+
+  @Test
+  fun `should reject a queued execution after the max queue wait and call onBulkheadRejected`() {
+    var rejected = false
+    val policy = Policy.bulkhead<Unit>()
+      .maxQueueWait(Duration.ofMillis(50))
+      .bulkhead(1, 1) { rejected = true }
+    val started = CountDownLatch(1)
+    val release = CountDownLatch(1)
+    val executor = Executors.newSingleThreadExecutor()
+    try {
+      executor.submit {
+        policy.execute {
+          started.countDown()
+          release.await()
+        }
+      }
+      assertThat(started.await(5, TimeUnit.SECONDS)).isTrue()
+
+      assertThatExceptionOfType(BulkheadRejectedException::class.java).isThrownBy {
+        policy.execute { }
+      }
+        .withMessageContaining("timed out")
+      assertThat(rejected).isTrue()
+      assertThat(policy.queueAvailableCount).isEqualTo(1)
+    } finally {
+      release.countDown()
+      executor.shutdown()
+      executor.awaitTermination(5, TimeUnit.SECONDS)
+    }
+    assertThat(policy.bulkheadAvailableCount).isEqualTo(1)
+  }
+}
@@ -0,0 +1,71 @@
+package hr.tjakopan.yarl.bulkhead
+
+import hr.tjakopan.yarl.Policy
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatExceptionOfType
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import kotlin.test.Test
+
+class BulkheadTest {
+  @Test
+  fun `should throw when max parallelization is not greater than zero`() {
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.bulkhead<Unit>()
+        .bulkhead(0)
+    }
+      .withMessageContaining("Max parallelization")
+  }
+
+  @Test
+  fun `should report full capacity when idle`() {
+    val policy = Policy.bulkhead<Unit>()
+      .bulkhead(2, 3)
+
+    assertThat(policy.bulkheadAvailableCount).isEqualTo(2)
+    assertThat(policy.queueAvailableCount).isEqualTo(3)
+  }
+
+  @Test
+  fun `should execute action and release permits`() {
+    val policy = Policy.bulkhead<Int>()
+      .bulkhead(1)
+
+    val result = policy.execute { 42 }
+
+    assertThat(result).isEqualTo(42)
+    assertThat(policy.bulkheadAvailableCount).isEqualTo(1)
+    assertThat(policy.queueAvailableCount).isEqualTo(0)
+  }
+
+  @Test
+  fun `should reject execution and call onBulkheadRejected when bulkhead and queue are full`() {
+    var rejected = false
+    val policy = Policy.bulkhead<Unit>()
+      .bulkhead(1) { rejected = true }
+    val started = CountDownLatch(1)
+    val release = CountDownLatch(1)
+    val executor = Executors.newSingleThreadExecutor()
+    try {
+      executor.submit {
+        policy.execute {
+          started.countDown()
+          release.await()
+        }
+      }
+      assertThat(started.await(5, TimeUnit.SECONDS)).isTrue()
+      assertThat(policy.bulkheadAvailableCount).isEqualTo(0)
+
+      assertThatExceptionOfType(BulkheadRejectedException::class.java).isThrownBy {
+        policy.execute { }
+      }
+      assertThat(rejected).isTrue()
+    } finally {
+      release.countDown()
+      executor.shutdown()
+      executor.awaitTermination(5, TimeUnit.SECONDS)
+    }
+    assertThat(policy.bulkheadAvailableCount).isEqualTo(1)
+  }
+}
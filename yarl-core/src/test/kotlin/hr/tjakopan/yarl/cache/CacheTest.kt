@@ -0,0 +1,188 @@
+package hr.tjakopan.yarl.cache
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.Policy
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runBlockingTest
+import org.assertj.core.api.Assertions.assertThat
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+@ExperimentalCoroutinesApi
+class CacheTest {
+  @Test
+  fun `should return the cached result for the same operation key`() {
+    var executions = 0
+    val policy = Policy.cache<Int>()
+      .cache(MemoryCacheProvider(10), Duration.ofMinutes(1))
+
+    val first = policy.execute(Context("key")) { ++executions }
+    val second = policy.execute(Context("key")) { ++executions }
+
+    assertThat(first).isEqualTo(1)
+    assertThat(second).isEqualTo(1)
+    assertThat(executions).isEqualTo(1)
+  }
+
+  @Test
+  fun `should bypass the cache when an execution has no cache key`() {
+    var executions = 0
+    val policy = Policy.cache<Int>()
+      .cache(MemoryCacheProvider(10), Duration.ofMinutes(1))
+
+    policy.execute { ++executions }
+    policy.execute { ++executions }
+
+    assertThat(executions).isEqualTo(2)
+  }
+
+  @Test
+  fun `should take the cache key from the cache key provider`() {
+    var executions = 0
+    val policy = Policy.cache<Int>()
+      .cacheKey { it["userId"]?.toString() }
+      .cache(MemoryCacheProvider(10), Duration.ofMinutes(1))
+
+    policy.execute(Context(mapOf("userId" to 1))) { ++executions }
+    policy.execute(Context(mapOf("userId" to 1))) { ++executions }
+    policy.execute(Context(mapOf("userId" to 2))) { ++executions }
+
+    assertThat(executions).isEqualTo(2)
+  }
+
+  @Test
+  fun `should use the ttl computed for the result`() {
+    val cacheProvider = RecordingCacheProvider<Int>()
+    val policy = Policy.cache<Int>()
+      .cache(cacheProvider) { _, result -> Duration.ofSeconds(result.toLong()) }
+
+    policy.execute(Context("key")) { 5 }
+
+    assertThat(cacheProvider.ttls).containsExactly(Duration.ofSeconds(5))
+  }
+
+  @Test
+  fun `should not cache a handled exception without a negative ttl`() {
+    var executions = 0
+    val policy = Policy.cache<Int>()
+      .handle(ArithmeticException::class)
+      .cache(MemoryCacheProvider(10), Duration.ofMinutes(1))
+
+    repeat(2) {
+      assertFailsWith<ArithmeticException> {
+        policy.execute(Context("key")) {
+          executions++
+          throw ArithmeticException()
+        }
+      }
+    }
+
+    assertThat(executions).isEqualTo(2)
+  }
+
+  @Test
+  fun `should cache a handled exception for the negative ttl`() {
+    val cacheProvider = RecordingCacheProvider<Int>()
+    var executions = 0
+    val policy = Policy.cache<Int>()
+      .handle(ArithmeticException::class)
+      .negativeTtl(Duration.ofSeconds(5))
+      .cache(cacheProvider, Duration.ofMinutes(1))
+
+    repeat(2) {
+      assertFailsWith<ArithmeticException> {
+        policy.execute(Context("key")) {
+          executions++
+          throw ArithmeticException()
+        }
+      }
+    }
+
+    assertThat(executions).isEqualTo(1)
+    assertThat(cacheProvider.ttls).containsExactly(Duration.ofSeconds(5))
+  }
+
+  @Test
+  fun `should cache a handled result for the negative ttl`() {
+    val cacheProvider = RecordingCacheProvider<Int>()
+    val policy = Policy.cache<Int>()
+      .handleResult(-1)
+      .negativeTtl(Duration.ofSeconds(5))
+      .cache(cacheProvider, Duration.ofMinutes(1))
+
+    policy.execute(Context("key")) { -1 }
+
+    assertThat(cacheProvider.ttls).containsExactly(Duration.ofSeconds(5))
+  }
+
+  @Test
+  fun `should never cache an unhandled exception`() {
+    var executions = 0
+    val policy = Policy.cache<Int>()
+      .handle(ArithmeticException::class)
+      .negativeTtl(Duration.ofSeconds(5))
+      .cache(MemoryCacheProvider(10), Duration.ofMinutes(1))
+
+    repeat(2) {
+      assertFailsWith<IllegalStateException> {
+        policy.execute(Context("key")) {
+          executions++
+          throw IllegalStateException()
+        }
+      }
+    }
+
+    assertThat(executions).isEqualTo(2)
+  }
+
+  @Test
+  fun `should return the cached result of a suspending action`() = runBlockingTest {
+    var executions = 0
+    val policy = Policy.asyncCache<Int>()
+      .cache(MemoryCacheProvider(10), Duration.ofMinutes(1))
+
+    policy.execute(Context("key")) { ++executions }
+    val result = policy.execute(Context("key")) { ++executions }
+
+    assertThat(result).isEqualTo(1)
+    assertThat(executions).isEqualTo(1)
+  }
+
+  @Test
+  fun `should cache the result of a future once it completes`() {
+    var executions = 0
+    val pending = CompletableFuture<Int>()
+    val policy = Policy.asyncCache<Int>()
+      .cache(MemoryCacheProvider(10), Duration.ofMinutes(1))
+
+    val first = policy.executeAsync(Context("key")) {
+      executions++
+      pending
+    }
+    pending.complete(1)
+    first.join()
+    val second = policy.executeAsync(Context("key")) { CompletableFuture.completedFuture(++executions) }
+
+    assertThat(second.join()).isEqualTo(1)
+    assertThat(executions).isEqualTo(1)
+  }
+
+  private class RecordingCacheProvider<R> : CacheProvider<DelegateResult<R>> {
+    private val values = mutableMapOf<String, DelegateResult<R>>()
+    val ttls = mutableListOf<Duration>()
+
+    override fun get(key: String): DelegateResult<R>? = values[key]
+
+    override fun put(key: String, value: DelegateResult<R>, ttl: Duration) {
+      values[key] = value
+      ttls.add(ttl)
+    }
+
+    override fun remove(key: String) {
+      values.remove(key)
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package hr.tjakopan.yarl.cache
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatExceptionOfType
+import java.time.Duration
+import kotlin.test.Test
+
+class MemoryCacheProviderTest {
+  @Test
+  fun `should throw when maximum weight is not greater than zero`() {
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy { MemoryCacheProvider<Int>(0) }
+      .withMessageContaining("Maximum weight")
+  }
+
+  @Test
+  fun `should return a stored value until it expires`() {
+    var now = 0L
+    val provider = MemoryCacheProvider<Int>(10, { _, _ -> 1 }, { now })
+
+    provider.put("key", 1, Duration.ofSeconds(10))
+    val beforeExpiry = provider.get("key")
+    now += Duration.ofSeconds(10).toNanos()
+
+    assertThat(beforeExpiry).isEqualTo(1)
+    assertThat(provider.get("key")).isNull()
+    assertThat(provider.size).isZero()
+  }
+
+  @Test
+  fun `should not store a value with a ttl of zero`() {
+    val provider = MemoryCacheProvider<Int>(10)
+
+    provider.put("key", 1, Duration.ZERO)
+
+    assertThat(provider.get("key")).isNull()
+  }
+
+  @Test
+  fun `should remove a value`() {
+    val provider = MemoryCacheProvider<Int>(10)
+    provider.put("key", 1, Duration.ofMinutes(1))
+
+    provider.remove("key")
+
+    assertThat(provider.get("key")).isNull()
+  }
+
+  @Test
+  fun `should evict down to the maximum weight`() {
+    val provider = MemoryCacheProvider<String>(100, { _, value -> value.length })
+
+    repeat(100) { provider.put("key$it", "value", Duration.ofMinutes(1)) }
+    provider.cleanUp()
+
+    assertThat(provider.size).isEqualTo(20)
+  }
+
+  @Test
+  fun `should keep frequently read values over values read once`() {
+    val provider = MemoryCacheProvider<Int>(20)
+    val hotKeys = (0 until 9).map { "hot$it" }
+    hotKeys.forEach { provider.put(it, 0, Duration.ofMinutes(1)) }
+    repeat(10) { hotKeys.forEach { key -> provider.get(key) } }
+    provider.cleanUp()
+
+    repeat(100) { provider.put("cold$it", 0, Duration.ofMinutes(1)) }
+    provider.cleanUp()
+
+    assertThat(hotKeys.map { provider.get(it) }).doesNotContainNull()
+    assertThat(provider.size).isLessThanOrEqualTo(20)
+  }
+}
@@ -0,0 +1,134 @@
+package hr.tjakopan.yarl.circuitbreaker
+
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.test.helpers.TestResult
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatExceptionOfType
+import java.time.Duration
+import kotlin.test.Test
+
+class CircuitBreakerTest {
+  @Test
+  fun `should throw when handled events allowed before breaking is less than one`() {
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.circuitBreaker<Unit>()
+        .handle(ArithmeticException::class)
+        .circuitBreaker(0, Duration.ofMinutes(1))
+    }
+      .withMessageContaining("Handled events allowed before breaking")
+  }
+
+  @Test
+  fun `should open circuit after specified number of consecutive handled exceptions`() {
+    val policy = Policy.circuitBreaker<Unit>()
+      .handle(ArithmeticException::class)
+      .circuitBreaker(2, Duration.ofMinutes(1))
+
+    assertThatExceptionOfType(ArithmeticException::class.java).isThrownBy { policy.execute { throw ArithmeticException() } }
+    assertThat(policy.circuitState).isEqualTo(CircuitState.CLOSED)
+    assertThatExceptionOfType(ArithmeticException::class.java).isThrownBy { policy.execute { throw ArithmeticException() } }
+    assertThat(policy.circuitState).isEqualTo(CircuitState.OPEN)
+
+    assertThatExceptionOfType(BrokenCircuitException::class.java).isThrownBy { policy.execute { } }
+      .withCauseInstanceOf(ArithmeticException::class.java)
+  }
+
+  @Test
+  fun `should not open circuit when success interrupts consecutive failures`() {
+    val policy = Policy.circuitBreaker<Unit>()
+      .handle(ArithmeticException::class)
+      .circuitBreaker(2, Duration.ofMinutes(1))
+
+    assertThatExceptionOfType(ArithmeticException::class.java).isThrownBy { policy.execute { throw ArithmeticException() } }
+    policy.execute { }
+    assertThatExceptionOfType(ArithmeticException::class.java).isThrownBy { policy.execute { throw ArithmeticException() } }
+
+    assertThat(policy.circuitState).isEqualTo(CircuitState.CLOSED)
+  }
+
+  @Test
+  fun `should not count unhandled exceptions`() {
+    val policy = Policy.circuitBreaker<Unit>()
+      .handle(ArithmeticException::class)
+      .circuitBreaker(1, Duration.ofMinutes(1))
+
+    assertThatExceptionOfType(IllegalArgumentException::class.java)
+      .isThrownBy { policy.execute { throw IllegalArgumentException() } }
+
+    assertThat(policy.circuitState).isEqualTo(CircuitState.CLOSED)
+  }
+
+  @Test
+  fun `should open circuit on handled result and expose it`() {
+    val policy = Policy.circuitBreaker<TestResult>()
+      .handleResult(TestResult.FAULT)
+      .circuitBreaker(1, Duration.ofMinutes(1))
+
+    val result = policy.execute { TestResult.FAULT }
+
+    assertThat(result).isEqualTo(TestResult.FAULT)
+    assertThat(policy.circuitState).isEqualTo(CircuitState.OPEN)
+    assertThat(policy.lastHandledResult).isEqualTo(TestResult.FAULT)
+  }
+
+  @Test
+  fun `should half open after duration of break and close on successful trial`() {
+    var halfOpenCalled = false
+    var resetCalled = false
+    val policy = Policy.circuitBreaker<Unit>()
+      .handle(ArithmeticException::class)
+      .circuitBreaker(1, Duration.ofMillis(50), onReset = { resetCalled = true }, onHalfOpen = { halfOpenCalled = true })
+
+    assertThatExceptionOfType(ArithmeticException::class.java).isThrownBy { policy.execute { throw ArithmeticException() } }
+    Thread.sleep(100)
+
+    assertThat(policy.circuitState).isEqualTo(CircuitState.HALF_OPEN)
+    assertThat(halfOpenCalled).isTrue()
+    policy.execute { }
+    assertThat(policy.circuitState).isEqualTo(CircuitState.CLOSED)
+    assertThat(resetCalled).isTrue()
+  }
+
+  @Test
+  fun `should reopen circuit on failed trial`() {
+    val policy = Policy.circuitBreaker<Unit>()
+      .handle(ArithmeticException::class)
+      .circuitBreaker(1, Duration.ofMillis(50))
+
+    assertThatExceptionOfType(ArithmeticException::class.java).isThrownBy { policy.execute { throw ArithmeticException() } }
+    Thread.sleep(100)
+    assertThatExceptionOfType(ArithmeticException::class.java).isThrownBy { policy.execute { throw ArithmeticException() } }
+
+    assertThat(policy.circuitState).isEqualTo(CircuitState.OPEN)
+  }
+
+  @Test
+  fun `should reject with isolated circuit exception when isolated until reset`() {
+    val policy = Policy.circuitBreaker<Unit>()
+      .handle(ArithmeticException::class)
+      .circuitBreaker(1, Duration.ofMinutes(1))
+
+    policy.isolate()
+
+    assertThat(policy.circuitState).isEqualTo(CircuitState.ISOLATED)
+    assertThatExceptionOfType(IsolatedCircuitException::class.java).isThrownBy { policy.execute { } }
+    policy.reset()
+    assertThat(policy.circuitState).isEqualTo(CircuitState.CLOSED)
+    policy.execute { }
+  }
+
+  @Test
+  fun `advanced circuit breaker should open when failure ratio reaches threshold with minimum throughput`() {
+    val policy = Policy.circuitBreaker<Unit>()
+      .handle(ArithmeticException::class)
+      .advancedCircuitBreaker(0.5, Duration.ofSeconds(10), 4, Duration.ofMinutes(1))
+
+    policy.execute { }
+    policy.execute { }
+    assertThatExceptionOfType(ArithmeticException::class.java).isThrownBy { policy.execute { throw ArithmeticException() } }
+    assertThat(policy.circuitState).isEqualTo(CircuitState.CLOSED)
+    assertThatExceptionOfType(ArithmeticException::class.java).isThrownBy { policy.execute { throw ArithmeticException() } }
+
+    assertThat(policy.circuitState).isEqualTo(CircuitState.OPEN)
+  }
+}
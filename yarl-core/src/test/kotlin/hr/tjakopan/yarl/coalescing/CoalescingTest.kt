@@ -0,0 +1,185 @@
+package hr.tjakopan.yarl.coalescing
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.Policy
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.runBlockingTest
+import org.assertj.core.api.Assertions.assertThat
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+@ExperimentalCoroutinesApi
+class CoalescingTest {
+  @Test
+  fun `should share one execution among concurrent threads`() {
+    val executions = AtomicInteger()
+    val started = CountDownLatch(1)
+    val release = CountDownLatch(1)
+    val policy = Policy.coalescing<Int>().coalesce()
+    var leaderResult = 0
+    var followerResult = 0
+
+    val leader = thread {
+      leaderResult = policy.execute(Context("key")) {
+        started.countDown()
+        release.await()
+        executions.incrementAndGet()
+      }
+    }
+    started.await()
+    val follower = thread { followerResult = policy.execute(Context("key")) { executions.incrementAndGet() } }
+    while (follower.state != Thread.State.WAITING) {
+      Thread.sleep(1)
+    }
+    release.countDown()
+    leader.join()
+    follower.join()
+
+    assertThat(leaderResult).isEqualTo(1)
+    assertThat(followerResult).isEqualTo(1)
+    assertThat(executions.get()).isEqualTo(1)
+  }
+
+  @Test
+  fun `should execute again once the shared execution has completed`() {
+    var executions = 0
+    val policy = Policy.coalescing<Int>().coalesce()
+
+    policy.execute(Context("key")) { ++executions }
+    val result = policy.execute(Context("key")) { ++executions }
+
+    assertThat(result).isEqualTo(2)
+  }
+
+  @Test
+  fun `should not coalesce executions without a coalescing key`() = runBlockingTest {
+    var executions = 0
+    val policy = Policy.asyncCoalescing<Int>().coalesce()
+
+    List(2) {
+      async {
+        policy.execute {
+          executions++
+          delay(100)
+          executions
+        }
+      }
+    }.awaitAll()
+
+    assertThat(executions).isEqualTo(2)
+  }
+
+  @Test
+  fun `should share the result of one suspending execution`() = runBlockingTest {
+    var executions = 0
+    val policy = Policy.asyncCoalescing<Int>()
+      .coalescingKey { it["userId"]?.toString() }
+      .coalesce()
+
+    val results = List(3) {
+      async {
+        policy.execute(Context(mapOf("userId" to 1))) {
+          delay(100)
+          ++executions
+        }
+      }
+    }.awaitAll()
+
+    assertThat(results).containsExactly(1, 1, 1)
+    assertThat(executions).isEqualTo(1)
+  }
+
+  @Test
+  fun `should share the exception of one suspending execution`() = runBlockingTest {
+    var executions = 0
+    val policy = Policy.asyncCoalescing<Int>().coalesce()
+
+    val callers = List(2) {
+      async {
+        runCatching {
+          policy.execute(Context("key")) {
+            executions++
+            delay(100)
+            throw ArithmeticException()
+          }
+        }
+      }
+    }.awaitAll()
+
+    assertThat(callers.map { it.exceptionOrNull() }).allMatch { it is ArithmeticException }
+    assertThat(executions).isEqualTo(1)
+  }
+
+  @Test
+  fun `should keep the shared execution running when one caller is cancelled`() = runBlockingTest {
+    var executions = 0
+    val policy = Policy.asyncCoalescing<Int>().coalesce()
+
+    val leader = async {
+      policy.execute(Context("key")) {
+        delay(100)
+        ++executions
+      }
+    }
+    val follower = async { policy.execute(Context("key")) { ++executions } }
+    leader.cancel()
+
+    assertThat(follower.await()).isEqualTo(1)
+    assertThat(executions).isEqualTo(1)
+    assertFailsWith<CancellationException> { leader.await() }
+  }
+
+  @Test
+  fun `should cancel the shared execution when every caller is cancelled`() = runBlockingTest {
+    var cancelled = false
+    val policy = Policy.asyncCoalescing<Int>().coalesce()
+
+    val caller = launch {
+      policy.execute(Context("key")) {
+        try {
+          delay(100)
+          1
+        } catch (e: CancellationException) {
+          cancelled = true
+          throw e
+        }
+      }
+    }
+    caller.cancel()
+    advanceUntilIdle()
+    val result = policy.execute(Context("key")) { 2 }
+
+    assertThat(cancelled).isTrue()
+    assertThat(result).isEqualTo(2)
+  }
+
+  @Test
+  fun `should share one future among concurrent callers`() {
+    var executions = 0
+    val pending = CompletableFuture<Int>()
+    val policy = Policy.asyncCoalescing<Int>().coalesce()
+
+    val first = policy.implementationAsync(Context("key"), Runnable::run) {
+      executions++
+      pending
+    }
+    val second = policy.implementationAsync(Context("key"), Runnable::run) {
+      executions++
+      CompletableFuture.completedFuture(2)
+    }
+    second.cancel(false)
+    pending.complete(1)
+
+    assertThat(first.join()).isEqualTo(1)
+    assertThat(executions).isEqualTo(1)
+  }
+}
@@ -0,0 +1,153 @@
+package hr.tjakopan.yarl.fallback
+
+import hr.tjakopan.yarl.Context
+import hr.tjakopan.yarl.DelegateResult
+import hr.tjakopan.yarl.Policy
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runBlockingTest
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+@ExperimentalCoroutinesApi
+class FallbackTest {
+  @Test
+  fun `should return the result of the action when it is not handled`() {
+    var fallbackCalled = false
+    val policy = Policy.fallback<Int>()
+      .handle(ArithmeticException::class)
+      .fallback({ _, _ ->
+        fallbackCalled = true
+        0
+      })
+
+    val result = policy.execute { 1 }
+
+    assertThat(result).isEqualTo(1)
+    assertThat(fallbackCalled).isFalse()
+  }
+
+  @Test
+  fun `should call on fallback and return the fallback value when the action throws a handled exception`() {
+    var fallbackOutcome: DelegateResult<Int>? = null
+    val policy = Policy.fallback<Int>()
+      .handle(ArithmeticException::class)
+      .fallback(0) { outcome, _ -> fallbackOutcome = outcome }
+
+    val result = policy.execute { throw ArithmeticException() }
+
+    assertThat(result).isEqualTo(0)
+    assertThat((fallbackOutcome as DelegateResult.Failure).exception).isInstanceOf(ArithmeticException::class.java)
+  }
+
+  @Test
+  fun `should fall back when the action returns a handled result`() {
+    val policy = Policy.fallback<Int>()
+      .handleResult(-1)
+      .fallback({ outcome, _ -> (outcome as DelegateResult.Success).value * 2 })
+
+    val result = policy.execute { -1 }
+
+    assertThat(result).isEqualTo(-2)
+  }
+
+  @Test
+  fun `should throw an unhandled exception without falling back`() {
+    val policy = Policy.fallback<Int>()
+      .handle(ArithmeticException::class)
+      .fallback(0)
+
+    assertFailsWith<IllegalStateException> { policy.execute { throw IllegalStateException() } }
+  }
+
+  @Test
+  fun `should fall back when a suspending action throws a handled exception`() = runBlockingTest {
+    var onFallbackCalled = false
+    val policy = Policy.asyncFallback<Int>()
+      .handle(ArithmeticException::class)
+      .fallback({ _, _ -> 0 }, { _, _ -> onFallbackCalled = true })
+
+    val result = policy.execute { throw ArithmeticException() }
+
+    assertThat(result).isEqualTo(0)
+    assertThat(onFallbackCalled).isTrue()
+  }
+
+  @Test
+  fun `should return the future of the action when it has completed with an unhandled outcome`() {
+    val policy = Policy.asyncFallback<Int>()
+      .handle(ArithmeticException::class)
+      .fallbackAsync(0)
+    val completed = CompletableFuture.completedFuture(1)
+
+    val result = policy.implementationAsync(Context(), Runnable::run) { completed }
+
+    assertThat(result).isSameAs(completed)
+  }
+
+  @Test
+  fun `should fall back when a future completes with a handled exception`() {
+    val pending = CompletableFuture<Int>()
+    val policy = Policy.asyncFallback<Int>()
+      .handle(ArithmeticException::class)
+      .fallbackAsync({ _, _ -> CompletableFuture.completedFuture(0) })
+
+    val result = policy.executeAsync { pending }
+    pending.completeExceptionally(ArithmeticException())
+
+    assertThat(result.join()).isEqualTo(0)
+  }
+
+  @Test
+  fun `should fall back with a suspending fallback action through the future api`() {
+    val policy = Policy.asyncFallback<Int>()
+      .handleResult(-1)
+      .fallback({ _, _ -> 0 })
+
+    val result = policy.executeAsync { CompletableFuture.completedFuture(-1) }
+
+    assertThat(result.join()).isEqualTo(0)
+  }
+
+  @Test
+  fun `should complete with an unhandled exception without falling back`() {
+    val policy = Policy.asyncFallback<Int>()
+      .handle(ArithmeticException::class)
+      .fallbackAsync(0)
+
+    val result = policy.executeAsync { CompletableFuture.supplyAsync<Int> { throw IllegalStateException() } }
+
+    assertThatThrownBy { result.get() }
+      .isInstanceOf(ExecutionException::class.java)
+      .hasCauseExactlyInstanceOf(IllegalStateException::class.java)
+  }
+
+  @Test
+  fun `should complete with the result of a pending future without falling back`() {
+    val pending = CompletableFuture<Int>()
+    val policy = Policy.asyncFallback<Int>()
+      .handle(ArithmeticException::class)
+      .fallbackAsync(0)
+
+    val result = policy.executeAsync(Runnable::run) { pending }
+    pending.complete(1)
+
+    assertThat(result.join()).isEqualTo(1)
+  }
+
+  @Test
+  fun `should cancel the future of the action when the returned future is cancelled`() {
+    val pending = CompletableFuture<Int>()
+    val policy = Policy.asyncFallback<Int>()
+      .handle(ArithmeticException::class)
+      .fallbackAsync(0)
+
+    val result = policy.executeAsync(Runnable::run) { pending }
+    result.cancel(false)
+
+    assertThat(pending.isCancelled).isTrue()
+  }
+}
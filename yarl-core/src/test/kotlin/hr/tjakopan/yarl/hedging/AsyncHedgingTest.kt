@@ -0,0 +1,149 @@
+package hr.tjakopan.yarl.hedging
+
+import hr.tjakopan.yarl.Policy
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.test.runBlockingTest
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import java.time.Duration
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+@ExperimentalCoroutinesApi
+class AsyncHedgingTest {
+  @Test
+  fun `should throw when max hedged attempts is less than zero`() {
+    val shouldThrow = {
+      Policy.asyncHedging<Int>()
+        .handle(ArithmeticException::class)
+        .hedge(-1, Duration.ofMillis(10))
+      Unit
+    }
+
+    assertThatThrownBy(shouldThrow)
+      .isInstanceOf(IllegalArgumentException::class.java)
+      .hasMessageContaining("Max hedged attempts")
+  }
+
+  @Test
+  fun `should return the first outcome and cancel the slower attempt`() = runBlockingTest {
+    var attempts = 0
+    var cancelled = false
+    val hedgedAttempts = mutableListOf<Int>()
+    val policy = Policy.asyncHedging<Int>()
+      .handle(ArithmeticException::class)
+      .hedge(1, Duration.ofMillis(100)) { attempt, _ -> hedgedAttempts.add(attempt) }
+
+    val result = policy.execute {
+      val attempt = ++attempts
+      try {
+        delay(if (attempt == 1) 1000 else 10)
+        attempt
+      } catch (e: CancellationException) {
+        cancelled = true
+        throw e
+      }
+    }
+
+    assertThat(result).isEqualTo(2)
+    assertThat(hedgedAttempts).containsExactly(1)
+    assertThat(cancelled).isTrue()
+    assertThat(currentTime).isEqualTo(110)
+  }
+
+  @Test
+  fun `should not hedge when the first attempt completes within the hedging delay`() = runBlockingTest {
+    var attempts = 0
+    val policy = Policy.asyncHedging<Int>()
+      .handle(ArithmeticException::class)
+      .hedge(2, Duration.ofMillis(100))
+
+    val result = policy.execute {
+      attempts++
+      delay(50)
+      1
+    }
+
+    assertThat(result).isEqualTo(1)
+    assertThat(attempts).isEqualTo(1)
+  }
+
+  @Test
+  fun `should hedge straight away when an attempt fails with a handled exception`() = runBlockingTest {
+    var attempts = 0
+    val policy = Policy.asyncHedging<Int>()
+      .handle(ArithmeticException::class)
+      .hedge(1, Duration.ofMinutes(1))
+
+    val result = policy.execute {
+      if (++attempts == 1) throw ArithmeticException()
+      attempts
+    }
+
+    assertThat(result).isEqualTo(2)
+    assertThat(currentTime).isEqualTo(0)
+  }
+
+  @Test
+  fun `should hedge when an attempt returns a handled result`() = runBlockingTest {
+    var attempts = 0
+    val policy = Policy.asyncHedging<Int>()
+      .handleResult(-1)
+      .hedge(2, Duration.ofMinutes(1))
+
+    val result = policy.execute { if (++attempts < 3) -1 else attempts }
+
+    assertThat(result).isEqualTo(3)
+  }
+
+  @Test
+  fun `should throw the last handled exception when every attempt fails`() = runBlockingTest {
+    var attempts = 0
+    val policy = Policy.asyncHedging<Int>()
+      .handle(ArithmeticException::class)
+      .hedge(2, Duration.ofMillis(10))
+
+    val e = assertFailsWith<ArithmeticException> {
+      policy.execute { throw ArithmeticException("${++attempts}") }
+    }
+
+    assertThat(e.message).isEqualTo("3")
+  }
+
+  @Test
+  fun `should throw an unhandled exception without hedging`() = runBlockingTest {
+    var attempts = 0
+    val policy = Policy.asyncHedging<Int>()
+      .handle(ArithmeticException::class)
+      .hedge(2, Duration.ofMillis(10))
+
+    assertFailsWith<IllegalStateException> {
+      policy.execute {
+        attempts++
+        throw IllegalStateException()
+      }
+    }
+    assertThat(attempts).isEqualTo(1)
+  }
+
+  @Test
+  fun `should compute the hedging delay of each hedged attempt`() = runBlockingTest {
+    val delays = mutableListOf<Int>()
+    val policy = Policy.asyncHedging<Int>()
+      .handle(ArithmeticException::class)
+      .hedge(2, { attempt, _ ->
+        delays.add(attempt)
+        Duration.ofMillis(attempt * 10L)
+      })
+
+    policy.execute {
+      delay(1000)
+      1
+    }
+
+    assertThat(delays).containsExactly(1, 2)
+    assertThat(currentTime).isEqualTo(1000)
+  }
+}
@@ -0,0 +1,185 @@
+package hr.tjakopan.yarl.metrics
+
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.ratelimit.RateLimitRejectedException
+import hr.tjakopan.yarl.ratelimit.rateLimit
+import hr.tjakopan.yarl.retry.asyncRetry
+import hr.tjakopan.yarl.retry.retry
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runBlockingTest
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+@ExperimentalCoroutinesApi
+class PolicyMetricsTest {
+  @Test
+  fun `should not record metrics unless enabled`() {
+    val policy = Policy.retry<Int>()
+      .policyKey("metrics-disabled")
+      .handle(ArithmeticException::class)
+      .retry()
+
+    policy.execute { 1 }
+
+    assertThat(policy.metrics).isNull()
+    assertThat(MetricsRegistry["metrics-disabled"]).isNull()
+  }
+
+  @Test
+  fun `should throw when recording metrics without an explicit policy key`() {
+    assertThatThrownBy { Policy.retry<Int>().recordMetrics().retry() }
+      .isInstanceOf(IllegalArgumentException::class.java)
+      .hasMessageContaining("Policy key")
+  }
+
+  @Test
+  fun `should record a success and its retries by attempt`() {
+    var attempts = 0
+    val policy = Policy.retry<Int>()
+      .policyKey("metrics-retried-success")
+      .recordMetrics()
+      .handle(ArithmeticException::class)
+      .retry(3)
+
+    policy.execute { if (++attempts < 3) throw ArithmeticException() else attempts }
+
+    val snapshot = policy.metrics!!.snapshot()
+    assertThat(snapshot.executions).isEqualTo(1)
+    assertThat(snapshot.successes).isEqualTo(1)
+    assertThat(snapshot.retriesByAttempt.take(3)).containsExactly(1L, 1L, 0L)
+    assertThat(snapshot.retries).isEqualTo(2)
+    assertThat(snapshot.latency.count).isEqualTo(1)
+  }
+
+  @Test
+  fun `should record handled and unhandled failures`() {
+    val policy = Policy.retry<Int>()
+      .policyKey("metrics-failures")
+      .recordMetrics()
+      .handle(ArithmeticException::class)
+      .handleResult(-1)
+      .retry()
+
+    assertFailsWith<ArithmeticException> { policy.execute { throw ArithmeticException() } }
+    assertThat(policy.execute { -1 }).isEqualTo(-1)
+    assertFailsWith<IllegalStateException> { policy.execute { throw IllegalStateException() } }
+
+    val snapshot = policy.metrics!!.snapshot()
+    assertThat(snapshot.executions).isEqualTo(3)
+    assertThat(snapshot.handledFailures).isEqualTo(2)
+    assertThat(snapshot.unhandledFailures).isEqualTo(1)
+    assertThat(snapshot.retries).isEqualTo(2)
+    assertThat(snapshot.latency.count).isEqualTo(3)
+  }
+
+  @Test
+  fun `should record a rejection without latency only when the policy rejects`() {
+    val rateLimit = Policy.rateLimit<Int>()
+      .policyKey("metrics-rate-limit")
+      .recordMetrics()
+      .rateLimit(1, Duration.ofMinutes(1))
+    val outer = Policy.retry<Int>()
+      .policyKey("metrics-outer-of-rate-limit")
+      .recordMetrics()
+      .handle(ArithmeticException::class)
+      .retry()
+
+    rateLimit.execute { 1 }
+    assertFailsWith<RateLimitRejectedException> { outer.execute { rateLimit.execute { 1 } } }
+
+    val rateLimitSnapshot = rateLimit.metrics!!.snapshot()
+    assertThat(rateLimitSnapshot.rejections).isEqualTo(1)
+    assertThat(rateLimitSnapshot.latency.count).isEqualTo(1)
+    val outerSnapshot = outer.metrics!!.snapshot()
+    assertThat(outerSnapshot.rejections).isEqualTo(0)
+    assertThat(outerSnapshot.unhandledFailures).isEqualTo(1)
+  }
+
+  @Test
+  fun `should record suspending executions`() = runBlockingTest {
+    var attempts = 0
+    val policy = Policy.asyncRetry<Int>()
+      .policyKey("metrics-suspending")
+      .recordMetrics()
+      .handle(ArithmeticException::class)
+      .retry()
+
+    policy.execute { if (++attempts < 2) throw ArithmeticException() else attempts }
+
+    val snapshot = policy.metrics!!.snapshot()
+    assertThat(snapshot.successes).isEqualTo(1)
+    assertThat(snapshot.retriesByAttempt.first()).isEqualTo(1)
+  }
+
+  @Test
+  fun `should record the outcome of a future before it is handed on`() {
+    val pending = CompletableFuture<Int>()
+    val policy = Policy.asyncRetry<Int>()
+      .policyKey("metrics-future")
+      .recordMetrics()
+      .handle(ArithmeticException::class)
+      .retry()
+
+    val result = policy.executeAsync(Runnable::run) { pending }
+    pending.completeExceptionally(IllegalStateException())
+
+    assertThatThrownBy { result.join() }.hasCauseExactlyInstanceOf(IllegalStateException::class.java)
+    assertThat(policy.metrics!!.snapshot().unhandledFailures).isEqualTo(1)
+  }
+
+  @Test
+  fun `should share metrics between policies with the same policy key`() {
+    val first = Policy.retry<Int>()
+      .policyKey("metrics-shared")
+      .recordMetrics()
+      .retry()
+    val second = Policy.retry<Int>()
+      .policyKey("metrics-shared")
+      .recordMetrics()
+      .retry()
+
+    first.execute { 1 }
+    second.execute { 2 }
+
+    assertThat(first.metrics).isSameAs(second.metrics)
+    assertThat(MetricsRegistry.snapshot()["metrics-shared"]!!.executions).isEqualTo(2)
+  }
+
+  @Test
+  fun `should bound the error of every latency bucket`() {
+    for (value in listOf(0L, 15L, 16L, 17L, 1_000L, 123_456_789L, LatencyHistogram.MAX_VALUE)) {
+      val index = LatencyHistogram.indexOf(value)
+      val highest = LatencyHistogram.highestValueOf(index)
+
+      assertThat(highest).isGreaterThanOrEqualTo(value)
+      assertThat(highest - value).isLessThanOrEqualTo(value / LatencyHistogram.SUB_BUCKET_COUNT)
+      if (index > 0) {
+        assertThat(LatencyHistogram.highestValueOf(index - 1)).isLessThan(value)
+      }
+    }
+    assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1)
+  }
+
+  @Test
+  fun `should compute percentiles from the histogram`() {
+    val histogram = LatencyHistogram()
+    for (millis in 1L..100L) {
+      histogram.record(Duration.ofMillis(millis).toNanos())
+    }
+
+    val snapshot = histogram.snapshot()
+
+    assertThat(snapshot.count).isEqualTo(100)
+    assertThat(snapshot.mean).isEqualTo(Duration.ofNanos(50_500_000))
+    assertThat(snapshot.percentile(50.0)).isBetween(Duration.ofMillis(50), Duration.ofNanos(50_000_000 * 17 / 16))
+    assertThat(snapshot.percentile(99.0)).isBetween(Duration.ofMillis(99), Duration.ofNanos(99_000_000 * 17 / 16))
+    assertThat(snapshot.max).isBetween(Duration.ofMillis(100), Duration.ofNanos(100_000_000 * 17 / 16))
+    assertThatThrownBy { snapshot.percentile(101.0) }
+      .isInstanceOf(IllegalArgumentException::class.java)
+      .hasMessageContaining("Percentile")
+  }
+}
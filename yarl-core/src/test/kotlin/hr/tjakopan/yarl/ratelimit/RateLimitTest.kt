@@ -0,0 +1,83 @@
+package hr.tjakopan.yarl.ratelimit
+
+import hr.tjakopan.yarl.Policy
+import kotlinx.coroutines.runBlocking
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatExceptionOfType
+import org.assertj.core.api.Assertions.catchThrowableOfType
+import java.time.Duration
+import kotlin.test.Test
+
+class RateLimitTest {
+  @Test
+  fun `should throw when number of executions is not greater than zero`() {
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.rateLimit<Unit>()
+        .rateLimit(0, Duration.ofSeconds(1))
+    }
+      .withMessageContaining("Number of executions")
+  }
+
+  @Test
+  fun `should permit executions up to max burst then reject with retry after hint`() {
+    val policy = Policy.rateLimit<Int>()
+      .rateLimit(1, Duration.ofMinutes(1), 3)
+
+    repeat(3) { assertThat(policy.execute { 42 }).isEqualTo(42) }
+
+    val exception = catchThrowableOfType({ policy.execute { 42 } }, RateLimitRejectedException::class.java)
+    assertThat(exception.retryAfter).isGreaterThan(Duration.ZERO)
+      .isLessThanOrEqualTo(Duration.ofMinutes(1))
+  }
+
+  @Test
+  fun `should refill tokens over time`() {
+    val policy = Policy.rateLimit<Int>()
+      .rateLimit(1, Duration.ofMillis(50))
+
+    policy.execute { 42 }
+    Thread.sleep(100)
+
+    assertThat(policy.execute { 42 }).isEqualTo(42)
+  }
+
+  @Test
+  fun `should wait for token when within max wait`() {
+    val policy = Policy.rateLimit<Int>()
+      .rateLimit(1, Duration.ofMillis(100), 1, Duration.ofSeconds(1))
+
+    policy.execute { 42 }
+    val start = System.nanoTime()
+    policy.execute { 42 }
+
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50))
+  }
+
+  @Test
+  fun `should suspend for token when within max wait`() = runBlocking<Unit> {
+    val policy = Policy.asyncRateLimit<Int>()
+      .rateLimit(1, Duration.ofMillis(100), 1, Duration.ofSeconds(1))
+
+    policy.execute { 42 }
+    val start = System.nanoTime()
+    val result = policy.execute { 42 }
+
+    assertThat(result).isEqualTo(42)
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50))
+  }
+
+  @Test
+  fun `should reject async execution when wait would exceed max wait`() = runBlocking<Unit> {
+    val policy = Policy.asyncRateLimit<Int>()
+      .rateLimit(1, Duration.ofMinutes(1), 1, Duration.ofMillis(10))
+
+    policy.execute { 42 }
+
+    try {
+      policy.execute { 42 }
+      throw AssertionError("Expected RateLimitRejectedException.")
+    } catch (e: RateLimitRejectedException) {
+      assertThat(e.retryAfter).isGreaterThan(Duration.ofMillis(10))
+    }
+  }
+}
@@ -9,10 +9,13 @@ import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.cancel
 import kotlinx.coroutines.delay
+import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.test.runBlockingTest
 import org.assertj.core.api.Assertions.assertThat
 import org.assertj.core.api.Assertions.assertThatThrownBy
 import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
 import kotlin.math.pow
 import kotlin.test.Test
 import kotlin.test.assertFailsWith
@@ -611,4 +614,40 @@ class AsyncWaitAndRetryHandleExceptionTest {
     assertThat(result).isNull()
     assertThat(attemptsInvoked).isEqualTo(1)
   }
+
+  @Test
+  fun `should wait with the sleeper of the policy without real time passing`() {
+    val slept = CopyOnWriteArrayList<Duration>()
+    val policy = Policy.asyncRetry<Int>()
+      .handle(ArithmeticException::class)
+      .sleeper(object : Sleeper {
+        override fun sleep(duration: Duration) {
+          throw UnsupportedOperationException()
+        }
+
+        override fun delayAsync(duration: Duration): CompletableFuture<Void> {
+          slept.add(duration)
+          return CompletableFuture.completedFuture(null)
+        }
+      })
+      .waitAndRetry(listOf(Duration.ofHours(1), Duration.ofHours(2)))
+    var suspendAttempts = 0
+    var futureAttempts = 0
+    val start = System.nanoTime()
+
+    val suspendResult = runBlocking {
+      policy.execute { if (++suspendAttempts < 3) throw ArithmeticException() else suspendAttempts }
+    }
+    val futureResult = policy.executeAsync {
+      when {
+        ++futureAttempts < 3 -> CompletableFuture.failedFuture(ArithmeticException())
+        else -> CompletableFuture.completedFuture(futureAttempts)
+      }
+    }.join()
+
+    assertThat(suspendResult).isEqualTo(3)
+    assertThat(futureResult).isEqualTo(3)
+    assertThat(slept).containsExactly(Duration.ofHours(1), Duration.ofHours(2), Duration.ofHours(1), Duration.ofHours(2))
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10))
+  }
 }
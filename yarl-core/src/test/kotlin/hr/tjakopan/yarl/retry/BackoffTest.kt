@@ -0,0 +1,133 @@
+package hr.tjakopan.yarl.retry
+
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.test.helpers.raiseExceptions
+import kotlinx.coroutines.runBlocking
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import java.time.Duration
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+class BackoffTest {
+  @Test
+  fun `constant backoff should return the same delay for every retry`() {
+    val sleepDurations = Backoff.constant(Duration.ofMillis(10), 3)
+
+    assertThat(sleepDurations).containsExactly(Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofMillis(10))
+  }
+
+  @Test
+  fun `linear backoff should grow by factor times initial delay`() {
+    val sleepDurations = Backoff.linear(Duration.ofMillis(10), 4, factor = 0.5)
+
+    assertThat(sleepDurations).containsExactly(
+      Duration.ofMillis(10),
+      Duration.ofMillis(15),
+      Duration.ofMillis(20),
+      Duration.ofMillis(25)
+    )
+  }
+
+  @Test
+  fun `exponential backoff should multiply delay by factor and respect max delay`() {
+    val sleepDurations = Backoff.exponential(Duration.ofMillis(10), 5, maxDelay = Duration.ofMillis(100))
+
+    assertThat(sleepDurations).containsExactly(
+      Duration.ofMillis(10),
+      Duration.ofMillis(20),
+      Duration.ofMillis(40),
+      Duration.ofMillis(80),
+      Duration.ofMillis(100)
+    )
+  }
+
+  @Test
+  fun `fast first should make first retry immediate`() {
+    val sleepDurations = Backoff.exponential(Duration.ofMillis(10), 3, fastFirst = true)
+
+    assertThat(sleepDurations).containsExactly(Duration.ZERO, Duration.ofMillis(10), Duration.ofMillis(20))
+  }
+
+  @Test
+  fun `full jitter should stay between zero and exponential ceiling`() {
+    val sleepDurations = Backoff.fullJitter(Duration.ofMillis(10), 1000, Duration.ofSeconds(1))
+
+    sleepDurations.forEachIndexed { n, sleepDuration ->
+      val ceiling = minOf(Duration.ofMillis(10).multipliedBy(1L shl minOf(n, 62)), Duration.ofSeconds(1))
+      assertThat(sleepDuration).isBetween(Duration.ZERO, ceiling)
+    }
+  }
+
+  @Test
+  fun `equal jitter should stay between half and whole of exponential ceiling`() {
+    val sleepDurations = Backoff.equalJitter(Duration.ofMillis(10), 1000, Duration.ofSeconds(1))
+
+    sleepDurations.forEachIndexed { n, sleepDuration ->
+      val ceiling = minOf(Duration.ofMillis(10).multipliedBy(1L shl minOf(n, 62)), Duration.ofSeconds(1))
+      assertThat(sleepDuration).isBetween(ceiling.dividedBy(2), ceiling)
+    }
+  }
+
+  @Test
+  fun `decorrelated jitter should stay between base delay and max delay`() {
+    val sleepDurations = Backoff.decorrelatedJitter(Duration.ofMillis(10), 1000, Duration.ofSeconds(1))
+
+    assertThat(sleepDurations).hasSize(1000)
+      .allSatisfy { assertThat(it).isBetween(Duration.ofMillis(10), Duration.ofSeconds(1)) }
+  }
+
+  @Test
+  fun `jittered backoff should spread delays of concurrent executions`() {
+    val sleepDurations = Backoff.decorrelatedJitter(Duration.ofMillis(10), 1, Duration.ofSeconds(1))
+
+    val firstDelays = (1..100).map { sleepDurations.first() }.toSet()
+
+    assertThat(firstDelays.size).isGreaterThan(1)
+  }
+
+  @Test
+  fun `backoff should be usable as an infinite schedule`() {
+    val sleepDurations = Backoff.constant(Duration.ZERO, Int.MAX_VALUE)
+
+    assertThat(sleepDurations.take(10_000)).hasSize(10_000)
+  }
+
+  @Test
+  fun `should throw when retry count is less than zero`() {
+    assertThatThrownBy { Backoff.exponential(Duration.ofMillis(1), -1) }
+      .isInstanceOf(IllegalArgumentException::class.java)
+      .hasMessageContaining("Retry count")
+  }
+
+  @Test
+  fun `should throw when delay is negative`() {
+    assertThatThrownBy { Backoff.fullJitter(Duration.ofMillis(-1), 1) }
+      .isInstanceOf(IllegalArgumentException::class.java)
+      .hasMessageContaining("Base delay")
+  }
+
+  @Test
+  fun `retry policy should retry as many times as there are backoff delays`() {
+    val policy = Policy.retry<Unit>()
+      .handle(ArithmeticException::class)
+      .waitAndRetry(Backoff.equalJitter(Duration.ofMillis(1), 3))
+
+    policy.raiseExceptions(3) { ArithmeticException() }
+    assertFailsWith(ArithmeticException::class) {
+      policy.raiseExceptions(3 + 1) { ArithmeticException() }
+    }
+  }
+
+  @Test
+  fun `async retry policy should retry as many times as there are backoff delays`() = runBlocking<Unit> {
+    val policy = Policy.asyncRetry<Unit>()
+      .handle(ArithmeticException::class)
+      .waitAndRetry(Backoff.decorrelatedJitter(Duration.ofMillis(1), 3, Duration.ofMillis(5)))
+
+    policy.raiseExceptions(3) { ArithmeticException() }
+    assertFailsWith(ArithmeticException::class) {
+      policy.raiseExceptions(3 + 1) { ArithmeticException() }
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package hr.tjakopan.yarl.retry
+
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.test.helpers.raiseExceptions
+import kotlinx.coroutines.runBlocking
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+
+class RetryBudgetTest {
+  @Test
+  fun `should refuse retries once the budget is spent`() {
+    val budget = RetryBudget(0.0, minRetriesPerSecond = 1, window = Duration.ofSeconds(2))
+    var retries = 0
+    val policy = Policy.retry<Unit>()
+      .handle(ArithmeticException::class)
+      .retryBudget(budget)
+      .retry(5) { _, _, _ -> retries++ }
+
+    assertFailsWith(ArithmeticException::class) {
+      policy.raiseExceptions(5) { ArithmeticException() }
+    }
+    assertThat(retries).isEqualTo(2)
+  }
+
+  @Test
+  fun `should share the budget between policies`() {
+    val budget = RetryBudget(0.0, minRetriesPerSecond = 1, window = Duration.ofSeconds(1))
+    val first = Policy.retry<Unit>()
+      .handle(ArithmeticException::class)
+      .retryBudget(budget)
+      .retry(1)
+    val second = Policy.asyncRetry<Unit>()
+      .handle(ArithmeticException::class)
+      .retryBudget(budget)
+      .retry(1)
+
+    first.raiseExceptions(1) { ArithmeticException() }
+    var attempts = 0
+    assertFailsWith(ArithmeticException::class) {
+      runBlocking {
+        second.execute {
+          attempts++
+          throw ArithmeticException()
+        }
+      }
+    }
+    assertThat(attempts).isEqualTo(1)
+  }
+
+  @Test
+  fun `should allow retries in proportion to first attempts`() {
+    val budget = RetryBudget(0.5, minRetriesPerSecond = 0)
+    val policy = Policy.retry<Unit>()
+      .handle(ArithmeticException::class)
+      .retryBudget(budget)
+      .retry(1)
+
+    repeat(2) { policy.execute {} }
+
+    policy.raiseExceptions(1) { ArithmeticException() }
+    policy.raiseExceptions(1) { ArithmeticException() }
+    assertFailsWith(ArithmeticException::class) {
+      policy.raiseExceptions(1) { ArithmeticException() }
+    }
+  }
+
+  @Test
+  fun `should not overspend the budget under concurrent retries`() {
+    val budget = RetryBudget(0.0, minRetriesPerSecond = 1, window = Duration.ofSeconds(10))
+    val start = CountDownLatch(1)
+    val withdrawn = AtomicInteger()
+    val threads = List(16) {
+      thread {
+        start.await()
+        repeat(100) {
+          if (budget.tryWithdraw()) {
+            withdrawn.incrementAndGet()
+          }
+        }
+      }
+    }
+
+    start.countDown()
+    threads.forEach(Thread::join)
+
+    assertThat(withdrawn.get()).isBetween(1, 10)
+  }
+
+  @Test
+  fun `should throw when retry ratio is negative`() {
+    assertThatThrownBy { RetryBudget(-0.1) }
+      .isInstanceOf(IllegalArgumentException::class.java)
+      .hasMessageContaining("Retry ratio")
+  }
+}
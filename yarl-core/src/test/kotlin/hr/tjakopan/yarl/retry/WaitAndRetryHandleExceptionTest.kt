@@ -3,6 +3,8 @@ package hr.tjakopan.yarl.retry
 import hr.tjakopan.yarl.Context
 import hr.tjakopan.yarl.Policy
 import hr.tjakopan.yarl.test.helpers.raiseExceptions
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeoutOrNull
 import org.assertj.core.api.Assertions.assertThat
 import org.assertj.core.api.Assertions.assertThatThrownBy
 import java.time.Duration
@@ -73,6 +75,29 @@ class WaitAndRetryHandleExceptionTest {
     }
   }
 
+  @Test
+  fun `should not throw when sleep durations are an infinite lazily generated sequence`() {
+    val policy = Policy.retry<Unit>()
+      .handle(ArithmeticException::class)
+      .waitAndRetry(generateSequence(Duration.ofMillis(1)) { it }.asIterable())
+
+    policy.raiseExceptions(5) { ArithmeticException() }
+  }
+
+  @Test
+  fun `should not be affected by changes to sleep durations collection after policy is built`() {
+    val sleepDurations = mutableListOf(Duration.ofMillis(1))
+    val policy = Policy.retry<Unit>()
+      .handle(ArithmeticException::class)
+      .waitAndRetry(sleepDurations)
+    sleepDurations.clear()
+
+    policy.raiseExceptions(1) { ArithmeticException() }
+    assertFailsWith(ArithmeticException::class) {
+      policy.raiseExceptions(1 + 1) { ArithmeticException() }
+    }
+  }
+
   @Test
   fun `should throw when exception thrown is not the specified exception type`() {
     val policy = Policy.retry<Unit>()
@@ -381,4 +406,44 @@ class WaitAndRetryHandleExceptionTest {
     }
     assertThat(retryInvoked).isFalse()
   }
+
+  @Test
+  fun `should sleep with the configured sleeper at nanosecond resolution`() {
+    val slept = mutableListOf<Duration>()
+    val policy = Policy.retry<Unit>()
+      .handle(ArithmeticException::class)
+      .sleeper(object : Sleeper {
+        override fun sleep(duration: Duration) {
+          slept.add(duration)
+        }
+      })
+      .waitAndRetry(listOf(Duration.ofNanos(1), Duration.ofNanos(1_500), Duration.ofHours(1)))
+
+    policy.raiseExceptions(3) { ArithmeticException() }
+
+    assertThat(slept).containsExactly(Duration.ofNanos(1), Duration.ofNanos(1_500), Duration.ofHours(1))
+  }
+
+  @Test
+  fun `system sleeper should wait sub-millisecond durations and propagate interruption`() {
+    val start = System.nanoTime()
+    Sleeper.SYSTEM.sleep(Duration.ofNanos(200_000))
+    assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(200_000)
+
+    Thread.currentThread().interrupt()
+    assertFailsWith(InterruptedException::class) {
+      Sleeper.SYSTEM.sleep(Duration.ofSeconds(10))
+    }
+    assertThat(Thread.interrupted()).isFalse()
+  }
+
+  @Test
+  fun `system sleeper should cap durations too long to count in nanoseconds`() = runBlocking<Unit> {
+    Thread.currentThread().interrupt()
+    assertFailsWith(InterruptedException::class) {
+      Sleeper.SYSTEM.sleep(Duration.ofSeconds(Long.MAX_VALUE))
+    }
+
+    assertThat(withTimeoutOrNull(10) { Sleeper.SYSTEM.delay(Duration.ofSeconds(Long.MAX_VALUE)) }).isNull()
+  }
 }
@@ -0,0 +1,107 @@
+package hr.tjakopan.yarl.timeout
+
+import hr.tjakopan.yarl.Policy
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withContext
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatExceptionOfType
+import org.assertj.core.api.Assertions.fail
+import java.time.Duration
+import kotlin.test.Test
+
+class TimeoutTest {
+  @Test
+  fun `should throw when timeout is not greater than zero`() {
+    assertThatExceptionOfType(IllegalArgumentException::class.java).isThrownBy {
+      Policy.timeout<Unit>()
+        .timeout(Duration.ZERO)
+    }
+      .withMessageContaining("Timeout")
+  }
+
+  @Test
+  fun `should return result when action completes within timeout`() {
+    val policy = Policy.timeout<Int>()
+      .timeout(Duration.ofSeconds(5))
+
+    assertThat(policy.execute { 42 }).isEqualTo(42)
+    assertThat(Thread.currentThread().isInterrupted).isFalse()
+  }
+
+  @Test
+  fun `should throw timeout rejected exception when optimistic timeout interrupts action`() {
+    var onTimeoutCalled = false
+    val policy = Policy.timeout<Unit>()
+      .timeout(Duration.ofMillis(50)) { _, _ -> onTimeoutCalled = true }
+
+    assertThatExceptionOfType(TimeoutRejectedException::class.java).isThrownBy {
+      policy.execute { Thread.sleep(5_000) }
+    }
+      .withCauseInstanceOf(InterruptedException::class.java)
+    assertThat(onTimeoutCalled).isTrue()
+    assertThat(Thread.currentThread().isInterrupted).isFalse()
+  }
+
+  @Test
+  fun `should walk away from action when pessimistic timeout elapses`() {
+    val policy = Policy.timeout<Unit>()
+      .timeout(Duration.ofMillis(50), TimeoutStrategy.PESSIMISTIC)
+    val start = System.nanoTime()
+
+    assertThatExceptionOfType(TimeoutRejectedException::class.java).isThrownBy {
+      policy.execute {
+        val deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos()
+        @Suppress("ControlFlowWithEmptyBody")
+        while (System.nanoTime() < deadline) {
+        }
+      }
+    }
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2))
+  }
+
+  @Test
+  fun `should rethrow exception thrown by action within pessimistic timeout`() {
+    val policy = Policy.timeout<Unit>()
+      .timeout(Duration.ofSeconds(5), TimeoutStrategy.PESSIMISTIC)
+
+    assertThatExceptionOfType(ArithmeticException::class.java).isThrownBy {
+      policy.execute { throw ArithmeticException() }
+    }
+  }
+
+  @Test
+  fun `should throw timeout rejected exception when optimistic async timeout cancels action`() = runBlocking<Unit> {
+    var onTimeoutCalled = false
+    val policy = Policy.asyncTimeout<Unit>()
+      .timeout(Duration.ofMillis(50)) { _, _ -> onTimeoutCalled = true }
+
+    try {
+      policy.execute { delay(5_000) }
+      fail<Unit>("Expected TimeoutRejectedException.")
+    } catch (e: TimeoutRejectedException) {
+      assertThat(onTimeoutCalled).isTrue()
+    }
+  }
+
+  @Test
+  fun `should throw timeout rejected exception when pessimistic async timeout elapses`() = runBlocking<Unit> {
+    val policy = Policy.asyncTimeout<Unit>()
+      .timeout(Duration.ofMillis(50), TimeoutStrategy.PESSIMISTIC)
+
+    try {
+      policy.execute { withContext(NonCancellable) { delay(1_000) } }
+      fail<Unit>("Expected TimeoutRejectedException.")
+    } catch (e: TimeoutRejectedException) {
+    }
+  }
+
+  @Test
+  fun `should return result when async action completes within timeout`() = runBlocking<Unit> {
+    val policy = Policy.asyncTimeout<Int>()
+      .timeout(Duration.ofSeconds(5))
+
+    assertThat(policy.execute { 42 }).isEqualTo(42)
+  }
+}
@@ -0,0 +1,113 @@
+package hr.tjakopan.yarl.wrap
+
+import hr.tjakopan.yarl.ISyncPolicy
+import hr.tjakopan.yarl.Policy
+import hr.tjakopan.yarl.noop.NoOpPolicy
+import hr.tjakopan.yarl.noop.asyncNoOp
+import hr.tjakopan.yarl.noop.noOp
+import hr.tjakopan.yarl.retry.RetryPolicy
+import hr.tjakopan.yarl.retry.asyncRetry
+import hr.tjakopan.yarl.retry.retry
+import kotlinx.coroutines.runBlocking
+import org.assertj.core.api.Assertions.assertThat
+import java.util.concurrent.CompletableFuture
+import kotlin.test.Test
+
+class WrapTest {
+  @Test
+  fun `compiled wrap should execute policies outermost first`() {
+    val policyKeys = mutableListOf<String?>()
+    val outer = Policy.retry<Unit>()
+      .handle(ArithmeticException::class)
+      .policyKey("outer")
+      .retry(1) { _, _, ctx -> policyKeys.add(ctx.policyKey) }
+    val inner = Policy.retry<Unit>()
+      .handle(IllegalArgumentException::class)
+      .policyKey("inner")
+      .retry(1) { _, _, ctx -> policyKeys.add(ctx.policyKey) }
+    val wrap = WrapPolicy.builder<Unit>()
+      .compiled()
+      .wrap(outer, Policy.noOp(), inner)
+    val exceptions = mutableListOf(IllegalArgumentException(), ArithmeticException(), IllegalArgumentException())
+
+    wrap.execute {
+      if (exceptions.isNotEmpty()) throw exceptions.removeAt(0)
+    }
+
+    assertThat(policyKeys).containsExactly("inner", "outer", "inner")
+  }
+
+  @Test
+  fun `compiled wrap should expose the wrap key to every policy`() {
+    var policyWrapKey: String? = null
+    val wrap = WrapPolicy.builder<Unit>()
+      .compiled()
+      .policyKey("wrap")
+      .wrap(*Array<ISyncPolicy<Unit>>(5) { Policy.noOp() })
+
+    wrap.execute { ctx -> policyWrapKey = ctx.policyWrapKey }
+
+    assertThat(policyWrapKey).isEqualTo("wrap")
+    assertThat(wrap.getPolicies()).hasSize(5)
+  }
+
+  @Test
+  fun `compiled async wrap should execute policies outermost first`() {
+    var attempts = 0
+    val wrap = AsyncWrapPolicy.builder<Int>()
+      .compiled()
+      .wrap(
+        Policy.asyncNoOp(),
+        Policy.asyncRetry<Int>().handle(ArithmeticException::class).retry(2),
+        Policy.asyncNoOp()
+      )
+
+    val result = runBlocking {
+      wrap.execute {
+        attempts++
+        if (attempts < 3) throw ArithmeticException()
+        attempts
+      }
+    }
+
+    assertThat(result).isEqualTo(3)
+    assertThat(wrap.getPolicies()).hasSize(3)
+  }
+
+  @Test
+  fun `compiled async wrap should retry futures through every inner policy`() {
+    val policyKeys = mutableListOf<String?>()
+    var attempts = 0
+    val wrap = AsyncWrapPolicy.builder<Int>()
+      .compiled()
+      .wrap(
+        Policy.asyncRetry<Int>().handle(ArithmeticException::class).retry(2),
+        Policy.asyncRetry<Int>().handle(IllegalArgumentException::class).policyKey("inner").retry()
+      )
+
+    val result = wrap.executeAsync(Runnable::run) { ctx ->
+      policyKeys.add(ctx.policyKey)
+      when {
+        ++attempts < 3 -> CompletableFuture.failedFuture(ArithmeticException())
+        else -> CompletableFuture.completedFuture(attempts)
+      }
+    }
+
+    assertThat(result.join()).isEqualTo(3)
+    assertThat(policyKeys).containsExactly("inner", "inner", "inner")
+  }
+
+  @Test
+  fun `should return the same flattened policies on every call`() {
+    val retry = Policy.retry<Unit>().retry()
+    val noOp = Policy.noOp<Unit>()
+    val wrap = WrapPolicy.builder<Unit>()
+      .wrap(noOp, retry.wrap(Policy.noOp()))
+
+    assertThat(wrap.getPolicies()).hasSize(3).startsWith(noOp, retry)
+    assertThat(wrap.getPolicies()).isSameAs(wrap.getPolicies())
+    assertThat(wrap.getPolicies(NoOpPolicy::class)).hasSize(2)
+    assertThat(wrap.getPolicy(RetryPolicy::class)).isSameAs(retry)
+    assertThat(wrap.getPolicy(NoOpPolicy::class) { it !== noOp }).isNotNull().isNotSameAs(noOp)
+  }
+}